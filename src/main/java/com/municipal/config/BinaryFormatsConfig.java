@@ -0,0 +1,219 @@
+package com.municipal.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Smile and CBOR bodies, negotiated with {@code Accept}/{@code Content-Type} next to JSON on every endpoint,
+ * for consumers that pull large listings. The mappers copy the configuration of Spring Boot's JSON mapper
+ * (java.time module, ISO dates), so the three formats carry the same fields and values. Smile also
+ * back-references repeated short strings, which covers the secretaria embedded in every servidor.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+    
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    
+    /** Body formats of every endpoint; JSON, first, is the one a wildcard Accept gets */
+    public static final List<MediaType> BODY_TYPES = List.of(
+            MediaType.APPLICATION_JSON, APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+    
+    /** Same types as the default Smile codecs; the codec constructors fall back to the JSON types without them */
+    private static final MimeType[] SMILE_TYPES = {
+            APPLICATION_SMILE, MediaType.parseMediaType("application/stream+x-jackson-smile")};
+    
+    /**
+     * The producible type content negotiation picks for an Accept list: the first one compatible with the
+     * accepted types ordered by quality and specificity, or the first producible type when none is
+     */
+    public static MediaType negotiate(List<MediaType> accepted, List<MediaType> producible) {
+        List<MediaType> sorted = new ArrayList<>(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        MimeTypeUtils.sortBySpecificity(sorted);
+        for (MediaType acceptedType : sorted) {
+            for (MediaType type : producible) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.isCompatibleWith(type)) {
+                    return type;
+                }
+            }
+        }
+        return producible.get(0);
+    }
+    
+    /**
+     * The JSON mapper's configuration over a Smile factory sharing repeated property names and string values
+     */
+    public static ObjectMapper smileMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+    
+    /**
+     * The JSON mapper's configuration over a CBOR factory
+     */
+    public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+    
+    /** Picked up by Spring Boot's {@code HttpMessageConverters} in place of the default Smile converter */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(objectMapper));
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapper));
+    }
+    
+    @Bean
+    @Profile("reactive")
+    public CodecCustomizer binaryFormatsCodecCustomizer(ObjectMapper objectMapper) {
+        ObjectMapper smile = smileMapper(objectMapper);
+        ObjectMapper cbor = cborMapper(objectMapper);
+        return configurer -> {
+            configurer.defaultCodecs().jackson2JsonEncoder(new SparseFieldsConfig.FilteringJsonEncoder(objectMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new ArraySmileEncoder(smile));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, SMILE_TYPES));
+            // Custom writers come before the default ones, and the first producible type answers a wildcard
+            // Accept: the JSON encoder is registered again ahead of CBOR so JSON stays the default
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new SparseFieldsConfig.FilteringJsonEncoder(objectMapper));
+            configurer.customCodecs().registerWithDefaultConfig(new ArrayCborEncoder(cbor));
+            configurer.customCodecs().registerWithDefaultConfig(
+                    new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+    
+    /**
+     * The stock encoder writes a Flux body as a JSON array ({@code [}, {@code ,}, {@code ]} between the values),
+     * which is not valid Smile; outside the streaming type the Flux is written as one Smile array instead
+     */
+    static class ArraySmileEncoder extends Jackson2SmileEncoder {
+        
+        ArraySmileEncoder(ObjectMapper mapper) {
+            super(mapper, SMILE_TYPES);
+        }
+        
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (getStreamingMediaTypes().stream().anyMatch(type -> type.equalsTypeAndSubtype(mimeType))) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return encodeAsArray(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+    
+    /**
+     * {@link Jackson2CborEncoder} only encodes single values; a Flux body is written as one array, the shape
+     * JSON gives it
+     */
+    static class ArrayCborEncoder extends Jackson2CborEncoder {
+        
+        ArrayCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+        
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return encodeAsArray(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+    
+    /**
+     * A Mono body is written as its single value, a Flux body as one array through a single generator per
+     * subscription (the Smile header is written once, CBOR uses an indefinite-length array), each element
+     * drained to a buffer as it arrives so the body streams with backpressure
+     */
+    private static Flux<DataBuffer> encodeAsArray(AbstractJackson2Encoder encoder, Publisher<?> inputStream,
+                                                  DataBufferFactory bufferFactory, ResolvableType elementType,
+                                                  MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encoder.encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        ObjectMapper mapper = encoder.getObjectMapper();
+        return Flux.defer(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            JsonGenerator generator;
+            try {
+                generator = mapper.getFactory().createGenerator(buffer);
+                generator.writeStartArray();
+            } catch (IOException e) {
+                return Flux.error(new EncodingException("Falha ao iniciar a codificação: " + e.getMessage(), e));
+            }
+            
+            return Flux.from(inputStream)
+                    .map(value -> {
+                        Object element = value instanceof MappingJacksonValue container ? container.getValue() : value;
+                        try {
+                            elementWriter(mapper, value).writeValue(generator, element);
+                            generator.flush();
+                        } catch (IOException e) {
+                            throw new EncodingException("Falha ao codificar o elemento: " + e.getMessage(), e);
+                        }
+                        return drain(buffer, bufferFactory);
+                    })
+                    .concatWith(Mono.fromCallable(() -> {
+                        generator.writeEndArray();
+                        generator.close();
+                        return drain(buffer, bufferFactory);
+                    }));
+        });
+    }
+    
+    /**
+     * Writer for one element, with the filters of a {@code MappingJacksonValue} (sparse fields) when it has them
+     */
+    private static ObjectWriter elementWriter(ObjectMapper mapper, Object value) {
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (value instanceof MappingJacksonValue container && container.getFilters() != null) {
+            writer = writer.with(container.getFilters());
+        }
+        return writer;
+    }
+    
+    private static DataBuffer drain(ByteArrayOutputStream buffer, DataBufferFactory bufferFactory) {
+        DataBuffer dataBuffer = bufferFactory.wrap(buffer.toByteArray());
+        buffer.reset();
+        return dataBuffer;
+    }
+}
@@ -0,0 +1,39 @@
+package com.municipal.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables Spring caching; the Caffeine caches themselves are declared in {@code spring.cache.*},
+ * except those needing their own expiry, registered here.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    /** Secretaria by id, shared by {@code SecretariaService} and the servidor reference resolver */
+    public static final String SECRETARIAS = "secretarias";
+    
+    /** Secretaria by upper-case sigla */
+    public static final String SECRETARIAS_BY_SIGLA = "secretariasBySigla";
+    
+    /** Keyset pages of {@code GET /api/secretarias} */
+    public static final String SECRETARIA_PAGES = "secretariaPages";
+    
+    /** {@code GET /api/estatisticas}; not evicted by writes, so it only lives {@code municipal.estatisticas.ttl} */
+    public static final String ESTATISTICAS = "estatisticas";
+    
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> estatisticasCache(
+            @Value("${municipal.estatisticas.ttl:5s}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(ESTATISTICAS,
+                Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.municipal.config;
+
+/**
+ * A document of a cached collection changed, possibly written by another instance. Published by
+ * {@link ChangeStreamCacheInvalidator}; the owners of local caches listen for it and evict what it affects.
+ */
+public class CacheInvalidationEvent {
+    
+    private final String collection;
+    private final String documentId;
+    private final String operationType;
+    
+    public CacheInvalidationEvent(String collection, String documentId, String operationType) {
+        this.collection = collection;
+        this.documentId = documentId;
+        this.operationType = operationType;
+    }
+    
+    public String getCollection() {
+        return collection;
+    }
+    
+    /**
+     * Id of the changed document; null for collection-wide events (drop, rename)
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+    
+    public String getOperationType() {
+        return operationType;
+    }
+    
+    @Override
+    public String toString() {
+        return "CacheInvalidationEvent{" +
+                "collection='" + collection + '\'' +
+                ", documentId='" + documentId + '\'' +
+                ", operationType='" + operationType + '\'' +
+                '}';
+    }
+}
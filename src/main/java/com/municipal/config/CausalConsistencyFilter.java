@@ -0,0 +1,162 @@
+package com.municipal.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import com.municipal.repository.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Base64;
+
+/**
+ * Read-your-writes across requests. Writes, and requests carrying a {@value #TOKEN_HEADER} header, run in a
+ * causally consistent session bound by {@link ReadRouting}; the response carries the session's operation and
+ * cluster time as the new token. A client sending it back gets reads, even from a secondary, that wait until
+ * the server has caught up with that point.
+ */
+public class CausalConsistencyFilter extends OncePerRequestFilter {
+    
+    public static final String TOKEN_HEADER = "X-Causal-Token";
+    
+    private static final String OPERATION_TIME = "operationTime";
+    private static final String CLUSTER_TIME = "clusterTime";
+    
+    private final MongoClient mongoClient;
+    private final ReadRouting readRouting;
+    
+    public CausalConsistencyFilter(MongoClient mongoClient, ReadRouting readRouting) {
+        this.mongoClient = mongoClient;
+        this.readRouting = readRouting;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getHeader(TOKEN_HEADER);
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        if (!readRouting.isActive() || (token == null && !write)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        try (ClientSession session = mongoClient.startSession(
+                ClientSessionOptions.builder().causallyConsistent(true).build())) {
+            if (token != null) {
+                try {
+                    advance(session, decode(token));
+                } catch (IllegalArgumentException e) {
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                    return;
+                }
+            }
+            TokenResponse tokenResponse = new TokenResponse(response, session);
+            readRouting.bindSession(session);
+            try {
+                chain.doFilter(request, tokenResponse);
+            } finally {
+                readRouting.unbindSession();
+            }
+            tokenResponse.addToken();
+        }
+    }
+    
+    private static void advance(ClientSession session, BsonDocument token) {
+        session.advanceClusterTime(token.getDocument(CLUSTER_TIME));
+        session.advanceOperationTime(token.getTimestamp(OPERATION_TIME));
+    }
+    
+    /**
+     * The session's position as a header value, {@code null} before its first operation
+     */
+    static String encode(BsonTimestamp operationTime, BsonDocument clusterTime) {
+        if (operationTime == null || clusterTime == null) {
+            return null;
+        }
+        BsonDocument token = new BsonDocument(OPERATION_TIME, operationTime).append(CLUSTER_TIME, clusterTime);
+        BasicOutputBuffer bytes = new BasicOutputBuffer();
+        new BsonDocumentCodec().encode(new BsonBinaryWriter(bytes), token, EncoderContext.builder().build());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+    
+    static BsonDocument decode(String token) {
+        try {
+            BsonDocument document = new RawBsonDocument(Base64.getUrlDecoder().decode(token));
+            document.getTimestamp(OPERATION_TIME);
+            document.getDocument(CLUSTER_TIME);
+            return document;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Token de consistência inválido: " + TOKEN_HEADER);
+        }
+    }
+    
+    /**
+     * Adds the token just before the response is committed, i.e. after the handler's writes
+     */
+    private static class TokenResponse extends HttpServletResponseWrapper {
+        
+        private final ClientSession session;
+        private boolean tokenAdded;
+        
+        TokenResponse(HttpServletResponse response, ClientSession session) {
+            super(response);
+            this.session = session;
+        }
+        
+        void addToken() {
+            if (tokenAdded || isCommitted()) {
+                return;
+            }
+            tokenAdded = true;
+            String token = encode(session.getOperationTime(), session.getClusterTime());
+            if (token != null) {
+                setHeader(TOKEN_HEADER, token);
+            }
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addToken();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addToken();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            addToken();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addToken();
+            super.sendError(sc, msg);
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            addToken();
+            super.sendError(sc);
+        }
+    }
+}
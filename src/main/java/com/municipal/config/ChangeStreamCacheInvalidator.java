@@ -0,0 +1,254 @@
+package com.municipal.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local caches coherent across instances: one database change stream over the secretarias and
+ * servidores collections publishes a {@link CacheInvalidationEvent} for every change, made by this instance
+ * or any other. The resume token is stored per instance ({@code municipal.cache-invalidation.node-id}) so a
+ * reconnect or a restart continues where the stream stopped; when the token has left the oplog every cache
+ * is invalidated and the stream starts over from now.
+ * <p>
+ * Change streams need a replica set or a sharded cluster; on a standalone server the invalidator logs a
+ * warning and stays off, leaving each instance with its own write evictions and TTLs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "municipal.cache-invalidation", name = "enabled", havingValue = "true",
+                       matchIfMissing = true)
+public class ChangeStreamCacheInvalidator implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamCacheInvalidator.class);
+    
+    static final List<String> COLLECTIONS = List.of("secretarias", "servidores");
+    
+    /** One document per instance: {@code {_id: nodeId, token, savedAt}} */
+    static final String TOKEN_COLLECTION = "changeStreamTokens";
+    
+    /** ChangeStreamFatalError and ChangeStreamHistoryLost: the stored token cannot be resumed */
+    private static final Set<Integer> UNRESUMABLE = Set.of(280, 286);
+    
+    /** How long a getMore waits for events, which also bounds how long stop() waits for the thread */
+    private static final Duration MAX_AWAIT = Duration.ofSeconds(1);
+    
+    /** Updated on every servidor write; counter-only updates are not evicted by local writes either */
+    private static final String SERVIDOR_COUNT_FIELD = "servidorCount";
+    
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final Duration tokenSaveInterval;
+    private final Duration retryDelay;
+    
+    private volatile boolean running;
+    private volatile boolean watching;
+    private Thread thread;
+    
+    // Only touched by the watch thread
+    private BsonDocument resumeToken;
+    private BsonDocument savedToken;
+    private long tokenSavedAt;
+    
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${municipal.cache-invalidation.node-id:${HOSTNAME:local}}") String nodeId,
+                                        @Value("${municipal.cache-invalidation.token-save-interval:5s}") Duration tokenSaveInterval,
+                                        @Value("${municipal.cache-invalidation.retry-delay:5s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId;
+        this.tokenSaveInterval = tokenSaveInterval;
+        this.retryDelay = retryDelay;
+    }
+    
+    @Override
+    public void start() {
+        if (!supportsChangeStreams()) {
+            logger.warn("Change streams indisponíveis (MongoDB sem replica set); escritas de outras instâncias " +
+                        "não invalidarão os caches locais");
+            return;
+        }
+        running = true;
+        thread = new Thread(this::watch, "cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Invalidação de caches por change stream iniciada - Nó: {}", nodeId);
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(MAX_AWAIT.multipliedBy(3).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * True once the change stream is open, i.e. changes made from now on will be seen
+     */
+    boolean isWatching() {
+        return watching;
+    }
+    
+    private boolean supportsChangeStreams() {
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (MongoException e) {
+            return false;
+        }
+    }
+    
+    private void watch() {
+        resumeToken = loadToken();
+        savedToken = resumeToken;
+        tokenSavedAt = System.nanoTime();
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open()) {
+                watching = true;
+                boolean changed = false;
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        publish(change);
+                        changed = true;
+                    }
+                    // Also advances without events, so a resume does not rescan history already seen
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                    // Only after events: saving the token is itself a write that would advance the stream
+                    if (changed && System.nanoTime() - tokenSavedAt >= tokenSaveInterval.toNanos()) {
+                        saveToken();
+                        changed = false;
+                    }
+                }
+                saveToken();
+            } catch (MongoException e) {
+                watching = false;
+                if (!running) {
+                    break;
+                }
+                if (UNRESUMABLE.contains(e.getCode())) {
+                    logger.warn("Token de retomada do change stream expirado; invalidando todos os caches");
+                    resumeToken = null;
+                    COLLECTIONS.forEach(collection ->
+                            eventPublisher.publishEvent(new CacheInvalidationEvent(collection, null, "invalidate")));
+                    continue;
+                }
+                logger.warn("Change stream interrompido, reconectando em {}: {}", retryDelay, e.getMessage());
+                pause();
+            }
+        }
+        watching = false;
+    }
+    
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", COLLECTIONS))))
+                .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+        return (resumeToken != null ? stream.startAfter(resumeToken) : stream).cursor();
+    }
+    
+    private void publish(ChangeStreamDocument<Document> change) {
+        if (isCounterOnly(change)) {
+            return;
+        }
+        String documentId = change.getDocumentKey() != null ? idOf(change.getDocumentKey().get("_id")) : null;
+        // Events without a namespace (database dropped or renamed) affect every collection
+        List<String> collections = change.getNamespace() != null
+                ? List.of(change.getNamespace().getCollectionName())
+                : COLLECTIONS;
+        for (String collection : collections) {
+            CacheInvalidationEvent event = new CacheInvalidationEvent(collection, documentId,
+                    change.getOperationTypeString());
+            logger.debug("Invalidação de cache recebida: {}", event);
+            eventPublisher.publishEvent(event);
+        }
+    }
+    
+    private static boolean isCounterOnly(ChangeStreamDocument<Document> change) {
+        UpdateDescription update = change.getUpdateDescription();
+        return change.getOperationType() == OperationType.UPDATE
+                && update != null
+                && (update.getRemovedFields() == null || update.getRemovedFields().isEmpty())
+                && update.getUpdatedFields() != null
+                && update.getUpdatedFields().keySet().equals(Set.of(SERVIDOR_COUNT_FIELD));
+    }
+    
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+    
+    private BsonDocument loadToken() {
+        BsonDocument stored = tokens().find(Filters.eq("_id", nodeId)).first();
+        return stored != null && stored.isDocument("token") ? stored.getDocument("token") : null;
+    }
+    
+    private void saveToken() {
+        if (resumeToken == null || resumeToken.equals(savedToken)) {
+            return;
+        }
+        BsonDocument document = new BsonDocument("_id", new BsonString(nodeId))
+                .append("token", resumeToken)
+                .append("savedAt", new BsonDateTime(System.currentTimeMillis()));
+        tokens().replaceOne(Filters.eq("_id", nodeId), document, new ReplaceOptions().upsert(true));
+        savedToken = resumeToken;
+        tokenSavedAt = System.nanoTime();
+    }
+    
+    private MongoCollection<BsonDocument> tokens() {
+        return mongoTemplate.getDb().getCollection(TOKEN_COLLECTION, BsonDocument.class);
+    }
+    
+    private void pause() {
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.municipal.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer setup, scraped at {@code /actuator/prometheus}. HTTP timers ({@code http.server.requests}),
+ * Mongo command timers ({@code mongodb.driver.commands}, per command and collection) and connection-pool
+ * gauges ({@code mongodb.driver.pool.*}) come from Spring Boot; this adds the service-layer timers.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    /**
+     * Timer of the {@code @Timed} service classes, tagged with class, method and exception ("none" on success)
+     */
+    public static final String SERVICE_TIMER = "municipal.service";
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.municipal.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.municipal.repository.ReadRouting;
+import com.municipal.repository.RoutingMongoTemplate;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+/**
+ * Read routing on the servlet stack ({@code municipal.read-routing.enabled}): service methods marked
+ * {@code @Transactional(readOnly = true)} read from secondaries, and writes hand out causal consistency tokens
+ * (see {@link CausalConsistencyFilter}). Needs a replica set or a sharded cluster; on a standalone server it
+ * logs a warning and every read stays on the primary.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "municipal.read-routing", name = "enabled", havingValue = "true")
+public class ReadRoutingConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReadRoutingConfig.class);
+    
+    @Bean
+    public ReadRouting readRouting(@Value("${municipal.read-routing.max-staleness:90s}") Duration maxStaleness) {
+        return new ReadRouting(maxStaleness);
+    }
+    
+    /**
+     * Replaces Spring Boot's template, which backs off when one is defined
+     */
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter,
+                                       ReadRouting readRouting) {
+        return new RoutingMongoTemplate(mongoDatabaseFactory, mongoConverter, readRouting);
+    }
+    
+    @Bean
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect(ReadRouting readRouting) {
+        return new ReadOnlyRoutingAspect(readRouting);
+    }
+    
+    @Bean
+    public CausalConsistencyFilter causalConsistencyFilter(MongoClient mongoClient, ReadRouting readRouting) {
+        return new CausalConsistencyFilter(mongoClient, readRouting);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void activate(ApplicationReadyEvent event) {
+        ReadRouting readRouting = event.getApplicationContext().getBean(ReadRouting.class);
+        MongoTemplate mongoTemplate = event.getApplicationContext().getBean(MongoTemplate.class);
+        try {
+            Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            readRouting.setActive(hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg")));
+        } catch (MongoException e) {
+            readRouting.setActive(false);
+        }
+        if (readRouting.isActive()) {
+            logger.info("Leituras somente leitura direcionadas a secundários ({})", readRouting.getSecondaryReads());
+        } else {
+            logger.warn("Roteamento de leituras inativo (MongoDB sem replica set); " +
+                        "todas as leituras vão ao primário");
+        }
+    }
+    
+    /**
+     * Lets the outermost {@code @Transactional} service call decide where the reads of the thread go
+     */
+    @Aspect
+    static class ReadOnlyRoutingAspect {
+        
+        private final ReadRouting readRouting;
+        
+        ReadOnlyRoutingAspect(ReadRouting readRouting) {
+            this.readRouting = readRouting;
+        }
+        
+        @Around("@within(org.springframework.transaction.annotation.Transactional) "
+                + "|| @annotation(org.springframework.transaction.annotation.Transactional)")
+        public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            if (!readRouting.enter(readsFromSecondary(method, joinPoint.getTarget().getClass()))) {
+                return joinPoint.proceed();
+            }
+            try {
+                return joinPoint.proceed();
+            } finally {
+                readRouting.exit();
+            }
+        }
+        
+        /**
+         * Read-only and not cached: a cached result outlives the staleness bound, so it is read from the primary
+         */
+        static boolean readsFromSecondary(Method method, Class<?> targetClass) {
+            Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            if (AnnotatedElementUtils.hasAnnotation(specificMethod, Cacheable.class)) {
+                return false;
+            }
+            Transactional transactional =
+                    AnnotatedElementUtils.findMergedAnnotation(specificMethod, Transactional.class);
+            if (transactional == null) {
+                transactional = AnnotatedElementUtils.findMergedAnnotation(targetClass, Transactional.class);
+            }
+            return transactional != null && transactional.readOnly();
+        }
+    }
+}
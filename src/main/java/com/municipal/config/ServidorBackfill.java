@@ -0,0 +1,54 @@
+package com.municipal.config;
+
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills derived fields ({@code emailNormalizado}, {@code nomeTokens}) on servidores stored before
+ * those fields existed, so their indexes cover every document, and the optimistic lock {@code version}
+ * on servidores and secretarias. Runs at startup and is a no-op once every document has the fields.
+ */
+@Component
+public class ServidorBackfill implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServidorBackfill.class);
+    
+    private final ServidorRepository servidorRepository;
+    private final SecretariaRepository secretariaRepository;
+    
+    @Autowired
+    public ServidorBackfill(ServidorRepository servidorRepository, SecretariaRepository secretariaRepository) {
+        this.servidorRepository = servidorRepository;
+        this.secretariaRepository = secretariaRepository;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long updated = servidorRepository.backfillEmailNormalizado();
+            if (updated > 0) {
+                logger.info("emailNormalizado preenchido em {} servidor(es)", updated);
+            }
+        } catch (DuplicateKeyException e) {
+            logger.error("Existem servidores com emails duplicados (ignorando maiúsculas/minúsculas); "
+                    + "corrija-os para que o índice único cubra todos os registros: {}", e.getMessage());
+        }
+        
+        long tokenized = servidorRepository.backfillNomeTokens();
+        if (tokenized > 0) {
+            logger.info("nomeTokens preenchido em {} servidor(es)", tokenized);
+        }
+        
+        long versioned = servidorRepository.backfillVersion() + secretariaRepository.backfillVersion();
+        if (versioned > 0) {
+            logger.info("version preenchida em {} documento(s)", versioned);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.municipal.config;
+
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorCountDrift;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fills the {@code servidorCount} of secretarias stored before it existed while the context starts, before
+ * the server takes requests: until then their {@code $inc} would start from zero and the delete guard could
+ * not match them. Then repairs the counts against a recount of servidores at startup and every
+ * {@code municipal.servidor-count.reconcile-interval}. Drift comes from writes made outside the
+ * services or interrupted between the servidor write and the counter update.
+ * <p>
+ * A count below the recount is raised at once. A count above it is also what a create looks like
+ * between its increment and its insert, and lowering it there would let {@code deleteIfNoServidores}
+ * remove the secretaria under that create: it is lowered only when the next run finds the same stored
+ * value still above the recount.
+ */
+@Component
+@EnableScheduling
+public class ServidorCountReconciler implements SmartInitializingSingleton, ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServidorCountReconciler.class);
+    
+    private final SecretariaRepository secretariaRepository;
+    
+    // Stored value of each count found above the recount by the previous run, by secretaria id
+    private Map<String, Long> excessSeen = Map.of();
+    
+    @Autowired
+    public ServidorCountReconciler(SecretariaRepository secretariaRepository) {
+        this.secretariaRepository = secretariaRepository;
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        long filled = secretariaRepository.backfillServidorCount();
+        if (filled > 0) {
+            logger.info("servidorCount preenchido em {} secretaria(s)", filled);
+        }
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+    
+    @Scheduled(fixedDelayString = "${municipal.servidor-count.reconcile-interval:PT1H}",
+               initialDelayString = "${municipal.servidor-count.reconcile-interval:PT1H}")
+    public synchronized void reconcile() {
+        List<ServidorCountDrift> fixes = new ArrayList<>();
+        Map<String, Long> excess = new HashMap<>();
+        for (ServidorCountDrift drift : secretariaRepository.findServidorCountDrifts()) {
+            if (drift.isExcess() && !Objects.equals(excessSeen.get(drift.getSecretariaId()), drift.getStored())) {
+                excess.put(drift.getSecretariaId(), drift.getStored());
+            } else {
+                fixes.add(drift);
+            }
+        }
+        excessSeen = excess;
+        
+        long fixed = secretariaRepository.correctServidorCounts(fixes);
+        if (fixed > 0) {
+            logger.warn("Quantidade de servidores corrigida em {} secretaria(s)", fixed);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.municipal.config;
+
+import com.municipal.monitoring.SlowQueryDetector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the slow-query detector on the Mongo clients (blocking and, in the "reactive" profile, reactive).
+ * Offenders are listed at {@code GET /api/admin/slow-queries}.
+ */
+@Configuration
+public class SlowQueryConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "municipal.slow-query.enabled", matchIfMissing = true)
+    public MongoClientSettingsBuilderCustomizer slowQueryListener(SlowQueryDetector slowQueryDetector) {
+        return builder -> builder.addCommandListener(slowQueryDetector);
+    }
+}
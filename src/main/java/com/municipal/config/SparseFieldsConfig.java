@@ -0,0 +1,77 @@
+package com.municipal.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes servidores and secretarias through named Jackson property filters, so a response carrying a
+ * sparse fieldset ({@code ?fields=}) writes only the requested properties, computed getters included. Responses
+ * without one fall back to the default filter, which writes everything. Declared as mix-ins on Spring Boot's
+ * mapper (and the Smile/CBOR copies of it), leaving the entities and other mappers untouched.
+ */
+@Configuration
+public class SparseFieldsConfig {
+    
+    public static final String SERVIDOR_FILTER = "servidor";
+    
+    public static final String SECRETARIA_FILTER = "secretaria";
+    
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(Servidor.class, ServidorFilterMixIn.class)
+                .mixIn(Secretaria.class, SecretariaFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+    
+    @JsonFilter(SERVIDOR_FILTER)
+    interface ServidorFilterMixIn {
+    }
+    
+    @JsonFilter(SECRETARIA_FILTER)
+    interface SecretariaFilterMixIn {
+    }
+    
+    /**
+     * The stock encoder streams NDJSON through one writer without the filters of each {@link MappingJacksonValue};
+     * a stream of them is encoded value by value instead, other streams are left to the stock path
+     */
+    static class FilteringJsonEncoder extends Jackson2JsonEncoder {
+        
+        FilteringJsonEncoder(ObjectMapper mapper) {
+            super(mapper);
+        }
+        
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            byte[] separator = getStreamingMediaTypeSeparator(mimeType);
+            if (!(inputStream instanceof Flux<?> items) || separator == null) {
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+            return items.switchOnFirst((first, all) -> first.get() instanceof MappingJacksonValue
+                    ? all.map(value -> bufferFactory.join(List.of(
+                            encodeValue(value, bufferFactory, elementType, mimeType, hints),
+                            bufferFactory.wrap(separator))))
+                    : super.encode(all, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.municipal.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Support for {@code spring.threads.virtual.enabled} (the "virtual-threads" profile). Spring Boot moves
+ * Tomcat and the application task executor to virtual threads; this sizes the Mongo pool for that mode.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MongoClientSettingsBuilderCustomizer virtualThreadsMongoPool(
+            @Value("${municipal.mongo.pool.max-size:200}") int maxSize,
+            @Value("${municipal.mongo.pool.min-size:20}") int minSize,
+            @Value("${municipal.mongo.pool.max-connecting:4}") int maxConnecting,
+            @Value("${municipal.mongo.pool.max-wait:2s}") Duration maxWait) {
+        
+        logger.info("Threads virtuais ativas - pool do MongoDB: max={}, min={}, maxConnecting={}, maxWait={}",
+                   maxSize, minSize, maxConnecting, maxWait);
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .minSize(minSize)
+                .maxConnecting(maxConnecting)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+    
+    /**
+     * Spring Boot silently ignores the property before Java 21; say so instead
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnIfUnsupported(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                && !Threading.VIRTUAL.isActive(environment)) {
+            logger.warn("spring.threads.virtual.enabled ignorado: threads virtuais exigem Java 21 (atual: {})",
+                       Runtime.version().feature());
+        }
+    }
+}
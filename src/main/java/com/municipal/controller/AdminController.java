@@ -0,0 +1,78 @@
+package com.municipal.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.municipal.dto.CacheStatistics;
+import com.municipal.dto.SlowQueryReport;
+import com.municipal.monitoring.SlowQueryDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diagnostics of the running instance. They reveal query shapes and can clear what was collected, and are
+ * not authenticated, so they only exist when {@code municipal.admin.enabled} is on; expose them only to
+ * operators.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@ConditionalOnProperty(name = "municipal.admin.enabled", havingValue = "true")
+public class AdminController {
+    
+    private final CacheManager cacheManager;
+    private final SlowQueryDetector slowQueryDetector;
+    
+    @Autowired
+    public AdminController(CacheManager cacheManager, SlowQueryDetector slowQueryDetector) {
+        this.cacheManager = cacheManager;
+        this.slowQueryDetector = slowQueryDetector;
+    }
+    
+    /**
+     * GET /admin/caches - Estatísticas de acerto/falha dos caches em memória
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatistics>> getCacheStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                statistics.add(new CacheStatistics(name, nativeCache.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        
+        return ResponseEntity.ok(statistics);
+    }
+    
+    /**
+     * GET /admin/slow-queries - Consultas lentas recentes, com plano de execução quando amostradas
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryReport>> getSlowQueries(
+            @RequestParam(defaultValue = "false") boolean flagged,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(slowQueryDetector.recent(flagged, Math.max(limit, 0)));
+    }
+    
+    /**
+     * DELETE /admin/slow-queries - Limpa as consultas lentas e os planos registrados
+     */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> clearSlowQueries() {
+        slowQueryDetector.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
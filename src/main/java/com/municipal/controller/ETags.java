@@ -0,0 +1,144 @@
+package com.municipal.controller;
+
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.ChangeStamp;
+import com.municipal.repository.FieldSelection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Strong ETags for conditional requests. A single resource is versioned by its id and updatedAt
+ * (a servidor also by those of its embedded secretaria); a listing by the {@link ChangeStamp}s of the
+ * collections it shows. updatedAt is cut to milliseconds, the precision Mongo stores, so the tag of a
+ * just-written entity equals the one computed after reading it back. Controllers read the version before
+ * the body, so a concurrent write can only leave a tag older than its body and cost one more full read.
+ * <p>
+ * A resource tag starts with the document's {@code @Version} ({@code "3-<hash>"}), so an If-Match write
+ * hands that version to the service and the version-guarded write itself enforces the precondition.
+ * <p>
+ * JSON, Smile and CBOR bodies of the same version are different representations, so every tag also hashes
+ * the negotiated body format, and {@link #negotiate} marks the response {@code Vary: Accept}.
+ */
+final class ETags {
+    
+    /**
+     * Expected version of an If-Match tag that no resource holds, so the guarded write always fails
+     */
+    static final long UNKNOWN_VERSION = -1;
+    
+    private ETags() {
+    }
+    
+    /**
+     * The body format the request negotiates, which its tags depend on; the response is marked
+     * {@code Vary: Accept} so caches keep the formats apart
+     */
+    static MediaType negotiate(WebRequest webRequest) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String[] accept = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        return negotiate(accept != null ? Arrays.asList(accept) : List.of());
+    }
+    
+    /**
+     * See {@link #negotiate(WebRequest)}
+     */
+    static MediaType negotiate(ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return negotiate(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT));
+    }
+    
+    static String of(Secretaria secretaria, MediaType format) {
+        return versioned(secretaria.getVersion(), format, secretaria.getId(), millis(secretaria.getUpdatedAt()));
+    }
+    
+    static String of(Servidor servidor, MediaType format) {
+        Secretaria secretaria = servidor.getSecretaria();
+        return versioned(servidor.getVersion(), format, servidor.getId(), millis(servidor.getUpdatedAt()),
+                secretaria != null ? secretaria.getId() : null,
+                secretaria != null ? millis(secretaria.getUpdatedAt()) : null);
+    }
+    
+    /**
+     * A sparse representation without the secretaria is versioned by the servidor alone
+     */
+    static String of(Servidor servidor, FieldSelection fields, MediaType format) {
+        return fields.includesSecretaria()
+                ? of(servidor, format)
+                : versioned(servidor.getVersion(), format, servidor.getId(), millis(servidor.getUpdatedAt()));
+    }
+    
+    static String of(List<ChangeStamp> stamps, MediaType format) {
+        Object[] parts = new Object[stamps.size() * 2];
+        for (int i = 0; i < stamps.size(); i++) {
+            parts[2 * i] = stamps.get(i).getCount();
+            parts[2 * i + 1] = millis(stamps.get(i).getLastUpdatedAt());
+        }
+        return tag(format, parts);
+    }
+    
+    /**
+     * The version an If-Match tag of a write was issued for, to pass as the expected version of the update.
+     * Null without If-Match or with "*", which any current version satisfies; {@link #UNKNOWN_VERSION} for a
+     * weak tag, a list of tags or a tag this server did not issue for a single resource.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        int dash = tag.indexOf('-');
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"") || dash < 0
+                || tag.indexOf(',') >= 0) {
+            return UNKNOWN_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, dash));
+        } catch (NumberFormatException e) {
+            return UNKNOWN_VERSION;
+        }
+    }
+    
+    /**
+     * Malformed Accept values are left for content negotiation to reject
+     */
+    private static MediaType negotiate(List<String> accept) {
+        try {
+            return BinaryFormatsConfig.negotiate(MediaType.parseMediaTypes(accept), BinaryFormatsConfig.BODY_TYPES);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+    
+    private static LocalDateTime millis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.MILLIS) : null;
+    }
+    
+    private static String versioned(Long version, MediaType format, Object... parts) {
+        return "\"" + version + "-" + tag(format, parts).substring(1);
+    }
+    
+    private static String tag(MediaType format, Object... parts) {
+        StringJoiner joined = new StringJoiner("|");
+        joined.add(format.toString());
+        for (Object part : parts) {
+            joined.add(String.valueOf(part));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(joined.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
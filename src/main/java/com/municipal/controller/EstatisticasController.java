@@ -0,0 +1,39 @@
+package com.municipal.controller;
+
+import com.municipal.dto.StatisticsReport;
+import com.municipal.service.EstatisticasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/estatisticas")
+@CrossOrigin(origins = "*")
+public class EstatisticasController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticasController.class);
+    
+    private final EstatisticasService estatisticasService;
+    
+    @Autowired
+    public EstatisticasController(EstatisticasService estatisticasService) {
+        this.estatisticasService = estatisticasService;
+    }
+    
+    /**
+     * GET /estatisticas - Quantidade de servidores, faixas etárias e idades por secretaria
+     */
+    @GetMapping
+    public ResponseEntity<StatisticsReport> getEstatisticas() {
+        logger.info("GET /api/estatisticas - Consultando estatísticas de servidores");
+        
+        return ResponseEntity.ok(estatisticasService.getStatistics());
+    }
+}
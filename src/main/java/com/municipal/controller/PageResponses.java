@@ -0,0 +1,43 @@
+package com.municipal.controller;
+
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Renders keyset pages as a plain JSON array, restricted to the selected fields; the next cursor travels in
+ * {@value #NEXT_CURSOR_HEADER} and in a {@code Link: <...>; rel="next"} header.
+ */
+final class PageResponses {
+    
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private PageResponses() {
+    }
+    
+    static ResponseEntity<Object> ok(KeysetPage<?> page, FieldSelection fields) {
+        HttpHeaders headers = page.hasNext()
+                ? nextPageHeaders(page, ServletUriComponentsBuilder.fromCurrentRequest())
+                : new HttpHeaders();
+        return ResponseEntity.ok().headers(headers).body(SparseFields.body(page.getContent(), fields));
+    }
+    
+    /**
+     * Next-page headers built from the current request URI; used directly by the WebFlux controllers
+     */
+    static HttpHeaders nextPageHeaders(KeysetPage<?> page, UriComponentsBuilder requestUri) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            String nextUri = requestUri
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .build()
+                    .toUriString();
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+            headers.add(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
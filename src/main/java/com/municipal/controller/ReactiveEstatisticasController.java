@@ -0,0 +1,46 @@
+package com.municipal.controller;
+
+import com.municipal.dto.StatisticsReport;
+import com.municipal.service.EstatisticasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux version of {@link EstatisticasController}; the cached blocking service runs off the event loop
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/estatisticas")
+@CrossOrigin(origins = "*")
+public class ReactiveEstatisticasController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEstatisticasController.class);
+    
+    private final EstatisticasService estatisticasService;
+    
+    @Autowired
+    public ReactiveEstatisticasController(EstatisticasService estatisticasService) {
+        this.estatisticasService = estatisticasService;
+    }
+    
+    /**
+     * GET /estatisticas - Quantidade de servidores, faixas etárias e idades por secretaria
+     */
+    @GetMapping
+    public Mono<ResponseEntity<StatisticsReport>> getEstatisticas() {
+        logger.info("GET /api/estatisticas - Consultando estatísticas de servidores");
+        
+        return Mono.fromCallable(estatisticasService::getStatistics)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
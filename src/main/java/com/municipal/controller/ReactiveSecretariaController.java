@@ -0,0 +1,158 @@
+package com.municipal.controller;
+
+import com.municipal.dto.SecretariaHeadcount;
+import com.municipal.dto.SecretariaPatch;
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.Secretaria;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.service.ReactiveSecretariaService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux version of {@link SecretariaController} for the "reactive" profile, with the same contract
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/secretarias")
+@CrossOrigin(origins = "*")
+public class ReactiveSecretariaController {
+    
+    private final ReactiveSecretariaService secretariaService;
+    
+    @Autowired
+    public ReactiveSecretariaController(ReactiveSecretariaService secretariaService) {
+        this.secretariaService = secretariaService;
+    }
+    
+    /**
+     * GET /secretarias - Lista as secretarias paginadas por cursor (?limit=&after=&sort=id|nome),
+     * restritas aos campos informados (?fields=id,sigla);
+     * responde 304 quando o If-None-Match corresponde à versão atual da coleção; com Accept: application/x-ndjson, transmite a partir do cursor respeitando a demanda do cliente
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllSecretarias(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(limit, after, sort);
+        FieldSelection fieldSelection = FieldSelection.secretaria(fields);
+        ServerHttpRequest request = exchange.getRequest();
+        MediaType format = ETags.negotiate(exchange);
+        
+        if (ReactiveServidorController.acceptsNdjson(request)) {
+            Flux<Secretaria> secretarias =
+                    secretariaService.stream(KeysetPageRequest.of(null, after, sort), fieldSelection);
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(ReactiveServidorController.sparse(limit != null ? secretarias.take(limit) : secretarias,
+                            fieldSelection)));
+        }
+        
+        return secretariaService.findChangeStamp().flatMap(stamp -> {
+            if (exchange.checkNotModified(ETags.of(List.of(stamp), format))) {
+                return Mono.empty();
+            }
+            return secretariaService.findPage(pageRequest, fieldSelection).map(page -> ResponseEntity.ok()
+                    .headers(PageResponses.nextPageHeaders(page, UriComponentsBuilder.fromUri(request.getURI())))
+                    .contentType(format)
+                    .body(Mono.just(SparseFields.body(page.getContent(), fieldSelection))));
+        });
+    }
+    
+    /**
+     * GET /secretarias/headcount - Quantidade de servidores por secretaria
+     */
+    @GetMapping("/headcount")
+    public Mono<ResponseEntity<List<SecretariaHeadcount>>> getHeadcounts() {
+        return secretariaService.findHeadcounts().map(ResponseEntity::ok);
+    }
+    
+    /**
+     * GET /secretarias/{id} - Busca uma secretaria por ID, opcionalmente só com os campos informados (?fields=);
+     * vem do cache, então a seleção apenas restringe o corpo
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getSecretariaById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        
+        FieldSelection fieldSelection = FieldSelection.secretaria(fields);
+        return secretariaService.findById(id).flatMap(secretaria -> {
+            if (exchange.checkNotModified(ETags.of(secretaria, ETags.negotiate(exchange)))) {
+                return Mono.empty();
+            }
+            return Mono.just(ResponseEntity.ok(SparseFields.body(secretaria, fieldSelection)));
+        });
+    }
+    
+    /**
+     * POST /secretarias - Cria uma nova secretaria
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Secretaria>> createSecretaria(@Valid @RequestBody Secretaria secretaria) {
+        return secretariaService.create(secretaria)
+                .map(createdSecretaria -> ResponseEntity.status(HttpStatus.CREATED).body(createdSecretaria));
+    }
+    
+    /**
+     * PUT /secretarias/{id} - Atualiza uma secretaria existente; com If-Match, responde 412 se ela mudou
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Secretaria>> updateSecretaria(
+            @PathVariable String id, 
+            @Valid @RequestBody Secretaria secretaria,
+            ServerWebExchange exchange) {
+        
+        // Ensure the ID from path is used, not from request body
+        secretaria.setId(id);
+        
+        // The If-Match version guards the write itself, see SecretariaController#updateSecretaria
+        String ifMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_MATCH);
+        return secretariaService.update(id, secretaria, ETags.expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated, ETags.negotiate(exchange))).body(updated))
+                .onErrorResume(VersionConflictException.class, e -> ifMatch != null
+                        ? Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build())
+                        : Mono.error(e));
+    }
+    
+    /**
+     * PATCH /secretarias/{id} - Altera apenas os campos informados, se a versão informada ainda for a atual
+     * (409 caso contrário)
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Secretaria>> patchSecretaria(
+            @PathVariable String id,
+            @Valid @RequestBody SecretariaPatch patch,
+            ServerWebExchange exchange) {
+        
+        return secretariaService.patch(id, patch)
+                .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated, ETags.negotiate(exchange))).body(updated));
+    }
+    
+    /**
+     * DELETE /secretarias/{id} - Remove uma secretaria
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteSecretaria(@PathVariable String id) {
+        return secretariaService.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+}
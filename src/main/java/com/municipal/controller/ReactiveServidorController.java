@@ -0,0 +1,257 @@
+package com.municipal.controller;
+
+import com.municipal.dto.BatchDeleteResult;
+import com.municipal.dto.BatchResult;
+import com.municipal.dto.ServidorPatch;
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.Servidor;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ServidorFilter;
+import com.municipal.service.ExportFormat;
+import com.municipal.service.ReactiveServidorExportService;
+import com.municipal.service.ReactiveServidorService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * WebFlux version of {@link ServidorController} for the "reactive" profile, with the same paths,
+ * parameters, status codes and headers. {@code GET /servidores} with {@code Accept: application/x-ndjson}
+ * streams from the cursor position instead of returning one page.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/servidores")
+@CrossOrigin(origins = "*")
+public class ReactiveServidorController {
+    
+    private final ReactiveServidorService servidorService;
+    private final ReactiveServidorExportService servidorExportService;
+    
+    @Autowired
+    public ReactiveServidorController(ReactiveServidorService servidorService,
+                                      ReactiveServidorExportService servidorExportService) {
+        this.servidorService = servidorService;
+        this.servidorExportService = servidorExportService;
+    }
+    
+    /**
+     * GET /servidores - Lista os servidores paginados por cursor (?limit=&after=&sort=id|nome),
+     * opcionalmente filtrados por faixa de idade e secretaria (?idadeMin=&idadeMax=&secretariaId=),
+     * caso em que são ordenados por data de nascimento,
+     * e restritos aos campos informados (?fields=id,nome,secretaria.sigla);
+     * responde 304 quando o If-None-Match corresponde à versão atual dos servidores e secretarias;
+     * com Accept: application/x-ndjson, transmite a partir do cursor respeitando a demanda do cliente
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllServidores(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) String secretariaId,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        
+        ServidorFilter filter = ServidorFilter.of(idadeMin, idadeMax, secretariaId, LocalDate.now());
+        KeysetPageRequest pageRequest = filter.pageRequest(limit, after, sort);
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        ServerHttpRequest request = exchange.getRequest();
+        MediaType format = ETags.negotiate(exchange);
+        
+        if (acceptsNdjson(request)) {
+            Flux<Servidor> servidores = servidorService.stream(filter.pageRequest(null, after, sort), filter,
+                    fieldSelection);
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(sparse(limit != null ? servidores.take(limit) : servidores, fieldSelection)));
+        }
+        
+        return servidorService.findListStamps().flatMap(stamps -> {
+            if (exchange.checkNotModified(ETags.of(stamps, format))) {
+                return Mono.empty();
+            }
+            return servidorService.findPage(pageRequest, filter, fieldSelection).map(page -> ResponseEntity.ok()
+                    .headers(PageResponses.nextPageHeaders(page, UriComponentsBuilder.fromUri(request.getURI())))
+                    .contentType(format)
+                    .body(Mono.just(SparseFields.body(page.getContent(), fieldSelection))));
+        });
+    }
+    
+    /**
+     * GET /servidores/search - Pesquisa servidores por nome, ignorando acentos (?q=&limit=&fields=)
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchServidores(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        MediaType format = ETags.negotiate(exchange);
+        return servidorService.findListStamps().flatMap(stamps -> {
+            if (exchange.checkNotModified(ETags.of(stamps, format))) {
+                return Mono.empty();
+            }
+            return servidorService.search(q, limit, fieldSelection)
+                    .map(servidores -> ResponseEntity.ok(SparseFields.body(servidores, fieldSelection)));
+        });
+    }
+    
+    /**
+     * GET /servidores/export - Exporta todos os servidores em streaming (?format=ndjson|csv|smile|cbor&gzip=true);
+     * sem ?format, o formato segue o Accept
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> exportServidores(
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader HttpHeaders requestHeaders) {
+        
+        ExportFormat exportFormat = ExportFormat.resolve(format, requestHeaders.getAccept());
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("servidores." + exportFormat.getExtension())
+                .build());
+        if (format == null || format.isBlank()) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT));
+        }
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(servidorExportService.export(exportFormat, gzip));
+    }
+    
+    /**
+     * GET /servidores/{id} - Busca um servidor por ID, opcionalmente só com os campos informados (?fields=)
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getServidorById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            ServerWebExchange exchange) {
+        
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        MediaType format = ETags.negotiate(exchange);
+        // A conditional request is first checked against the version alone, skipping the full read on a match
+        Mono<Boolean> notModified = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null
+                ? servidorService.findVersion(id)
+                        .map(version -> exchange.checkNotModified(ETags.of(version, fieldSelection, format)))
+                : Mono.just(false);
+        
+        return notModified.flatMap(matched -> {
+            if (matched) {
+                return Mono.empty();
+            }
+            return servidorService.findById(id, fieldSelection).flatMap(servidor -> {
+                if (exchange.checkNotModified(ETags.of(servidor, fieldSelection, format))) {
+                    return Mono.empty();
+                }
+                return Mono.just(ResponseEntity.ok(SparseFields.body(servidor, fieldSelection)));
+            });
+        });
+    }
+    
+    /**
+     * POST /servidores - Cria um novo servidor
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Servidor>> createServidor(@Valid @RequestBody Servidor servidor) {
+        return servidorService.create(servidor)
+                .map(createdServidor -> ResponseEntity.status(HttpStatus.CREATED).body(createdServidor));
+    }
+    
+    /**
+     * POST /servidores/batch - Cria vários servidores de uma vez, com resultado por item
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResult>> createServidoresBatch(@RequestBody List<Servidor> servidores) {
+        return servidorService.createBatch(servidores).map(result -> {
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        });
+    }
+    
+    /**
+     * PUT /servidores/{id} - Atualiza um servidor existente; com If-Match, responde 412 se ele mudou
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Servidor>> updateServidor(
+            @PathVariable String id, 
+            @Valid @RequestBody Servidor servidor,
+            ServerWebExchange exchange) {
+        
+        // Ensure the ID from path is used, not from request body
+        servidor.setId(id);
+        
+        // The If-Match version guards the write itself, see ServidorController#updateServidor
+        String ifMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_MATCH);
+        return servidorService.update(id, servidor, ETags.expectedVersion(ifMatch))
+                .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated, ETags.negotiate(exchange))).body(updated))
+                .onErrorResume(VersionConflictException.class, e -> ifMatch != null
+                        ? Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build())
+                        : Mono.error(e));
+    }
+    
+    /**
+     * PATCH /servidores/{id} - Altera apenas os campos informados, se a versão informada ainda for a atual
+     * (409 caso contrário)
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Servidor>> patchServidor(
+            @PathVariable String id,
+            @Valid @RequestBody ServidorPatch patch,
+            ServerWebExchange exchange) {
+        
+        return servidorService.patch(id, patch)
+                .map(updated -> ResponseEntity.ok().eTag(ETags.of(updated, ETags.negotiate(exchange))).body(updated));
+    }
+    
+    /**
+     * DELETE /servidores/{id} - Remove um servidor
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteServidor(@PathVariable String id) {
+        return servidorService.delete(id).then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+    
+    /**
+     * DELETE /servidores?ids=a,b,c - Remove vários servidores de uma vez; informa os ids não encontrados
+     */
+    @DeleteMapping(params = "ids")
+    public Mono<ResponseEntity<BatchDeleteResult>> deleteServidores(@RequestParam List<String> ids) {
+        return servidorService.deleteBatch(ids).map(ResponseEntity::ok);
+    }
+    
+    /**
+     * Streamed items restricted one by one to the selected fields
+     */
+    static Flux<?> sparse(Flux<?> items, FieldSelection fields) {
+        return fields.isAll() ? items : items.map(item -> SparseFields.body(item, fields));
+    }
+    
+    static boolean acceptsNdjson(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+}
@@ -1,24 +1,31 @@
 package com.municipal.controller;
 
+import com.municipal.dto.SecretariaHeadcount;
+import com.municipal.dto.SecretariaPatch;
+import com.municipal.exception.VersionConflictException;
 import com.municipal.model.Secretaria;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
 import com.municipal.service.SecretariaService;
 import jakarta.validation.Valid;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/secretarias")
 @CrossOrigin(origins = "*")
 public class SecretariaController {
     
-    private static final Logger logger = LoggerFactory.getLogger(SecretariaController.class);
-    
     private final SecretariaService secretariaService;
     
     @Autowired
@@ -27,29 +34,55 @@ public class SecretariaController {
     }
     
     /**
-     * GET /secretarias - Lista todas as secretarias
+     * GET /secretarias - Lista as secretarias paginadas por cursor (?limit=&after=&sort=id|nome),
+     * restritas aos campos informados (?fields=id,sigla);
+     * responde 304 quando o If-None-Match corresponde à versão atual da coleção
      */
     @GetMapping
-    public ResponseEntity<List<Secretaria>> getAllSecretarias() {
-        logger.info("GET /api/secretarias - Listando todas as secretarias");
+    public ResponseEntity<Object> getAllSecretarias(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        KeysetPageRequest pageRequest = KeysetPageRequest.of(limit, after, sort);
+        FieldSelection fieldSelection = FieldSelection.secretaria(fields);
+        MediaType format = ETags.negotiate(webRequest);
+        if (webRequest.checkNotModified(ETags.of(List.of(secretariaService.findChangeStamp()), format))) {
+            return null;
+        }
         
-        List<Secretaria> secretarias = secretariaService.findAll();
+        KeysetPage<Secretaria> page = secretariaService.findPage(pageRequest, fieldSelection);
         
-        logger.info("GET /api/secretarias - {} secretarias encontradas", secretarias.size());
-        return ResponseEntity.ok(secretarias);
+        return PageResponses.ok(page, fieldSelection);
+    }
+    
+    /**
+     * GET /secretarias/headcount - Quantidade de servidores por secretaria
+     */
+    @GetMapping("/headcount")
+    public ResponseEntity<List<SecretariaHeadcount>> getHeadcounts() {
+        return ResponseEntity.ok(secretariaService.findHeadcounts());
     }
     
     /**
-     * GET /secretarias/{id} - Busca uma secretaria por ID
+     * GET /secretarias/{id} - Busca uma secretaria por ID, opcionalmente só com os campos informados (?fields=);
+     * vem do cache, então a seleção apenas restringe o corpo
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Secretaria> getSecretariaById(@PathVariable String id) {
-        logger.info("GET /api/secretarias/{} - Buscando secretaria por ID", id);
+    public ResponseEntity<Object> getSecretariaById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
+        FieldSelection fieldSelection = FieldSelection.secretaria(fields);
         Secretaria secretaria = secretariaService.findById(id);
+        if (webRequest.checkNotModified(ETags.of(secretaria, ETags.negotiate(webRequest)))) {
+            return null;
+        }
         
-        logger.info("GET /api/secretarias/{} - Secretaria encontrada: {}", id, secretaria.getSigla());
-        return ResponseEntity.ok(secretaria);
+        return ResponseEntity.ok(SparseFields.body(secretaria, fieldSelection));
     }
     
     /**
@@ -57,33 +90,53 @@ public class SecretariaController {
      */
     @PostMapping
     public ResponseEntity<Secretaria> createSecretaria(@Valid @RequestBody Secretaria secretaria) {
-        logger.info("POST /api/secretarias - Criando nova secretaria: {}", secretaria.getSigla());
-        
         Secretaria createdSecretaria = secretariaService.create(secretaria);
         
-        logger.info("POST /api/secretarias - Secretaria criada com sucesso: ID={}, Sigla={}", 
-                   createdSecretaria.getId(), createdSecretaria.getSigla());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdSecretaria);
     }
     
     /**
-     * PUT /secretarias/{id} - Atualiza uma secretaria existente
+     * PUT /secretarias/{id} - Atualiza uma secretaria existente; com If-Match, responde 412 se ela mudou
      */
     @PutMapping("/{id}")
     public ResponseEntity<Secretaria> updateSecretaria(
             @PathVariable String id, 
-            @Valid @RequestBody Secretaria secretaria) {
-        
-        logger.info("PUT /api/secretarias/{} - Atualizando secretaria", id);
+            @Valid @RequestBody Secretaria secretaria,
+            WebRequest webRequest) {
         
         // Ensure the ID from path is used, not from request body
         secretaria.setId(id);
         
-        Secretaria updatedSecretaria = secretariaService.update(id, secretaria);
+        // The If-Match version guards the write itself, so nothing can change between check and update
+        String ifMatch = webRequest.getHeader(HttpHeaders.IF_MATCH);
+        Secretaria updatedSecretaria;
+        try {
+            updatedSecretaria = secretariaService.update(id, secretaria, ETags.expectedVersion(ifMatch));
+        } catch (VersionConflictException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
         
-        logger.info("PUT /api/secretarias/{} - Secretaria atualizada com sucesso: Sigla={}", 
-                   id, updatedSecretaria.getSigla());
-        return ResponseEntity.ok(updatedSecretaria);
+        return ResponseEntity.ok().eTag(ETags.of(updatedSecretaria, ETags.negotiate(webRequest)))
+                .body(updatedSecretaria);
+    }
+    
+    /**
+     * PATCH /secretarias/{id} - Altera apenas os campos informados, se a versão informada ainda for a atual
+     * (409 caso contrário)
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Secretaria> patchSecretaria(
+            @PathVariable String id,
+            @Valid @RequestBody SecretariaPatch patch,
+            WebRequest webRequest) {
+        
+        Secretaria updatedSecretaria = secretariaService.patch(id, patch);
+        
+        return ResponseEntity.ok().eTag(ETags.of(updatedSecretaria, ETags.negotiate(webRequest)))
+                .body(updatedSecretaria);
     }
     
     /**
@@ -91,11 +144,8 @@ public class SecretariaController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSecretaria(@PathVariable String id) {
-        logger.info("DELETE /api/secretarias/{} - Deletando secretaria", id);
-        
         secretariaService.delete(id);
         
-        logger.info("DELETE /api/secretarias/{} - Secretaria deletada com sucesso", id);
         return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
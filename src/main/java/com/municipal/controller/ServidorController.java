@@ -1,55 +1,157 @@
 package com.municipal.controller;
 
+import com.municipal.dto.BatchDeleteResult;
+import com.municipal.dto.BatchResult;
+import com.municipal.dto.ServidorPatch;
+import com.municipal.exception.VersionConflictException;
 import com.municipal.model.Servidor;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ServidorFilter;
+import com.municipal.service.ExportFormat;
+import com.municipal.service.ServidorExportService;
 import com.municipal.service.ServidorService;
 import jakarta.validation.Valid;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/servidores")
 @CrossOrigin(origins = "*")
 public class ServidorController {
     
-    private static final Logger logger = LoggerFactory.getLogger(ServidorController.class);
-    
     private final ServidorService servidorService;
+    private final ServidorExportService servidorExportService;
     
     @Autowired
-    public ServidorController(ServidorService servidorService) {
+    public ServidorController(ServidorService servidorService, ServidorExportService servidorExportService) {
         this.servidorService = servidorService;
+        this.servidorExportService = servidorExportService;
     }
     
     /**
-     * GET /servidores - Lista todos os servidores
+     * GET /servidores - Lista os servidores paginados por cursor (?limit=&after=&sort=id|nome),
+     * opcionalmente filtrados por faixa de idade e secretaria (?idadeMin=&idadeMax=&secretariaId=),
+     * caso em que são ordenados por data de nascimento,
+     * e restritos aos campos informados (?fields=id,nome,secretaria.sigla);
+     * responde 304 quando o If-None-Match corresponde à versão atual dos servidores e secretarias
      */
     @GetMapping
-    public ResponseEntity<List<Servidor>> getAllServidores() {
-        logger.info("GET /api/servidores - Listando todos os servidores");
+    public ResponseEntity<Object> getAllServidores(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer idadeMin,
+            @RequestParam(required = false) Integer idadeMax,
+            @RequestParam(required = false) String secretariaId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        ServidorFilter filter = ServidorFilter.of(idadeMin, idadeMax, secretariaId, LocalDate.now());
+        KeysetPageRequest pageRequest = filter.pageRequest(limit, after, sort);
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        if (webRequest.checkNotModified(ETags.of(servidorService.findListStamps(), ETags.negotiate(webRequest)))) {
+            return null;
+        }
+        
+        KeysetPage<Servidor> page = servidorService.findPage(pageRequest, filter, fieldSelection);
+        
+        return PageResponses.ok(page, fieldSelection);
+    }
+    
+    /**
+     * GET /servidores/search - Pesquisa servidores por nome, ignorando acentos (?q=&limit=&fields=)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchServidores(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        if (webRequest.checkNotModified(ETags.of(servidorService.findListStamps(), ETags.negotiate(webRequest)))) {
+            return null;
+        }
         
-        List<Servidor> servidores = servidorService.findAll();
+        List<Servidor> servidores = servidorService.search(q, limit, fieldSelection);
         
-        logger.info("GET /api/servidores - {} servidores encontrados", servidores.size());
-        return ResponseEntity.ok(servidores);
+        return ResponseEntity.ok(SparseFields.body(servidores, fieldSelection));
     }
     
     /**
-     * GET /servidores/{id} - Busca um servidor por ID
+     * GET /servidores/export - Exporta todos os servidores em streaming (?format=ndjson|csv|smile|cbor&gzip=true);
+     * sem ?format, o formato segue o Accept
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportServidores(
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader HttpHeaders requestHeaders) {
+        
+        ExportFormat exportFormat = ExportFormat.resolve(format, requestHeaders.getAccept());
+        
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+                servidorExportService.export(exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                servidorExportService.export(exportFormat, out);
+            }
+        };
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("servidores." + exportFormat.getExtension())
+                .build());
+        if (format == null || format.isBlank()) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT));
+        }
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+    
+    /**
+     * GET /servidores/{id} - Busca um servidor por ID, opcionalmente só com os campos informados (?fields=)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Servidor> getServidorById(@PathVariable String id) {
-        logger.info("GET /api/servidores/{} - Buscando servidor por ID", id);
+    public ResponseEntity<Object> getServidorById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        Servidor servidor = servidorService.findById(id);
+        FieldSelection fieldSelection = FieldSelection.servidor(fields);
+        MediaType format = ETags.negotiate(webRequest);
+        // A conditional request is first checked against the version alone, skipping the full read on a match
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(ETags.of(servidorService.findVersion(id), fieldSelection, format))) {
+            return null;
+        }
         
-        logger.info("GET /api/servidores/{} - Servidor encontrado: {}", id, servidor.getEmail());
-        return ResponseEntity.ok(servidor);
+        Servidor servidor = servidorService.findById(id, fieldSelection);
+        if (webRequest.checkNotModified(ETags.of(servidor, fieldSelection, format))) {
+            return null;
+        }
+        
+        return ResponseEntity.ok(SparseFields.body(servidor, fieldSelection));
     }
     
     /**
@@ -57,33 +159,62 @@ public class ServidorController {
      */
     @PostMapping
     public ResponseEntity<Servidor> createServidor(@Valid @RequestBody Servidor servidor) {
-        logger.info("POST /api/servidores - Criando novo servidor: {}", servidor.getEmail());
-        
         Servidor createdServidor = servidorService.create(servidor);
         
-        logger.info("POST /api/servidores - Servidor criado com sucesso: ID={}, Email={}", 
-                   createdServidor.getId(), createdServidor.getEmail());
         return ResponseEntity.status(HttpStatus.CREATED).body(createdServidor);
     }
     
     /**
-     * PUT /servidores/{id} - Atualiza um servidor existente
+     * POST /servidores/batch - Cria vários servidores de uma vez, com resultado por item
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createServidoresBatch(@RequestBody List<Servidor> servidores) {
+        BatchResult result = servidorService.createBatch(servidores);
+        
+        HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(result);
+    }
+    
+    /**
+     * PUT /servidores/{id} - Atualiza um servidor existente; com If-Match, responde 412 se ele mudou
      */
     @PutMapping("/{id}")
     public ResponseEntity<Servidor> updateServidor(
             @PathVariable String id, 
-            @Valid @RequestBody Servidor servidor) {
-        
-        logger.info("PUT /api/servidores/{} - Atualizando servidor", id);
+            @Valid @RequestBody Servidor servidor,
+            WebRequest webRequest) {
         
         // Ensure the ID from path is used, not from request body
         servidor.setId(id);
         
-        Servidor updatedServidor = servidorService.update(id, servidor);
+        // The If-Match version guards the write itself, so nothing can change between check and update
+        String ifMatch = webRequest.getHeader(HttpHeaders.IF_MATCH);
+        Servidor updatedServidor;
+        try {
+            updatedServidor = servidorService.update(id, servidor, ETags.expectedVersion(ifMatch));
+        } catch (VersionConflictException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        
+        return ResponseEntity.ok().eTag(ETags.of(updatedServidor, ETags.negotiate(webRequest))).body(updatedServidor);
+    }
+    
+    /**
+     * PATCH /servidores/{id} - Altera apenas os campos informados, se a versão informada ainda for a atual
+     * (409 caso contrário)
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Servidor> patchServidor(
+            @PathVariable String id,
+            @Valid @RequestBody ServidorPatch patch,
+            WebRequest webRequest) {
+        
+        Servidor updatedServidor = servidorService.patch(id, patch);
         
-        logger.info("PUT /api/servidores/{} - Servidor atualizado com sucesso: Email={}", 
-                   id, updatedServidor.getEmail());
-        return ResponseEntity.ok(updatedServidor);
+        return ResponseEntity.ok().eTag(ETags.of(updatedServidor, ETags.negotiate(webRequest))).body(updatedServidor);
     }
     
     /**
@@ -91,11 +222,18 @@ public class ServidorController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteServidor(@PathVariable String id) {
-        logger.info("DELETE /api/servidores/{} - Deletando servidor", id);
-        
         servidorService.delete(id);
         
-        logger.info("DELETE /api/servidores/{} - Servidor deletado com sucesso", id);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * DELETE /servidores?ids=a,b,c - Remove vários servidores de uma vez; informa os ids não encontrados
+     */
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<BatchDeleteResult> deleteServidores(@RequestParam List<String> ids) {
+        BatchDeleteResult result = servidorService.deleteBatch(ids);
+        
+        return ResponseEntity.ok(result);
+    }
 } 
\ No newline at end of file
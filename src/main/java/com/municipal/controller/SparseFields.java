@@ -0,0 +1,40 @@
+package com.municipal.controller;
+
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.municipal.config.SparseFieldsConfig;
+import com.municipal.repository.FieldSelection;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Set;
+
+/**
+ * Response bodies restricted to a {@link FieldSelection}: the value is wrapped with the property filters of
+ * {@link SparseFieldsConfig}, which the Jackson JSON, Smile and CBOR writers of both stacks apply.
+ */
+final class SparseFields {
+    
+    private SparseFields() {
+    }
+    
+    /**
+     * The value itself when every field is selected, otherwise the value with the selection's filters
+     */
+    static Object body(Object value, FieldSelection fields) {
+        if (fields.isAll()) {
+            return value;
+        }
+        MappingJacksonValue body = new MappingJacksonValue(value);
+        body.setFilters(new SimpleFilterProvider()
+                .addFilter(SparseFieldsConfig.SERVIDOR_FILTER, filter(fields.getServidorFields()))
+                .addFilter(SparseFieldsConfig.SECRETARIA_FILTER, filter(fields.getSecretariaFields())));
+        return body;
+    }
+    
+    private static PropertyFilter filter(Set<String> properties) {
+        return properties != null
+                ? SimpleBeanPropertyFilter.filterOutAllExcept(properties)
+                : SimpleBeanPropertyFilter.serializeAll();
+    }
+}
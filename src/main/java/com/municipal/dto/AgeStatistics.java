@@ -0,0 +1,71 @@
+package com.municipal.dto;
+
+import java.util.Map;
+
+/**
+ * Age figures of the servidores of one secretaria, or of all of them (secretaria fields null)
+ */
+public class AgeStatistics {
+    
+    private final String secretariaId;
+    private final String sigla;
+    private final String nome;
+    private final long headcount;
+    private final Integer minAge;
+    private final Integer maxAge;
+    private final Double averageAge;
+    private final long nearRetirement;
+    private final Map<String, Long> ageBrackets;
+    
+    public AgeStatistics(String secretariaId, String sigla, String nome, long headcount, Integer minAge,
+                         Integer maxAge, Double averageAge, long nearRetirement, Map<String, Long> ageBrackets) {
+        this.secretariaId = secretariaId;
+        this.sigla = sigla;
+        this.nome = nome;
+        this.headcount = headcount;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.averageAge = averageAge;
+        this.nearRetirement = nearRetirement;
+        this.ageBrackets = ageBrackets;
+    }
+    
+    public String getSecretariaId() {
+        return secretariaId;
+    }
+    
+    public String getSigla() {
+        return sigla;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public long getHeadcount() {
+        return headcount;
+    }
+    
+    public Integer getMinAge() {
+        return minAge;
+    }
+    
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+    
+    public Double getAverageAge() {
+        return averageAge;
+    }
+    
+    public long getNearRetirement() {
+        return nearRetirement;
+    }
+    
+    /**
+     * Servidores per age bracket ("18-29", ..., "70-75"), youngest first
+     */
+    public Map<String, Long> getAgeBrackets() {
+        return ageBrackets;
+    }
+}
@@ -0,0 +1,32 @@
+package com.municipal.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk delete: how many ids were asked for, how many servidores were deleted and which
+ * ids matched no servidor
+ */
+public class BatchDeleteResult {
+    
+    private final int requested;
+    private final long deleted;
+    private final List<String> notFound;
+    
+    public BatchDeleteResult(int requested, long deleted, List<String> notFound) {
+        this.requested = requested;
+        this.deleted = deleted;
+        this.notFound = List.copyOf(notFound);
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+    
+    public long getDeleted() {
+        return deleted;
+    }
+    
+    public List<String> getNotFound() {
+        return notFound;
+    }
+}
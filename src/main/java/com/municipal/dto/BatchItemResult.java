@@ -0,0 +1,50 @@
+package com.municipal.dto;
+
+/**
+ * Outcome of one item of a batch request, identified by its position in the request array
+ */
+public class BatchItemResult {
+    
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE,
+        ERROR
+    }
+    
+    private final int index;
+    private final Status status;
+    private final String id;
+    private final String message;
+    
+    private BatchItemResult(int index, Status status, String id, String message) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+    
+    public static BatchItemResult created(int index, String id) {
+        return new BatchItemResult(index, Status.CREATED, id, null);
+    }
+    
+    public static BatchItemResult failed(int index, Status status, String message) {
+        return new BatchItemResult(index, status, null, message);
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,39 @@
+package com.municipal.dto;
+
+import java.util.List;
+
+/**
+ * Per-item results of a batch request, in request order, plus totals
+ */
+public class BatchResult {
+    
+    private final int total;
+    private final int created;
+    private final int failed;
+    private final List<BatchItemResult> items;
+    
+    public BatchResult(List<BatchItemResult> items) {
+        this.items = List.copyOf(items);
+        this.total = items.size();
+        this.created = (int) items.stream()
+                .filter(item -> item.getStatus() == BatchItemResult.Status.CREATED)
+                .count();
+        this.failed = total - created;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,35 @@
+package com.municipal.dto;
+
+/**
+ * Number of servidores of one secretaria, read from its maintained counter
+ */
+public class SecretariaHeadcount {
+    
+    private final String id;
+    private final String sigla;
+    private final String nome;
+    private final long servidorCount;
+    
+    public SecretariaHeadcount(String id, String sigla, String nome, long servidorCount) {
+        this.id = id;
+        this.sigla = sigla;
+        this.nome = nome;
+        this.servidorCount = servidorCount;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getSigla() {
+        return sigla;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public long getServidorCount() {
+        return servidorCount;
+    }
+}
@@ -0,0 +1,51 @@
+package com.municipal.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body of PATCH /api/secretarias/{id}: only the fields present are changed, with the same constraints
+ * as a full update. version is the one the client read; the patch is rejected if it is no longer current.
+ */
+public class SecretariaPatch {
+    
+    @Size(min = 2, max = 100, message = "Nome deve ter entre 2 e 100 caracteres")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Nome é obrigatório")
+    private String nome;
+    
+    @Size(min = 2, max = 10, message = "Sigla deve ter entre 2 e 10 caracteres")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Sigla é obrigatória")
+    private String sigla;
+    
+    @NotNull(message = "Versão é obrigatória")
+    private Long version;
+    
+    public boolean hasChanges() {
+        return nome != null || sigla != null;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public String getSigla() {
+        return sigla;
+    }
+    
+    public void setSigla(String sigla) {
+        this.sigla = sigla;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,79 @@
+package com.municipal.dto;
+
+import com.municipal.validation.IdadeValida;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Body of PATCH /api/servidores/{id}: only the fields present are changed, with the same constraints
+ * as a full update. version is the one the client read; the patch is rejected if it is no longer current.
+ */
+public class ServidorPatch {
+    
+    @Size(min = 2, max = 100, message = "Nome deve ter entre 2 e 100 caracteres")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Nome é obrigatório")
+    private String nome;
+    
+    @Email(message = "E-mail deve ter um formato válido")
+    @Pattern(regexp = "(?s).*\\S.*", message = "E-mail é obrigatório")
+    private String email;
+    
+    @Past(message = "Data de nascimento deve ser uma data passada")
+    @IdadeValida
+    private LocalDate dataNascimento;
+    
+    @Pattern(regexp = "(?s).*\\S.*", message = "Secretaria é obrigatória")
+    private String secretariaId;
+    
+    @NotNull(message = "Versão é obrigatória")
+    private Long version;
+    
+    public boolean hasChanges() {
+        return nome != null || email != null || dataNascimento != null || secretariaId != null;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+    
+    public void setDataNascimento(LocalDate dataNascimento) {
+        this.dataNascimento = dataNascimento;
+    }
+    
+    public String getSecretariaId() {
+        return secretariaId;
+    }
+    
+    public void setSecretariaId(String secretariaId) {
+        this.secretariaId = secretariaId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
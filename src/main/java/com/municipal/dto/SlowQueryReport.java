@@ -0,0 +1,108 @@
+package com.municipal.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One Mongo command that exceeded the slow-query threshold, with the plan found by {@code explain}
+ * when it was sampled. The query is reported by shape only (values masked).
+ */
+public class SlowQueryReport {
+
+    private final Instant timestamp;
+    private final String command;
+    private final String collection;
+    private final long durationMillis;
+    private final boolean failed;
+    private final String repositoryMethod;
+    private final String caller;
+    private final String shape;
+    private final boolean explained;
+    private final List<String> stages;
+    private final Long docsExamined;
+    private final Long keysExamined;
+    private final Long returned;
+    private final List<String> flags;
+    private final String explainError;
+
+    public SlowQueryReport(Instant timestamp, String command, String collection, long durationMillis, boolean failed,
+                           String repositoryMethod, String caller, String shape, boolean explained,
+                           List<String> stages, Long docsExamined, Long keysExamined, Long returned,
+                           List<String> flags, String explainError) {
+        this.timestamp = timestamp;
+        this.command = command;
+        this.collection = collection;
+        this.durationMillis = durationMillis;
+        this.failed = failed;
+        this.repositoryMethod = repositoryMethod;
+        this.caller = caller;
+        this.shape = shape;
+        this.explained = explained;
+        this.stages = stages;
+        this.docsExamined = docsExamined;
+        this.keysExamined = keysExamined;
+        this.returned = returned;
+        this.flags = flags;
+        this.explainError = explainError;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public String getRepositoryMethod() {
+        return repositoryMethod;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public boolean isExplained() {
+        return explained;
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+
+    public Long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public Long getReturned() {
+        return returned;
+    }
+
+    public List<String> getFlags() {
+        return flags;
+    }
+
+    public String getExplainError() {
+        return explainError;
+    }
+}
@@ -0,0 +1,42 @@
+package com.municipal.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response of {@code GET /api/estatisticas}
+ */
+public class StatisticsReport {
+    
+    private final LocalDateTime generatedAt;
+    private final int nearRetirementAge;
+    private final AgeStatistics overall;
+    private final List<AgeStatistics> bySecretaria;
+    
+    public StatisticsReport(LocalDateTime generatedAt, int nearRetirementAge, AgeStatistics overall,
+                            List<AgeStatistics> bySecretaria) {
+        this.generatedAt = generatedAt;
+        this.nearRetirementAge = nearRetirementAge;
+        this.overall = overall;
+        this.bySecretaria = bySecretaria;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    /**
+     * Age from which a servidor counts as near retirement
+     */
+    public int getNearRetirementAge() {
+        return nearRetirementAge;
+    }
+    
+    public AgeStatistics getOverall() {
+        return overall;
+    }
+    
+    public List<AgeStatistics> getBySecretaria() {
+        return bySecretaria;
+    }
+}
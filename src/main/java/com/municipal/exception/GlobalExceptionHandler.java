@@ -2,19 +2,24 @@ package com.municipal.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ServerHttpObservationFilter;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -27,6 +32,7 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex, WebRequest request) {
         
         logger.warn("Erro de validação: {}", ex.getMessage());
+        recordError(request, ex);
         
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
@@ -53,6 +59,7 @@ public class GlobalExceptionHandler {
             ResourceNotFoundException ex, WebRequest request) {
         
         logger.warn("Recurso não encontrado: {}", ex.getMessage());
+        recordError(request, ex);
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.NOT_FOUND.value(),
@@ -72,6 +79,7 @@ public class GlobalExceptionHandler {
             BusinessException ex, WebRequest request) {
         
         logger.warn("Erro de negócio: {}", ex.getMessage());
+        recordError(request, ex);
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
@@ -83,6 +91,26 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Handle writes based on a stale version (optimistic locking)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        
+        logger.warn("Conflito de versão: {}", ex.getMessage());
+        recordError(request, ex);
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflito de versão",
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+    
     /**
      * Handle illegal argument exceptions
      */
@@ -91,6 +119,7 @@ public class GlobalExceptionHandler {
             IllegalArgumentException ex, WebRequest request) {
         
         logger.warn("Argumento inválido: {}", ex.getMessage());
+        recordError(request, ex);
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
@@ -110,6 +139,7 @@ public class GlobalExceptionHandler {
             Exception ex, WebRequest request) {
         
         logger.error("Erro interno do servidor: {}", ex.getMessage(), ex);
+        recordError(request, ex);
         
         ErrorResponse errorResponse = new ErrorResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -121,6 +151,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
+    /**
+     * Exceptions handled here never reach the observation filter; record them so the
+     * http.server.requests metrics carry the exception tag
+     */
+    private static void recordError(WebRequest request, Exception ex) {
+        if (request instanceof ServletWebRequest servletWebRequest) {
+            ServerHttpObservationFilter.findObservationContext(servletWebRequest.getRequest())
+                    .ifPresent(context -> context.setError(ex));
+        }
+    }
+    
     /**
      * Error response DTO
      */
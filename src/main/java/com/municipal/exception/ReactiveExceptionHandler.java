@@ -0,0 +1,117 @@
+package com.municipal.exception;
+
+import com.municipal.exception.GlobalExceptionHandler.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link GlobalExceptionHandler} for the "reactive" profile; produces the
+ * same {@link ErrorResponse} payloads, statuses and messages.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+    
+    /**
+     * Handle validation errors
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex, ServerWebExchange exchange) {
+        
+        logger.warn("Erro de validação: {}", ex.getMessage());
+        
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        
+        return error(HttpStatus.BAD_REQUEST, "Erro de validação", errors.toString(), ex, exchange);
+    }
+    
+    /**
+     * Handle resource not found exceptions
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
+            ResourceNotFoundException ex, ServerWebExchange exchange) {
+        
+        logger.warn("Recurso não encontrado: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Recurso não encontrado", ex.getMessage(), ex, exchange);
+    }
+    
+    /**
+     * Handle business exceptions
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ErrorResponse> handleBusinessException(
+            BusinessException ex, ServerWebExchange exchange) {
+        
+        logger.warn("Erro de negócio: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Erro de negócio", ex.getMessage(), ex, exchange);
+    }
+    
+    /**
+     * Handle writes based on a stale version (optimistic locking)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, ServerWebExchange exchange) {
+        
+        logger.warn("Conflito de versão: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, "Conflito de versão", ex.getMessage(), ex, exchange);
+    }
+    
+    /**
+     * Handle illegal argument exceptions
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex, ServerWebExchange exchange) {
+        
+        logger.warn("Argumento inválido: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, "Argumento inválido", ex.getMessage(), ex, exchange);
+    }
+    
+    /**
+     * Handle all other exceptions
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(
+            Exception ex, ServerWebExchange exchange) {
+        
+        logger.error("Erro interno do servidor: {}", ex.getMessage(), ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Erro interno do servidor",
+                "Ocorreu um erro inesperado. Tente novamente mais tarde.", ex, exchange);
+    }
+    
+    /**
+     * Same {@code path} format as {@code WebRequest.getDescription(false)} on the servlet side; the handled
+     * exception is recorded on the request observation so http.server.requests carries the exception tag
+     */
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+                                                       Exception ex, ServerWebExchange exchange) {
+        ServerRequestObservationContext.findCurrent(exchange.getAttributes())
+                .ifPresent(context -> context.setError(ex));
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), error, message,
+                "uri=" + exchange.getRequest().getPath().value());
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.municipal.exception;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * A write based on a version of the resource that is no longer the current one
+ */
+public class VersionConflictException extends OptimisticLockingFailureException {
+    
+    public VersionConflictException(String resource, Object id, Long version) {
+        super(String.format("%s com id '%s' foi alterado desde a versão %s; leia-o novamente e repita a operação",
+                resource, id, version));
+    }
+}
@@ -0,0 +1,70 @@
+package com.municipal.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Accent- and case-insensitive prefix tokens of a name, stored on the document so name search
+ * is an equality lookup on a multikey index instead of an unanchored regex.
+ * "João da Silva" yields jo, joa, joao, da, si, sil, silv, silva.
+ */
+public final class NomeTokens {
+    
+    public static final int MIN_LENGTH = 2;
+    public static final int MAX_LENGTH = 20;
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    
+    private NomeTokens() {
+    }
+    
+    /**
+     * Words of the text without accents, lower-cased
+     */
+    public static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+    
+    /**
+     * Every prefix of every word, from {@link #MIN_LENGTH} up to {@link #MAX_LENGTH} characters
+     */
+    public static List<String> of(String nome) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words(nome)) {
+            int longest = Math.min(word.length(), MAX_LENGTH);
+            for (int length = MIN_LENGTH; length <= longest; length++) {
+                tokens.add(word.substring(0, length));
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+    
+    /**
+     * Search terms of a user query, cut to {@link #MAX_LENGTH} so they match the stored prefixes
+     */
+    public static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words(query)) {
+            if (word.length() >= MIN_LENGTH) {
+                terms.add(word.length() > MAX_LENGTH ? word.substring(0, MAX_LENGTH) : word);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+}
@@ -1,8 +1,11 @@
 package com.municipal.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -10,6 +13,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Document(collection = "secretarias")
+@CompoundIndex(name = "nome_id_idx", def = "{'nome': 1, '_id': 1}")
 public class Secretaria {
     
     @Id
@@ -27,6 +31,18 @@ public class Secretaria {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Optimistic lock, bumped by edits of nome and sigla only (servidorCount changes do not conflict)
+    @Version
+    private Long version;
+    
+    /**
+     * Servidores referencing this secretaria, kept with atomic {@code $inc} by the servidor writes and
+     * repaired by {@code ServidorCountReconciler}. Never written by a whole-document save after the
+     * insert; not serialized, since cached instances carry a stale value (see GET /api/secretarias/headcount).
+     */
+    @JsonIgnore
+    private long servidorCount;
+    
     // Constructors
     public Secretaria() {
         this.createdAt = LocalDateTime.now();
@@ -65,6 +81,14 @@ public class Secretaria {
         this.updatedAt = LocalDateTime.now();
     }
     
+    public long getServidorCount() {
+        return servidorCount;
+    }
+    
+    public void setServidorCount(long servidorCount) {
+        this.servidorCount = servidorCount;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -81,6 +105,14 @@ public class Secretaria {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -102,6 +134,7 @@ public class Secretaria {
                 ", sigla='" + sigla + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
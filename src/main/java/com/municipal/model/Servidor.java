@@ -1,5 +1,6 @@
 package com.municipal.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.municipal.validation.IdadeValida;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,15 +8,24 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 @Document(collection = "servidores")
+@CompoundIndex(name = "nome_id_idx", def = "{'nome': 1, '_id': 1}")
+@CompoundIndex(name = "nome_tokens_idx", def = "{'nomeTokens': 1, 'nome': 1}")
+@CompoundIndex(name = "secretaria_nascimento_id_idx", def = "{'secretaria': 1, 'dataNascimento': 1, '_id': 1}")
+@CompoundIndex(name = "nascimento_id_idx", def = "{'dataNascimento': 1, '_id': 1}")
 public class Servidor {
     
     @Id
@@ -25,10 +35,20 @@ public class Servidor {
     @Size(min = 2, max = 100, message = "Nome deve ter entre 2 e 100 caracteres")
     private String nome;
     
+    // Search tokens derived from nome, see NomeTokens
+    @JsonIgnore
+    private List<String> nomeTokens;
+    
     @NotBlank(message = "E-mail é obrigatório")
     @Email(message = "E-mail deve ter um formato válido")
     private String email;
     
+    // Lower-case copy of email; its unique index enforces case-insensitive uniqueness on insert.
+    // Sparse so documents written before the field existed do not collide until they are backfilled.
+    @JsonIgnore
+    @Indexed(unique = true, sparse = true)
+    private String emailNormalizado;
+    
     @NotNull(message = "Data de nascimento é obrigatória")
     @Past(message = "Data de nascimento deve ser uma data passada")
     @IdadeValida
@@ -39,8 +59,15 @@ public class Servidor {
     private Secretaria secretaria;
     
     private LocalDateTime createdAt;
+    
+    // Indexed so the newest updatedAt, which versions listings (ETag), is read from the index
+    @Indexed
     private LocalDateTime updatedAt;
     
+    // Optimistic lock: whole-document saves and PATCH only apply to the version that was read
+    @Version
+    private Long version;
+    
     // Constructors
     public Servidor() {
         this.createdAt = LocalDateTime.now();
@@ -50,7 +77,9 @@ public class Servidor {
     public Servidor(String nome, String email, LocalDate dataNascimento, Secretaria secretaria) {
         this();
         this.nome = nome;
+        this.nomeTokens = NomeTokens.of(nome);
         this.email = email;
+        this.emailNormalizado = normalizeEmail(email);
         this.dataNascimento = dataNascimento;
         this.secretaria = secretaria;
     }
@@ -84,18 +113,35 @@ public class Servidor {
     
     public void setNome(String nome) {
         this.nome = nome;
+        this.nomeTokens = NomeTokens.of(nome);
         this.updatedAt = LocalDateTime.now();
     }
     
+    public List<String> getNomeTokens() {
+        return nomeTokens;
+    }
+    
     public String getEmail() {
         return email;
     }
     
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalizado = normalizeEmail(email);
         this.updatedAt = LocalDateTime.now();
     }
     
+    public String getEmailNormalizado() {
+        return emailNormalizado;
+    }
+    
+    /**
+     * Canonical form used for email uniqueness
+     */
+    public static String normalizeEmail(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+    
     public LocalDate getDataNascimento() {
         return dataNascimento;
     }
@@ -130,6 +176,14 @@ public class Servidor {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -150,10 +204,10 @@ public class Servidor {
                 ", nome='" + nome + '\'' +
                 ", email='" + email + '\'' +
                 ", dataNascimento=" + dataNascimento +
-                ", idade=" + getIdade() +
                 ", secretaria=" + (secretaria != null ? secretaria.getSigla() : "null") +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.municipal.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One fixed-schema JSON line per request, written by {@code AccessLogFilter} (servlet) or
+ * {@code ReactiveAccessLogFilter} (reactive) to the {@value #LOGGER_NAME} logger, which {@code logback-spring.xml}
+ * hands to a bounded asynchronous appender that drops events rather than blocking a request when it is full.
+ * <p>
+ * Errors (status 400 and above, or a request that failed with an exception) are always written; successful
+ * requests only with probability {@code municipal.access-log.sample-rate}. Each line carries the rate it was
+ * sampled at, so counts can be scaled back up.
+ */
+@Component
+public class AccessLog {
+
+    public static final String LOGGER_NAME = "municipal.access";
+
+    private static final Logger accessLogger = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final double sampleRate;
+
+    public AccessLog(@Value("${municipal.access-log.sample-rate:1.0}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sample-rate do access log deve estar entre 0 e 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Write the request if it is an error or falls in the sample
+     *
+     * @param route the matched handler pattern, {@code null} when no handler matched
+     * @param failure exception the request ended with, if it escaped the exception handlers
+     */
+    public void record(String method, String path, String route, int status, long durationNanos, Throwable failure) {
+        boolean error = status >= 400 || failure != null;
+        if (!accessLogger.isInfoEnabled()
+                || (!error && (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate))) {
+            return;
+        }
+        accessLogger.info(format(Instant.now(), method, path, route, status, durationNanos, failure,
+                error ? 1.0 : sampleRate));
+    }
+
+    static String format(Instant timestamp, String method, String path, String route, int status,
+                         long durationNanos, Throwable failure, double sampleRate) {
+        StringBuilder line = new StringBuilder(192);
+        line.append("{\"ts\":\"").append(timestamp).append('"');
+        line.append(",\"method\":");
+        appendString(line, method);
+        line.append(",\"path\":");
+        appendString(line, path);
+        line.append(",\"route\":");
+        appendString(line, route);
+        line.append(",\"status\":").append(status);
+        line.append(",\"durationMicros\":").append(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        line.append(",\"error\":");
+        appendString(line, failure != null ? failure.getClass().getName() : null);
+        line.append(",\"sampleRate\":").append(sampleRate);
+        return line.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,105 @@
+package com.municipal.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the observed latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. Latencies are averaged over windows of {@value #WINDOW_SIZE} requests; the average of
+ * a window (short RTT) is compared with an exponential average over many windows (long RTT). While the short
+ * RTT stays near the long one the limit grows by about its square root per window; when it rises, i.e. requests
+ * start queueing downstream, the limit shrinks in proportion, down to half per window.
+ * <p>
+ * The limit only grows while at least half of it is in use, so an idle service does not drift to the maximum.
+ */
+public class AdaptiveLimiter {
+
+    static final int WINDOW_SIZE = 20;
+
+    /** Windows averaged by the long RTT */
+    private static final int LONG_WINDOW = 100;
+
+    /** Short RTT tolerated above the long RTT before the limit shrinks */
+    private static final double TOLERANCE = 1.5;
+
+    /** Weight of each new limit estimate */
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRtt;
+    private long windowRttSum;
+    private int windowCount;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format(
+                    "Limites de concorrência inválidos: inicial=%d, mínimo=%d, máximo=%d",
+                    initialLimit, minLimit, maxLimit));
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Take a slot; {@code false} when the limit is reached, and the request should be turned away
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a slot taken by {@link #tryAcquire}, with the latency of the request that held it
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        onSample(Math.max(rttNanos, 1), inFlightBefore);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtSample) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        if (windowCount < WINDOW_SIZE) {
+            return;
+        }
+        double shortRtt = (double) windowRttSum / windowCount;
+        windowRttSum = 0;
+        windowCount = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+            // After a lasting slowdown the long RTT lags behind; let it catch up once latency recovers
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+        }
+
+        if (inFlightAtSample < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + estimate * SMOOTHING));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
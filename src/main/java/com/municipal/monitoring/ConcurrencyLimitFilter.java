@@ -0,0 +1,84 @@
+package com.municipal.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.municipal.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Servlet side of the {@link ConcurrencyLimits}. A slot is held while the request occupies a container
+ * thread: an asynchronous request (the streaming export) gives it back when its first dispatch returns.
+ * The 503 is answered before Spring MVC applies CORS, so the filter applies the API's CORS configuration
+ * itself, letting browser clients read it and its Retry-After.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "municipal.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimits concurrencyLimits;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimits concurrencyLimits, ObjectMapper objectMapper,
+                                  @Qualifier("corsConfigurationSource")
+                                  CorsConfigurationSource corsConfigurationSource) {
+        this.concurrencyLimits = concurrencyLimits;
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestClass = ConcurrencyLimits.classOf(request.getMethod());
+        AdaptiveLimiter limiter = concurrencyLimits.limiter(requestClass);
+        if (!limiter.tryAcquire()) {
+            concurrencyLimits.recordRejected(requestClass);
+            CorsConfiguration corsConfiguration = corsConfigurationSource.getCorsConfiguration(request);
+            if (corsConfiguration != null) {
+                corsProcessor.processRequest(corsConfiguration, request, response);
+            }
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, concurrencyLimits.getRetryAfterSeconds());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), ConcurrencyLimits.OVERLOADED,
+                    ConcurrencyLimits.OVERLOADED_MESSAGE, "uri=" + request.getRequestURI()));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.municipal.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admission control of {@code /api/**}, applied by {@code ConcurrencyLimitFilter} (servlet) or
+ * {@code ReactiveConcurrencyLimitFilter} (reactive). Reads (GET, HEAD, OPTIONS) and writes have limiters of
+ * their own, so a burst of slow writes cannot take the slots of reads and the other way around. A request
+ * over its limit is answered at once with 503 and {@code Retry-After} instead of waiting for a thread.
+ */
+@Component
+@ConditionalOnProperty(name = "municipal.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimits {
+
+    /** Gauge of the current limit, tagged with class (read/write) */
+    public static final String LIMIT = "municipal.concurrency.limit";
+
+    /** Gauge of the requests holding a slot, tagged with class */
+    public static final String IN_FLIGHT = "municipal.concurrency.in.flight";
+
+    /** Counter of requests turned away with 503, tagged with class */
+    public static final String REJECTED = "municipal.concurrency.rejected";
+
+    static final String OVERLOADED = "Serviço sobrecarregado";
+    static final String OVERLOADED_MESSAGE = "Muitas requisições simultâneas. Tente novamente em instantes.";
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    private final Map<String, AdaptiveLimiter> limiters;
+    private final MeterRegistry meterRegistry;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimits(MeterRegistry meterRegistry,
+                             @Value("${municipal.concurrency-limit.initial-limit:20}") int initialLimit,
+                             @Value("${municipal.concurrency-limit.min-limit:4}") int minLimit,
+                             @Value("${municipal.concurrency-limit.max-limit:200}") int maxLimit,
+                             @Value("${municipal.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        this.limiters = Map.of(
+                READ, new AdaptiveLimiter(initialLimit, minLimit, maxLimit),
+                WRITE, new AdaptiveLimiter(initialLimit, minLimit, maxLimit));
+        this.meterRegistry = meterRegistry;
+        this.retryAfter = retryAfter;
+        limiters.forEach((requestClass, limiter) -> {
+            meterRegistry.gauge(LIMIT, Tags.of("class", requestClass), limiter, AdaptiveLimiter::getLimit);
+            meterRegistry.gauge(IN_FLIGHT, Tags.of("class", requestClass), limiter, AdaptiveLimiter::getInFlight);
+        });
+    }
+
+    public static String classOf(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method) ? READ : WRITE;
+    }
+
+    public AdaptiveLimiter limiter(String requestClass) {
+        return limiters.get(requestClass);
+    }
+
+    public void recordRejected(String requestClass) {
+        meterRegistry.counter(REJECTED, "class", requestClass).increment();
+    }
+
+    /**
+     * Value of the {@code Retry-After} header, in whole seconds
+     */
+    public String getRetryAfterSeconds() {
+        return String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+}
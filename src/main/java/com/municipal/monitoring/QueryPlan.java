@@ -0,0 +1,149 @@
+package com.municipal.monitoring;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Summary of an {@code explain} (verbosity {@code executionStats}) result: the winning plan's stages, the
+ * examined/returned counters and the problems found in them.
+ */
+public final class QueryPlan {
+
+    /** The winning plan reads the whole collection */
+    public static final String COLLSCAN = "COLLSCAN";
+
+    /** Far more documents examined than returned: the index used is not selective enough */
+    public static final String HIGH_EXAMINED_RATIO = "HIGH_EXAMINED_RATIO";
+
+    /** Blocking sort in memory instead of reading an index in order */
+    public static final String IN_MEMORY_SORT = "IN_MEMORY_SORT";
+
+    /** Alternative plans and their trials are not what the query runs */
+    private static final Set<String> SKIPPED_KEYS = Set.of("rejectedPlans", "allPlansExecution");
+
+    private final List<String> stages;
+    private final Long docsExamined;
+    private final Long keysExamined;
+    private final Long returned;
+    private final List<String> flags;
+    private final String error;
+
+    private QueryPlan(List<String> stages, Long docsExamined, Long keysExamined, Long returned,
+                      List<String> flags, String error) {
+        this.stages = stages;
+        this.docsExamined = docsExamined;
+        this.keysExamined = keysExamined;
+        this.returned = returned;
+        this.flags = flags;
+        this.error = error;
+    }
+
+    /**
+     * Reads the output of find, aggregate, count, distinct, update and delete explains; the plan is
+     * searched recursively since each command (and the slot-based engine) nests it differently.
+     */
+    public static QueryPlan from(Document explain, double maxExaminedRatio) {
+        Set<String> stages = new LinkedHashSet<>();
+        collectStages(explain, stages);
+        Document executionStats = findExecutionStats(explain);
+
+        Long docsExamined = executionStats != null ? asLong(executionStats.get("totalDocsExamined")) : null;
+        Long keysExamined = executionStats != null ? asLong(executionStats.get("totalKeysExamined")) : null;
+        Long returned = executionStats != null ? asLong(executionStats.get("nReturned")) : null;
+
+        List<String> flags = new ArrayList<>();
+        if (stages.contains(COLLSCAN)) {
+            flags.add(COLLSCAN);
+        }
+        if (docsExamined != null && returned != null && docsExamined > 0
+                && (double) docsExamined / Math.max(returned, 1) > maxExaminedRatio) {
+            flags.add(HIGH_EXAMINED_RATIO);
+        }
+        if (stages.contains("SORT")) {
+            flags.add(IN_MEMORY_SORT);
+        }
+        return new QueryPlan(List.copyOf(stages), docsExamined, keysExamined, returned, List.copyOf(flags), null);
+    }
+
+    /**
+     * Plan of a command the server refused to explain
+     */
+    public static QueryPlan unavailable(String error) {
+        return new QueryPlan(List.of(), null, null, null, List.of(), error);
+    }
+
+    private static void collectStages(Object value, Set<String> stages) {
+        if (value instanceof Map<?, ?> document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name.toUpperCase());
+            }
+            for (Map.Entry<?, ?> entry : document.entrySet()) {
+                if (!SKIPPED_KEYS.contains(entry.getKey())) {
+                    collectStages(entry.getValue(), stages);
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            list.forEach(element -> collectStages(element, stages));
+        }
+    }
+
+    private static Document findExecutionStats(Object value) {
+        if (value instanceof Document document) {
+            if (document.get("executionStats") instanceof Document executionStats) {
+                return executionStats;
+            }
+            for (Object child : document.values()) {
+                Document found = findExecutionStats(child);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object element : list) {
+                Document found = findExecutionStats(element);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public boolean isFlagged() {
+        return !flags.isEmpty();
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+
+    public Long getDocsExamined() {
+        return docsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public Long getReturned() {
+        return returned;
+    }
+
+    public List<String> getFlags() {
+        return flags;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
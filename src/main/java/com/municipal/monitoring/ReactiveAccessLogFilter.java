@@ -0,0 +1,51 @@
+package com.municipal.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reactive side of the {@link AccessLog}, recorded when the response completes, fails or is cancelled by the
+ * client.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "municipal.access-log.enabled", matchIfMissing = true)
+public class ReactiveAccessLogFilter implements WebFilter {
+
+    private final AccessLog accessLog;
+
+    public ReactiveAccessLogFilter(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return chain.filter(exchange)
+                .doOnError(failure::set)
+                .doFinally(signal -> {
+                    ServerHttpRequest request = exchange.getRequest();
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    Object route = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    int code = failure.get() != null && (status == null || !status.isError())
+                            ? 500
+                            : status != null ? status.value() : 200;
+                    accessLog.record(request.getMethod().name(), request.getPath().value(),
+                            route != null ? route.toString() : null, code, System.nanoTime() - start, failure.get());
+                });
+    }
+}
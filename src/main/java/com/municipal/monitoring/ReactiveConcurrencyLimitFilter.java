@@ -0,0 +1,94 @@
+package com.municipal.monitoring;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.municipal.exception.GlobalExceptionHandler.ErrorResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.CorsProcessor;
+import org.springframework.web.cors.reactive.DefaultCorsProcessor;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive side of the {@link ConcurrencyLimits}. A slot is held until the response completes; the latency
+ * sampled is the time to the response headers, so long streams hold a slot without skewing the limit.
+ * The 503 gets the API's CORS headers here, as in {@link ConcurrencyLimitFilter}.
+ */
+@Component
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "municipal.concurrency-limit.enabled", matchIfMissing = true)
+public class ReactiveConcurrencyLimitFilter implements WebFilter {
+
+    private final ConcurrencyLimits concurrencyLimits;
+    private final ObjectMapper objectMapper;
+    private final CorsConfigurationSource corsConfigurationSource;
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+
+    public ReactiveConcurrencyLimitFilter(ConcurrencyLimits concurrencyLimits, ObjectMapper objectMapper,
+                                          @Qualifier("corsConfigurationSource")
+                                          CorsConfigurationSource corsConfigurationSource) {
+        this.concurrencyLimits = concurrencyLimits;
+        this.objectMapper = objectMapper;
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getPath().pathWithinApplication().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        String requestClass = ConcurrencyLimits.classOf(request.getMethod().name());
+        AdaptiveLimiter limiter = concurrencyLimits.limiter(requestClass);
+        if (!limiter.tryAcquire()) {
+            concurrencyLimits.recordRejected(requestClass);
+            return reject(exchange);
+        }
+        long start = System.nanoTime();
+        AtomicLong headersAt = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> {
+            headersAt.set(System.nanoTime());
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(
+                        (headersAt.get() != 0 ? headersAt.get() : System.nanoTime()) - start));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        CorsConfiguration corsConfiguration = corsConfigurationSource.getCorsConfiguration(exchange);
+        if (corsConfiguration != null) {
+            corsProcessor.process(corsConfiguration, exchange);
+        }
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, concurrencyLimits.getRetryAfterSeconds());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(new ErrorResponse(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), ConcurrencyLimits.OVERLOADED,
+                    ConcurrencyLimits.OVERLOADED_MESSAGE, "uri=" + exchange.getRequest().getPath())));
+            return response.writeWith(Mono.just(body));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.municipal.monitoring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.municipal.dto.SlowQueryReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo command listener (registered by {@code SlowQueryConfig}) that keeps the most recent commands slower
+ * than {@code municipal.slow-query.threshold}. A sample of the commands is copied when they start, and the ones
+ * that turn out slow are explained in the background; the plan is attached to every occurrence of the same query
+ * shape: collection scans, in-memory sorts and plans examining many more documents than they return are flagged.
+ * <p>
+ * The repository method and its caller are read from the stack, which only works for the blocking driver
+ * (the listener runs on the thread that issued the command); reactive commands are reported without them.
+ */
+@Component
+public class SlowQueryDetector implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryDetector.class);
+
+    /** Counter of slow commands, tagged with command and collection */
+    public static final String SLOW_QUERIES = "municipal.mongo.slow.queries";
+
+    /** Commands {@code explain} accepts; only these have their structure kept when they start */
+    private static final Set<String> EXPLAINABLE = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+    /** Fields the driver adds for sessions and transactions, rejected inside an explain */
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern");
+
+    private static final String REPOSITORY_PACKAGE = "com.municipal.repository";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long thresholdMillis;
+    private final double explainSampleRate;
+    private final double maxExaminedRatio;
+    private final int capacity;
+
+    private final Map<Integer, Started> started = new ConcurrentHashMap<>();
+    private final Deque<Offender> offenders = new ArrayDeque<>();
+    private final Cache<String, QueryPlan> plans;
+    private final Set<String> explaining = ConcurrentHashMap.newKeySet();
+    private final ExecutorService explainExecutor;
+
+    public SlowQueryDetector(ObjectProvider<MongoTemplate> mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${municipal.slow-query.threshold:100ms}") Duration threshold,
+                             @Value("${municipal.slow-query.explain-sample-rate:0.2}") double explainSampleRate,
+                             @Value("${municipal.slow-query.explain-ttl:10m}") Duration explainTtl,
+                             @Value("${municipal.slow-query.max-examined-ratio:10}") double maxExaminedRatio,
+                             @Value("${municipal.slow-query.capacity:200}") int capacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.thresholdMillis = threshold.toMillis();
+        this.explainSampleRate = explainSampleRate;
+        this.maxExaminedRatio = maxExaminedRatio;
+        this.capacity = capacity;
+        // Plans expire so a new index shows up in the reports
+        this.plans = Caffeine.newBuilder().maximumSize(500).expireAfterWrite(explainTtl).build();
+        // One explain at a time: executionStats re-runs the query, which is slow by definition
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if ("explain".equals(commandName)) {
+            return;
+        }
+        // A getMore with maxTimeMS is a tailable awaitData cursor (change stream) waiting for events by design
+        BsonDocument command = event.getCommand();
+        if ("getMore".equals(commandName) && command.containsKey("maxTimeMS")) {
+            return;
+        }
+        // The command is backed by the connection's buffer, released once sent: keep its masked structure now,
+        // and a full copy only for the sampled commands a slow run would explain
+        boolean canExplain = EXPLAINABLE.contains(commandName);
+        boolean sampled = canExplain && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+        started.put(event.getRequestId(), new Started(event.getDatabaseName(), collectionOf(commandName, command),
+                canExplain ? structure(commandName, command) : null, sampled ? explainable(command) : null));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.MILLISECONDS), true);
+    }
+
+    /**
+     * Most recent slow queries first
+     */
+    public List<SlowQueryReport> recent(boolean flaggedOnly, int limit) {
+        List<Offender> snapshot;
+        synchronized (offenders) {
+            snapshot = List.copyOf(offenders);
+        }
+        return snapshot.stream()
+                .filter(offender -> !flaggedOnly || (offender.plan != null && offender.plan.isFlagged()))
+                .limit(limit)
+                .map(Offender::toReport)
+                .toList();
+    }
+
+    public void clear() {
+        synchronized (offenders) {
+            offenders.clear();
+        }
+        plans.invalidateAll();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void completed(int requestId, String commandName, long elapsedMillis, boolean failed) {
+        Started command = started.remove(requestId);
+        if (command == null || elapsedMillis < thresholdMillis) {
+            return;
+        }
+
+        String[] origin = origin();
+        String shape = shape(commandName, command);
+        Offender offender = new Offender(Instant.now(), commandName, command.collection, elapsedMillis, failed,
+                origin[0], origin[1], shape, command.structure != null);
+        offender.plan = plans.getIfPresent(shape);
+        synchronized (offenders) {
+            offenders.addFirst(offender);
+            if (offenders.size() > capacity) {
+                offenders.removeLast();
+            }
+        }
+        meterRegistry.counter(SLOW_QUERIES, "command", commandName,
+                "collection", command.collection != null ? command.collection : "none").increment();
+        logger.warn("Consulta lenta ({} ms): {} em {} - repositório: {}, chamador: {}",
+                   elapsedMillis, commandName, command.collection, origin[0], origin[1]);
+
+        if (offender.plan == null && command.explainable != null) {
+            scheduleExplain(command, shape);
+        }
+    }
+
+    private void scheduleExplain(Started command, String shape) {
+        if (!explaining.add(shape)) {
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> {
+                try {
+                    QueryPlan plan = explain(command);
+                    plans.put(shape, plan);
+                    synchronized (offenders) {
+                        offenders.stream()
+                                .filter(offender -> offender.plan == null && offender.shape.equals(shape))
+                                .forEach(offender -> offender.plan = plan);
+                    }
+                    if (plan.isFlagged()) {
+                        logger.warn("Plano de consulta problemático {} para {} (examinados: {}, retornados: {})",
+                                   plan.getFlags(), shape, plan.getDocsExamined(), plan.getReturned());
+                    }
+                } finally {
+                    explaining.remove(shape);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            explaining.remove(shape);
+        }
+    }
+
+    private QueryPlan explain(Started command) {
+        try {
+            Document result = mongoTemplate.getObject().getMongoDatabaseFactory()
+                    .getMongoDatabase(command.database)
+                    .runCommand(new BsonDocument("explain", command.explainable)
+                            .append("verbosity", new BsonString("executionStats")));
+            return QueryPlan.from(result, maxExaminedRatio);
+        } catch (RuntimeException e) {
+            logger.debug("Não foi possível executar explain para {}: {}", command.collection, e.getMessage());
+            return QueryPlan.unavailable(e.getMessage());
+        }
+    }
+
+    /**
+     * Copy of the command without driver-added fields; bulk writes keep only their first statement since
+     * explain takes exactly one
+     */
+    private static BsonDocument explainable(BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith("$") || SESSION_FIELDS.contains(key)) {
+                continue;
+            }
+            BsonValue value = entry.getValue();
+            if (("updates".equals(key) || "deletes".equals(key)) && value.isArray() && value.asArray().size() > 1) {
+                value = new BsonArray(List.of(value.asArray().get(0)));
+            }
+            copy.put(key, value);
+        }
+        return copy.clone();
+    }
+
+    /**
+     * The command's fields other than the collection, with every value masked; bulk writes keep their first
+     * statement, like the explain copy
+     */
+    private static BsonDocument structure(String commandName, BsonDocument command) {
+        BsonDocument structure = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (!key.equals(commandName) && !key.startsWith("$") && !SESSION_FIELDS.contains(key)) {
+                structure.put(key, mask(entry.getValue()));
+            }
+        }
+        return structure;
+    }
+
+    private static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue target = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : null;
+    }
+
+    /**
+     * Command, collection and query structure with every value masked, so occurrences with different
+     * parameters share one plan and no personal data ends up in the reports
+     */
+    static String shape(String commandName, Started command) {
+        StringBuilder shape = new StringBuilder(commandName).append(' ').append(command.collection);
+        if (command.structure != null) {
+            shape.append(' ').append(command.structure.toJson());
+        }
+        return shape.toString();
+    }
+
+    private static BsonValue mask(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument masked = new BsonDocument();
+            value.asDocument().forEach((key, child) -> masked.put(key, mask(child)));
+            return masked;
+        }
+        if (value.isArray()) {
+            // $in lists of any length share a shape
+            BsonArray array = value.asArray();
+            return array.isEmpty() ? new BsonArray() : new BsonArray(List.of(mask(array.get(0))));
+        }
+        return new BsonString("?");
+    }
+
+    /**
+     * Outermost repository method on the stack and the first application frame calling it
+     */
+    private static String[] origin() {
+        return STACK_WALKER.walk(frames -> {
+            String repositoryMethod = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                String repository = repositoryName(type);
+                if (repository != null) {
+                    repositoryMethod = repository + "." + frame.getMethodName();
+                } else if (type.getName().startsWith("com.municipal.")
+                        && !type.getPackageName().equals(SlowQueryDetector.class.getPackageName())
+                        && !type.getName().contains("$$")) {
+                    return new String[] {repositoryMethod,
+                            type.getSimpleName() + "." + frame.getMethodName() + ":" + frame.getLineNumber()};
+                }
+            }
+            return new String[] {repositoryMethod, null};
+        });
+    }
+
+    /**
+     * Spring Data repositories are JDK proxies of the repository interface; custom fragments are plain classes
+     */
+    private static String repositoryName(Class<?> type) {
+        if (Proxy.isProxyClass(type)) {
+            for (Class<?> contract : type.getInterfaces()) {
+                if (contract.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    return contract.getSimpleName();
+                }
+            }
+            return null;
+        }
+        return type.getPackageName().equals(REPOSITORY_PACKAGE) ? type.getSimpleName() : null;
+    }
+
+    static final class Started {
+
+        private final String database;
+        private final String collection;
+        private final BsonDocument structure;
+        private final BsonDocument explainable;
+
+        Started(String database, String collection, BsonDocument structure, BsonDocument explainable) {
+            this.database = database;
+            this.collection = collection;
+            this.structure = structure;
+            this.explainable = explainable;
+        }
+    }
+
+    private static final class Offender {
+
+        private final Instant timestamp;
+        private final String command;
+        private final String collection;
+        private final long durationMillis;
+        private final boolean failed;
+        private final String repositoryMethod;
+        private final String caller;
+        private final String shape;
+        private final boolean explainable;
+        private volatile QueryPlan plan;
+
+        private Offender(Instant timestamp, String command, String collection, long durationMillis, boolean failed,
+                         String repositoryMethod, String caller, String shape, boolean explainable) {
+            this.timestamp = timestamp;
+            this.command = command;
+            this.collection = collection;
+            this.durationMillis = durationMillis;
+            this.failed = failed;
+            this.repositoryMethod = repositoryMethod;
+            this.caller = caller;
+            this.shape = shape;
+            this.explainable = explainable;
+        }
+
+        private SlowQueryReport toReport() {
+            QueryPlan current = plan;
+            boolean explained = current != null && current.getError() == null;
+            return new SlowQueryReport(timestamp, command, collection, durationMillis, failed, repositoryMethod,
+                    caller, shape, explained,
+                    current != null ? current.getStages() : List.of(),
+                    current != null ? current.getDocsExamined() : null,
+                    current != null ? current.getKeysExamined() : null,
+                    current != null ? current.getReturned() : null,
+                    current != null ? current.getFlags() : List.of(),
+                    current != null ? current.getError() : (explainable ? null : "comando sem explain"));
+        }
+    }
+}
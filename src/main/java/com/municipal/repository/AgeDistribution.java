@@ -0,0 +1,61 @@
+package com.municipal.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Age figures of a group of servidores (one secretaria, or all of them when {@code secretariaId} is null),
+ * computed by {@link ServidorRepositoryCustom#ageDistribution}
+ */
+public final class AgeDistribution {
+    
+    private final String secretariaId;
+    private final long count;
+    private final LocalDate oldestBirthDate;
+    private final LocalDate youngestBirthDate;
+    private final double averageAge;
+    private final long nearRetirement;
+    private final Map<Integer, Long> brackets;
+    
+    public AgeDistribution(String secretariaId, long count, LocalDate oldestBirthDate, LocalDate youngestBirthDate,
+                           double averageAge, long nearRetirement, Map<Integer, Long> brackets) {
+        this.secretariaId = secretariaId;
+        this.count = count;
+        this.oldestBirthDate = oldestBirthDate;
+        this.youngestBirthDate = youngestBirthDate;
+        this.averageAge = averageAge;
+        this.nearRetirement = nearRetirement;
+        this.brackets = brackets;
+    }
+    
+    public String getSecretariaId() {
+        return secretariaId;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public LocalDate getOldestBirthDate() {
+        return oldestBirthDate;
+    }
+    
+    public LocalDate getYoungestBirthDate() {
+        return youngestBirthDate;
+    }
+    
+    public double getAverageAge() {
+        return averageAge;
+    }
+    
+    public long getNearRetirement() {
+        return nearRetirement;
+    }
+    
+    /**
+     * Servidores per bracket, keyed by the bracket's lowest age, in ascending order
+     */
+    public Map<Integer, Long> getBrackets() {
+        return brackets;
+    }
+}
@@ -0,0 +1,35 @@
+package com.municipal.repository;
+
+/**
+ * A document rejected by an unordered bulk insert, by position in the inserted list
+ */
+public final class BulkInsertFailure {
+    
+    private static final int DUPLICATE_KEY_CODE = 11000;
+    
+    private final int index;
+    private final int code;
+    private final String message;
+    
+    public BulkInsertFailure(int index, int code, String message) {
+        this.index = index;
+        this.code = code;
+        this.message = message;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public int getCode() {
+        return code;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public boolean isDuplicateKey() {
+        return code == DUPLICATE_KEY_CODE;
+    }
+}
@@ -0,0 +1,51 @@
+package com.municipal.repository;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Document count and newest {@code updatedAt} of a collection. Every insert, update or delete changes
+ * at least one of them, so together they version the contents of a listing.
+ */
+public final class ChangeStamp {
+    
+    private final long count;
+    private final LocalDateTime lastUpdatedAt;
+    
+    public ChangeStamp(long count, LocalDateTime lastUpdatedAt) {
+        this.count = count;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Newest updatedAt, {@code null} for an empty collection
+     */
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChangeStamp that = (ChangeStamp) o;
+        return count == that.count && Objects.equals(lastUpdatedAt, that.lastUpdatedAt);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, lastUpdatedAt);
+    }
+    
+    @Override
+    public String toString() {
+        return "ChangeStamp{" +
+                "count=" + count +
+                ", lastUpdatedAt=" + lastUpdatedAt +
+                '}';
+    }
+}
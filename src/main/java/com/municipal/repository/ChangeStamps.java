@@ -0,0 +1,53 @@
+package com.municipal.repository;
+
+import org.bson.Document;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reads the {@link ChangeStamp} of a collection with the metadata count ({@code estimatedDocumentCount})
+ * and a one-document, {@code updatedAt}-only query sorted by {@code updatedAt} descending, for the
+ * blocking and the reactive fragments.
+ */
+final class ChangeStamps {
+    
+    private static final String UPDATED_AT_FIELD = "updatedAt";
+    
+    private ChangeStamps() {
+    }
+    
+    static ChangeStamp of(MongoOperations mongoOperations, String collection) {
+        long count = mongoOperations.estimatedCount(collection);
+        Document newest = mongoOperations.findOne(newestQuery(), Document.class, collection);
+        return new ChangeStamp(count,
+                newest != null ? updatedAt(mongoOperations.getConverter().getConversionService(), newest) : null);
+    }
+    
+    static Mono<ChangeStamp> of(ReactiveMongoOperations mongoOperations, String collection) {
+        return Mono.zip(
+                mongoOperations.estimatedCount(collection),
+                mongoOperations.findOne(newestQuery(), Document.class, collection)
+                        .map(newest -> updatedAt(mongoOperations.getConverter().getConversionService(), newest))
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                .map(tuple -> new ChangeStamp(tuple.getT1(), tuple.getT2().orElse(null)));
+    }
+    
+    private static Query newestQuery() {
+        Query query = new Query().with(Sort.by(Sort.Order.desc(UPDATED_AT_FIELD))).limit(1);
+        query.fields().include(UPDATED_AT_FIELD).exclude("_id");
+        return query;
+    }
+    
+    private static LocalDateTime updatedAt(ConversionService conversionService, Document newest) {
+        Object value = newest.get(UPDATED_AT_FIELD);
+        return value != null ? conversionService.convert(value, LocalDateTime.class) : null;
+    }
+}
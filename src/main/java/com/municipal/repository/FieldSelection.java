@@ -0,0 +1,165 @@
+package com.municipal.repository;
+
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sparse fieldset of a read ({@code ?fields=id,nome,secretaria.sigla}), as JSON property names. Reads turn it
+ * into a projection on the stored fields, so the others are neither read nor mapped, and the controllers leave
+ * them out of the body. On servidores, {@code secretaria} selects the whole embedded secretaria and
+ * {@code secretaria.sigla} some of its fields; without either the reference is not even resolved.
+ */
+public final class FieldSelection {
+    
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+    
+    private static final String SECRETARIA = "secretaria";
+    
+    private static final Set<String> SERVIDOR_FIELDS = Set.of(
+            "id", "nome", "email", "dataNascimento", "idade", "idadeValida", SECRETARIA,
+            "createdAt", "updatedAt", "version");
+    
+    private static final Set<String> SECRETARIA_FIELDS = Set.of(
+            "id", "nome", "sigla", "createdAt", "updatedAt", "version");
+    
+    /** Computed properties read the stored field they are derived from */
+    private static final Map<String, String> STORED_FIELDS = Map.of(
+            "id", "_id",
+            "idade", "dataNascimento",
+            "idadeValida", "dataNascimento");
+    
+    private final Set<String> servidorFields;
+    private final Set<String> secretariaFields;
+    
+    private FieldSelection(Set<String> servidorFields, Set<String> secretariaFields) {
+        this.servidorFields = servidorFields;
+        this.secretariaFields = secretariaFields;
+    }
+    
+    /**
+     * Parse the {@code fields} parameter of a servidor read; blank selects every field
+     */
+    public static FieldSelection servidor(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        Set<String> nested = new LinkedHashSet<>();
+        boolean wholeSecretaria = false;
+        for (String field : split(fields)) {
+            if (field.startsWith(SECRETARIA + ".")) {
+                nested.add(checked(field.substring(SECRETARIA.length() + 1), SECRETARIA_FIELDS, field));
+                selected.add(SECRETARIA);
+            } else {
+                selected.add(checked(field, SERVIDOR_FIELDS, field));
+                wholeSecretaria |= field.equals(SECRETARIA);
+            }
+        }
+        if (selected.isEmpty()) {
+            return ALL;
+        }
+        return new FieldSelection(selected, wholeSecretaria || nested.isEmpty() ? null : nested);
+    }
+    
+    /**
+     * Parse the {@code fields} parameter of a secretaria read; blank selects every field
+     */
+    public static FieldSelection secretaria(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : split(fields)) {
+            selected.add(checked(field, SECRETARIA_FIELDS, field));
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(null, selected);
+    }
+    
+    private static List<String> split(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList();
+    }
+    
+    private static String checked(String field, Set<String> allowed, String requested) {
+        if (!allowed.contains(field)) {
+            throw new IllegalArgumentException("Campo desconhecido em fields: " + requested);
+        }
+        return field;
+    }
+    
+    public boolean isAll() {
+        return servidorFields == null && secretariaFields == null;
+    }
+    
+    /**
+     * Servidor properties to render, {@code null} for all of them
+     */
+    public Set<String> getServidorFields() {
+        return servidorFields != null ? Collections.unmodifiableSet(servidorFields) : null;
+    }
+    
+    /**
+     * Secretaria properties to render, {@code null} for all of them
+     */
+    public Set<String> getSecretariaFields() {
+        return secretariaFields != null ? Collections.unmodifiableSet(secretariaFields) : null;
+    }
+    
+    public boolean includesSecretaria() {
+        return servidorFields == null || servidorFields.contains(SECRETARIA);
+    }
+    
+    /**
+     * Restrict a servidor query to the selected fields plus the stored fields the caller needs itself
+     * (sort keys, ETag parts); a no-op when every field is selected
+     */
+    Query projectServidor(Query query, String... required) {
+        return project(query, servidorFields, required);
+    }
+    
+    /**
+     * Same as {@link #projectServidor} for a secretaria query
+     */
+    Query projectSecretaria(Query query, String... required) {
+        return project(query, secretariaFields, required);
+    }
+    
+    private static Query project(Query query, Set<String> fields, String... required) {
+        if (fields == null) {
+            return query;
+        }
+        Field projection = query.fields();
+        fields.forEach(field -> projection.include(STORED_FIELDS.getOrDefault(field, field)));
+        projection.include(required);
+        return query;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FieldSelection that = (FieldSelection) o;
+        return Objects.equals(servidorFields, that.servidorFields)
+                && Objects.equals(secretariaFields, that.secretariaFields);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(servidorFields, secretariaFields);
+    }
+    
+    @Override
+    public String toString() {
+        return "FieldSelection{" +
+                "servidorFields=" + servidorFields +
+                ", secretariaFields=" + secretariaFields +
+                '}';
+    }
+}
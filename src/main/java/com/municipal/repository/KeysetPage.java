@@ -0,0 +1,29 @@
+package com.municipal.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset scan plus the cursor of the next page ({@code null} on the last page).
+ */
+public final class KeysetPage<T> {
+    
+    private final List<T> content;
+    private final String nextCursor;
+    
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<T> getContent() {
+        return content;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.municipal.repository;
+
+import java.util.Objects;
+
+/**
+ * Parameters of a keyset (cursor) page: how many rows, in which order and after which row.
+ */
+public final class KeysetPageRequest {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    
+    private final int limit;
+    private final KeysetSort sort;
+    private final PageCursor after;
+    
+    private KeysetPageRequest(int limit, KeysetSort sort, PageCursor after) {
+        this.limit = limit;
+        this.sort = sort;
+        this.after = after;
+    }
+    
+    /**
+     * Build a page request from raw query parameters; all of them are optional
+     */
+    public static KeysetPageRequest of(Integer limit, String after, String sort) {
+        return of(limit, after, KeysetSort.fromParameter(sort));
+    }
+    
+    /**
+     * Build a page request in an order chosen by the caller rather than by the {@code sort} parameter
+     */
+    static KeysetPageRequest of(Integer limit, String after, KeysetSort sort) {
+        int pageLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException(
+                String.format("limit deve estar entre 1 e %d", MAX_LIMIT));
+        }
+        
+        PageCursor cursor = after != null && !after.isBlank() ? PageCursor.decode(after.trim(), sort) : null;
+        return new KeysetPageRequest(pageLimit, sort, cursor);
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public KeysetSort getSort() {
+        return sort;
+    }
+    
+    public PageCursor getAfter() {
+        return after;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetPageRequest that = (KeysetPageRequest) o;
+        return limit == that.limit && sort == that.sort && Objects.equals(after, that.after);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(limit, sort, after);
+    }
+    
+    @Override
+    public String toString() {
+        return "KeysetPageRequest{" +
+                "limit=" + limit +
+                ", sort=" + sort +
+                ", after=" + after +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package com.municipal.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds index-backed range queries for keyset pagination, shared by the custom repository fragments.
+ * Field names are the stored ones ({@code _id}) so the queries also work against raw documents.
+ * Pages are read with {@code limit + 1} rows so the presence of a next page is known without a count.
+ */
+final class KeysetQueries {
+    
+    private KeysetQueries() {
+    }
+    
+    /**
+     * Range query for the requested page; relies on {@code _id} or the {@code (nome, _id)} compound index, or for
+     * filtered servidor listings on an index ending in {@code (dataNascimento, _id)}
+     */
+    static Query pageQuery(KeysetPageRequest request) {
+        return rangeQuery(request).limit(request.getLimit() + 1);
+    }
+    
+    /**
+     * Same range and order as {@link #pageQuery}, without a limit; used to stream from a cursor position
+     */
+    static Query rangeQuery(KeysetPageRequest request) {
+        Query query = new Query();
+        PageCursor after = request.getAfter();
+        
+        if (request.getSort() == KeysetSort.NOME) {
+            if (after != null) {
+                query.addCriteria(new Criteria().orOperator(
+                        Criteria.where("nome").gt(after.getNome()),
+                        Criteria.where("nome").is(after.getNome()).and("_id").gt(idValue(after))));
+            }
+            query.with(Sort.by(Sort.Order.asc("nome"), Sort.Order.asc("_id")));
+        } else if (request.getSort() == KeysetSort.DATA_NASCIMENTO) {
+            if (after != null) {
+                query.addCriteria(afterDataNascimento(after));
+            }
+            query.with(Sort.by(Sort.Order.asc("dataNascimento"), Sort.Order.asc("_id")));
+        } else {
+            if (after != null) {
+                query.addCriteria(Criteria.where("_id").gt(idValue(after)));
+            }
+            query.with(Sort.by(Sort.Order.asc("_id")));
+        }
+        
+        return query;
+    }
+    
+    /**
+     * Rows after the cursor in {@code (dataNascimento, _id)} order; servidores without a date sort first
+     */
+    private static Criteria afterDataNascimento(PageCursor after) {
+        if (after.getDataNascimento() == null) {
+            return new Criteria().orOperator(
+                    Criteria.where("dataNascimento").is(null).and("_id").gt(idValue(after)),
+                    Criteria.where("dataNascimento").ne(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("dataNascimento").gt(after.getDataNascimento()),
+                Criteria.where("dataNascimento").is(after.getDataNascimento()).and("_id").gt(idValue(after)));
+    }
+    
+    /**
+     * Stored fields a page row must carry for its cursor, to keep in a projection
+     */
+    static String[] sortKeys(KeysetPageRequest request) {
+        return switch (request.getSort()) {
+            case NOME -> new String[] {"nome", "_id"};
+            case DATA_NASCIMENTO -> new String[] {"dataNascimento", "_id"};
+            case ID -> new String[] {"_id"};
+        };
+    }
+    
+    /**
+     * Generated ids are ObjectIds; compare against the same BSON type so the range stays on the index
+     */
+    private static Object idValue(PageCursor cursor) {
+        return ObjectId.isValid(cursor.getId()) ? new ObjectId(cursor.getId()) : cursor.getId();
+    }
+    
+    /**
+     * Trim the extra look-ahead row and derive the next cursor from the last row kept
+     */
+    static <T> KeysetPage<T> toPage(List<T> rows, KeysetPageRequest request,
+                                    Function<T, String> idOf, Function<T, String> nomeOf) {
+        return toPage(rows, request, idOf, nomeOf, row -> null);
+    }
+    
+    /**
+     * Same as {@link #toPage(List, KeysetPageRequest, Function, Function)} for rows that can be listed in
+     * {@code dataNascimento} order
+     */
+    static <T> KeysetPage<T> toPage(List<T> rows, KeysetPageRequest request, Function<T, String> idOf,
+                                    Function<T, String> nomeOf, Function<T, LocalDate> dataNascimentoOf) {
+        if (rows.size() <= request.getLimit()) {
+            return new KeysetPage<>(rows, null);
+        }
+        
+        List<T> content = rows.subList(0, request.getLimit());
+        T last = content.get(content.size() - 1);
+        PageCursor next = switch (request.getSort()) {
+            case NOME -> PageCursor.ofNome(nomeOf.apply(last), idOf.apply(last));
+            case DATA_NASCIMENTO -> PageCursor.ofDataNascimento(dataNascimentoOf.apply(last), idOf.apply(last));
+            case ID -> PageCursor.ofId(idOf.apply(last));
+        };
+        return new KeysetPage<>(content, next.encode());
+    }
+}
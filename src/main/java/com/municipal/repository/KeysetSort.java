@@ -0,0 +1,53 @@
+package com.municipal.repository;
+
+import java.util.Locale;
+
+/**
+ * Sort orders supported by keyset pagination. Each one is backed by an index
+ * whose last key is {@code _id}, so the cursor always identifies a unique row.
+ * {@link #DATA_NASCIMENTO} is not chosen with the {@code sort} parameter: it is the order of filtered
+ * servidor listings (see {@link ServidorFilter#pageRequest}).
+ */
+public enum KeysetSort {
+    
+    ID("id"),
+    NOME("nome"),
+    DATA_NASCIMENTO("dataNascimento");
+    
+    private final String parameter;
+    
+    KeysetSort(String parameter) {
+        this.parameter = parameter;
+    }
+    
+    public String getParameter() {
+        return parameter;
+    }
+    
+    /**
+     * Resolve the value of the {@code sort} query parameter
+     */
+    public static KeysetSort fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        KeysetSort sort = find(value);
+        if (sort == null || sort == DATA_NASCIMENTO) {
+            throw new IllegalArgumentException("Ordenação inválida: " + value + ". Valores aceitos: id, nome");
+        }
+        return sort;
+    }
+    
+    /**
+     * Any sort by its parameter name, including the one filters choose; null when unknown
+     */
+    static KeysetSort find(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (KeysetSort sort : values()) {
+            if (sort.parameter.toLowerCase(Locale.ROOT).equals(normalized)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.municipal.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque position of the last row returned by a keyset page.
+ * Encoded as URL-safe Base64 so it can travel in the {@code after} query parameter.
+ */
+public final class PageCursor {
+    
+    private static final char SEPARATOR = ':';
+    
+    private final KeysetSort sort;
+    private final String id;
+    private final String nome;
+    private final LocalDate dataNascimento;
+    
+    private PageCursor(KeysetSort sort, String id, String nome, LocalDate dataNascimento) {
+        this.sort = sort;
+        this.id = id;
+        this.nome = nome;
+        this.dataNascimento = dataNascimento;
+    }
+    
+    public static PageCursor ofId(String id) {
+        return new PageCursor(KeysetSort.ID, Objects.requireNonNull(id), null, null);
+    }
+    
+    public static PageCursor ofNome(String nome, String id) {
+        return new PageCursor(KeysetSort.NOME, Objects.requireNonNull(id), nome != null ? nome : "", null);
+    }
+    
+    /**
+     * Position in a filtered listing; dataNascimento is null for a servidor stored without one
+     */
+    public static PageCursor ofDataNascimento(LocalDate dataNascimento, String id) {
+        return new PageCursor(KeysetSort.DATA_NASCIMENTO, Objects.requireNonNull(id), null, dataNascimento);
+    }
+    
+    public KeysetSort getSort() {
+        return sort;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+    
+    /**
+     * Encode as {@code <sort>:<id>[:<nome>|:<dataNascimento>]}; nome goes last because it may contain the separator
+     */
+    public String encode() {
+        StringBuilder raw = new StringBuilder(sort.getParameter()).append(SEPARATOR).append(id);
+        if (sort == KeysetSort.NOME) {
+            raw.append(SEPARATOR).append(nome);
+        } else if (sort == KeysetSort.DATA_NASCIMENTO) {
+            raw.append(SEPARATOR).append(dataNascimento != null ? dataNascimento.toString() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a cursor previously produced by {@link #encode()} for the given sort
+     */
+    public static PageCursor decode(String value, KeysetSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+        
+        int first = raw.indexOf(SEPARATOR);
+        if (first < 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+        KeysetSort sort = KeysetSort.find(raw.substring(0, first));
+        if (sort != expectedSort) {
+            throw new IllegalArgumentException("Cursor não corresponde à ordenação solicitada: " + expectedSort.getParameter());
+        }
+        
+        if (sort == KeysetSort.ID) {
+            String id = raw.substring(first + 1);
+            if (id.isEmpty()) {
+                throw new IllegalArgumentException("Cursor inválido: " + value);
+            }
+            return ofId(id);
+        }
+        
+        int second = raw.indexOf(SEPARATOR, first + 1);
+        if (second < 0 || second == first + 1) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+        String id = raw.substring(first + 1, second);
+        if (sort == KeysetSort.NOME) {
+            return ofNome(raw.substring(second + 1), id);
+        }
+        
+        String dataNascimento = raw.substring(second + 1);
+        try {
+            return ofDataNascimento(dataNascimento.isEmpty() ? null : LocalDate.parse(dataNascimento), id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageCursor that = (PageCursor) o;
+        return sort == that.sort && Objects.equals(id, that.id) && Objects.equals(nome, that.nome)
+                && Objects.equals(dataNascimento, that.dataNascimento);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(sort, id, nome, dataNascimento);
+    }
+    
+    @Override
+    public String toString() {
+        return "PageCursor{" +
+                "sort=" + sort +
+                ", id='" + id + '\'' +
+                ", nome='" + nome + '\'' +
+                ", dataNascimento=" + dataNascimento +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link SecretariaRepository}, used by the "reactive" profile
+ */
+@Repository
+public interface ReactiveSecretariaRepository extends ReactiveMongoRepository<Secretaria, String>,
+        ReactiveSecretariaRepositoryCustom {
+    
+    /**
+     * Check if exists by sigla (for validation)
+     */
+    Mono<Boolean> existsBySiglaIgnoreCase(String sigla);
+    
+    /**
+     * Check if exists by sigla excluding current id (for updates)
+     */
+    Mono<Boolean> existsBySiglaIgnoreCaseAndIdNot(String sigla, String id);
+}
@@ -0,0 +1,53 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Custom reactive queries for secretarias, implemented with {@code ReactiveMongoOperations}
+ */
+public interface ReactiveSecretariaRepositoryCustom {
+    
+    /**
+     * Find one keyset page of secretarias, ordered by id or by (nome, id), reading only the selected fields
+     * and the sort keys
+     */
+    Mono<KeysetPage<Secretaria>> findPage(KeysetPageRequest pageRequest, FieldSelection fields);
+    
+    /**
+     * Stream secretarias from the cursor position in page order, without a page limit, reading only the
+     * selected fields
+     */
+    Flux<Secretaria> streamFrom(KeysetPageRequest pageRequest, FieldSelection fields);
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#findChangeStamp()}
+     */
+    Mono<ChangeStamp> findChangeStamp();
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#patchIfVersion(String, Long, Secretaria)}
+     */
+    Mono<Secretaria> patchIfVersion(String id, Long version, Secretaria changes);
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#incrementServidorCount(String, long)}
+     */
+    Mono<Boolean> incrementServidorCount(String secretariaId, long delta);
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#findServidorCount(String)}
+     */
+    Mono<Long> findServidorCount(String secretariaId);
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#findHeadcounts()}
+     */
+    Flux<Secretaria> findHeadcounts();
+    
+    /**
+     * See {@link SecretariaRepositoryCustom#deleteIfNoServidores(String)}
+     */
+    Mono<Secretaria> deleteIfNoServidores(String secretariaId);
+}
@@ -0,0 +1,89 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveSecretariaRepositoryImpl implements ReactiveSecretariaRepositoryCustom {
+    
+    private static final String COLLECTION = "secretarias";
+    private static final String SERVIDOR_COUNT_FIELD = "servidorCount";
+    
+    private final ReactiveMongoOperations mongoOperations;
+    
+    ReactiveSecretariaRepositoryImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+    
+    @Override
+    public Mono<KeysetPage<Secretaria>> findPage(KeysetPageRequest pageRequest, FieldSelection fields) {
+        Query query = fields.projectSecretaria(KeysetQueries.pageQuery(pageRequest),
+                KeysetQueries.sortKeys(pageRequest));
+        return mongoOperations.find(query, Secretaria.class)
+                .collectList()
+                .map(rows -> KeysetQueries.toPage(rows, pageRequest, Secretaria::getId, Secretaria::getNome));
+    }
+    
+    @Override
+    public Flux<Secretaria> streamFrom(KeysetPageRequest pageRequest, FieldSelection fields) {
+        return mongoOperations.find(fields.projectSecretaria(KeysetQueries.rangeQuery(pageRequest)), Secretaria.class);
+    }
+    
+    @Override
+    public Mono<ChangeStamp> findChangeStamp() {
+        return ChangeStamps.of(mongoOperations, COLLECTION);
+    }
+    
+    @Override
+    public Mono<Secretaria> patchIfVersion(String id, Long version, Secretaria changes) {
+        return mongoOperations.findAndModify(VersionedUpdates.byIdAndVersion(id, version),
+                VersionedUpdates.secretariaChanges(changes), FindAndModifyOptions.options().returnNew(true),
+                Secretaria.class);
+    }
+    
+    /**
+     * By collection name, so the {@code @Version} is left alone, see {@link SecretariaRepositoryImpl}
+     */
+    @Override
+    public Mono<Boolean> incrementServidorCount(String secretariaId, long delta) {
+        return mongoOperations.updateFirst(byStoredId(secretariaId), new Update().inc(SERVIDOR_COUNT_FIELD, delta),
+                        COLLECTION)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+    
+    @Override
+    public Mono<Long> findServidorCount(String secretariaId) {
+        Query query = byId(secretariaId);
+        query.fields().include(SERVIDOR_COUNT_FIELD);
+        return mongoOperations.findOne(query, Secretaria.class)
+                .map(Secretaria::getServidorCount)
+                .defaultIfEmpty(0L);
+    }
+    
+    @Override
+    public Flux<Secretaria> findHeadcounts() {
+        Query query = new Query().with(Sort.by(Sort.Order.asc("nome"), Sort.Order.asc("_id")));
+        query.fields().include("sigla", "nome", SERVIDOR_COUNT_FIELD);
+        return mongoOperations.find(query, Secretaria.class);
+    }
+    
+    @Override
+    public Mono<Secretaria> deleteIfNoServidores(String secretariaId) {
+        Query query = byId(secretariaId).addCriteria(Criteria.where(SERVIDOR_COUNT_FIELD).lte(0));
+        return mongoOperations.findAndRemove(query, Secretaria.class);
+    }
+    
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+    
+    private static Query byStoredId(String id) {
+        return Query.query(Criteria.where("_id").is(VersionedUpdates.toObjectId(id)));
+    }
+}
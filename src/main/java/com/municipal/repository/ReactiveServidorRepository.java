@@ -0,0 +1,20 @@
+package com.municipal.repository;
+
+import com.municipal.model.Servidor;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link ServidorRepository}, used by the "reactive" profile
+ */
+@Repository
+public interface ReactiveServidorRepository extends ReactiveMongoRepository<Servidor, String>,
+        ReactiveServidorRepositoryCustom {
+    
+    /**
+     * Find servidor by id with its secretaria resolved (see {@link ReactiveServidorRepositoryCustom})
+     */
+    @Override
+    Mono<Servidor> findById(String id);
+}
@@ -0,0 +1,68 @@
+package com.municipal.repository;
+
+import com.municipal.model.Servidor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Custom reactive queries for servidores. The reactive driver cannot resolve {@code @DBRef},
+ * so reads map the raw documents and attach secretarias fetched with one {@code $in} per window.
+ */
+public interface ReactiveServidorRepositoryCustom {
+    
+    /**
+     * Find a servidor by id with its secretaria resolved
+     */
+    Mono<Servidor> findById(String id);
+    
+    /**
+     * See {@link ServidorRepositoryCustom#findById(String, FieldSelection)}
+     */
+    Mono<Servidor> findById(String id, FieldSelection fields);
+    
+    /**
+     * See {@link ServidorRepositoryCustom#findVersionById(String)}
+     */
+    Mono<Servidor> findVersionById(String id);
+    
+    /**
+     * See {@link ServidorRepositoryCustom#findChangeStamp()}
+     */
+    Mono<ChangeStamp> findChangeStamp();
+    
+    /**
+     * See {@link ServidorRepositoryCustom#patchIfVersion(String, long, Servidor)}
+     */
+    Mono<Servidor> patchIfVersion(String id, long version, Servidor changes);
+    
+    /**
+     * See {@link ServidorRepositoryCustom#findAndRemoveById(String)}
+     */
+    Mono<Servidor> findAndRemoveById(String id);
+    
+    /**
+     * Find all servidores with their secretarias resolved
+     */
+    Flux<Servidor> findAll();
+    
+    /**
+     * Find servidores whose nomeTokens contain every term, ordered by nome (index-backed), reading only the
+     * selected fields and nome
+     */
+    Flux<Servidor> searchByNomeTokens(List<String> terms, int limit, FieldSelection fields);
+    
+    /**
+     * Find one keyset page of the servidores matching the filter, ordered by id or by (nome, id), reading only
+     * the selected fields and the sort keys
+     */
+    Mono<KeysetPage<Servidor>> findPage(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields);
+    
+    /**
+     * Stream the servidores matching the filter from the cursor position in page order, without a
+     * page limit; demand from the subscriber is what pulls further batches from the cursor. Reads only the
+     * selected fields.
+     */
+    Flux<Servidor> streamFrom(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields);
+}
@@ -0,0 +1,178 @@
+package com.municipal.repository;
+
+import com.mongodb.DBRef;
+import com.municipal.config.CacheConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ReactiveServidorRepositoryImpl implements ReactiveServidorRepositoryCustom {
+    
+    private static final String COLLECTION = "servidores";
+    private static final String SECRETARIA_FIELD = "secretaria";
+    private static final String NOME_TOKENS_FIELD = "nomeTokens";
+    private static final int RESOLVE_WINDOW = 500;
+    
+    private final ReactiveMongoOperations mongoOperations;
+    private final Cache secretariaCache;
+    
+    ReactiveServidorRepositoryImpl(ReactiveMongoOperations mongoOperations, CacheManager cacheManager) {
+        this.mongoOperations = mongoOperations;
+        this.secretariaCache = cacheManager.getCache(CacheConfig.SECRETARIAS);
+    }
+    
+    @Override
+    public Mono<Servidor> findById(String id) {
+        return findResolved(Query.query(Criteria.where("_id").is(toObjectId(id)))).next();
+    }
+    
+    @Override
+    public Mono<Servidor> findById(String id, FieldSelection fields) {
+        Query query = Query.query(Criteria.where("_id").is(toObjectId(id)));
+        return findResolved(fields.projectServidor(query, "updatedAt", "version")).next();
+    }
+    
+    @Override
+    public Mono<Servidor> findVersionById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(toObjectId(id)));
+        query.fields().include("updatedAt", "version", SECRETARIA_FIELD);
+        return findResolved(query).next();
+    }
+    
+    @Override
+    public Mono<ChangeStamp> findChangeStamp() {
+        return ChangeStamps.of(mongoOperations, COLLECTION);
+    }
+    
+    @Override
+    public Mono<Servidor> patchIfVersion(String id, long version, Servidor changes) {
+        return mongoOperations.findAndModify(VersionedUpdates.byIdAndVersion(toObjectId(id), version),
+                        VersionedUpdates.servidorChanges(changes), Document.class, COLLECTION)
+                .flatMap(previous -> resolveWindow(List.of(previous)).next());
+    }
+    
+    @Override
+    public Mono<Servidor> findAndRemoveById(String id) {
+        return mongoOperations.findAndRemove(Query.query(Criteria.where("_id").is(toObjectId(id))),
+                        Document.class, COLLECTION)
+                .flatMap(removed -> resolveWindow(List.of(removed)).next());
+    }
+    
+    @Override
+    public Flux<Servidor> findAll() {
+        return findResolved(new Query());
+    }
+    
+    @Override
+    public Flux<Servidor> searchByNomeTokens(List<String> terms, int limit, FieldSelection fields) {
+        Query query = Query.query(Criteria.where(NOME_TOKENS_FIELD).all(terms))
+                .with(Sort.by(Sort.Order.asc("nome")))
+                .limit(limit);
+        return findResolved(fields.projectServidor(query, "nome"));
+    }
+    
+    @Override
+    public Mono<KeysetPage<Servidor>> findPage(KeysetPageRequest pageRequest, ServidorFilter filter,
+                                               FieldSelection fields) {
+        Query query = filter.applyTo(KeysetQueries.pageQuery(pageRequest));
+        return findResolved(fields.projectServidor(query, KeysetQueries.sortKeys(pageRequest)))
+                .collectList()
+                .map(rows -> KeysetQueries.toPage(rows, pageRequest, Servidor::getId, Servidor::getNome,
+                        Servidor::getDataNascimento));
+    }
+    
+    @Override
+    public Flux<Servidor> streamFrom(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields) {
+        return findResolved(fields.projectServidor(filter.applyTo(KeysetQueries.rangeQuery(pageRequest))));
+    }
+    
+    /**
+     * Read the raw documents in windows; each window resolves its secretarias at once and is
+     * emitted in order, so a slow subscriber holds back the cursor instead of buffering rows
+     */
+    private Flux<Servidor> findResolved(Query query) {
+        return mongoOperations.find(query, Document.class, COLLECTION)
+                .buffer(RESOLVE_WINDOW)
+                .concatMap(this::resolveWindow);
+    }
+    
+    private Flux<Servidor> resolveWindow(List<Document> documents) {
+        Set<Object> secretariaIds = new LinkedHashSet<>();
+        for (Document document : documents) {
+            if (document.get(SECRETARIA_FIELD) instanceof DBRef dbRef) {
+                secretariaIds.add(dbRef.getId());
+            }
+        }
+        
+        return resolveSecretarias(secretariaIds).flatMapIterable(secretarias -> {
+            List<Servidor> servidores = new ArrayList<>(documents.size());
+            for (Document document : documents) {
+                Object ref = document.remove(SECRETARIA_FIELD);
+                Servidor servidor = mongoOperations.getConverter().read(Servidor.class, document);
+                if (ref instanceof DBRef dbRef) {
+                    attach(servidor, secretarias.get(dbRef.getId().toString()));
+                }
+                servidores.add(servidor);
+            }
+            return servidores;
+        });
+    }
+    
+    /**
+     * Look the ids up in the in-memory secretaria cache and fetch only the misses, with a single {@code $in}
+     */
+    private Mono<Map<String, Secretaria>> resolveSecretarias(Set<Object> ids) {
+        Map<String, Secretaria> secretarias = new HashMap<>();
+        List<Object> misses = new ArrayList<>();
+        for (Object id : ids) {
+            Secretaria cached = secretariaCache != null ? secretariaCache.get(id.toString(), Secretaria.class) : null;
+            if (cached != null) {
+                secretarias.put(id.toString(), cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        
+        if (misses.isEmpty()) {
+            return Mono.just(secretarias);
+        }
+        return mongoOperations.find(Query.query(Criteria.where("_id").in(misses)), Secretaria.class)
+                .doOnNext(secretaria -> {
+                    secretarias.put(secretaria.getId(), secretaria);
+                    if (secretariaCache != null) {
+                        secretariaCache.put(secretaria.getId(), secretaria);
+                    }
+                })
+                .then(Mono.fromSupplier(() -> secretarias));
+    }
+    
+    /**
+     * Set the resolved secretaria without touching {@code updatedAt}, which the setter would otherwise bump
+     */
+    private static void attach(Servidor servidor, Secretaria secretaria) {
+        LocalDateTime updatedAt = servidor.getUpdatedAt();
+        servidor.setSecretaria(secretaria);
+        servidor.setUpdatedAt(updatedAt);
+    }
+    
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
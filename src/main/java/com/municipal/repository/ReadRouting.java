@@ -0,0 +1,82 @@
+package com.municipal.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the reads of the current thread go. The outermost service call decides: a read-only call sends its
+ * reads to a secondary ({@code secondaryPreferred}, at most {@code maxStaleness} behind), any other call keeps
+ * them on the primary, including the read-only calls it makes. A causally consistent session bound to the
+ * thread is attached to every operation, so reads issued after a client's write see it even on a secondary.
+ * <p>
+ * Routing only applies once {@link #setActive activated}, i.e. when the server is a replica set.
+ */
+public class ReadRouting {
+    
+    /** Smallest staleness bound the driver accepts */
+    public static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+    
+    private final ReadPreference secondaryReads;
+    private final ThreadLocal<Boolean> readOnly = new ThreadLocal<>();
+    private final ThreadLocal<ClientSession> session = new ThreadLocal<>();
+    private volatile boolean active;
+    
+    public ReadRouting(Duration maxStaleness) {
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("max-staleness deve ser de pelo menos 90s: " + maxStaleness);
+        }
+        this.secondaryReads = ReadPreference.secondaryPreferred(maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    
+    /**
+     * Enter a service call; returns {@code false}, and changes nothing, when an outer call already decided
+     */
+    public boolean enter(boolean readOnlyCall) {
+        if (readOnly.get() != null) {
+            return false;
+        }
+        readOnly.set(readOnlyCall);
+        return true;
+    }
+    
+    /**
+     * Leave the service call that {@link #enter entered}
+     */
+    public void exit() {
+        readOnly.remove();
+    }
+    
+    public void bindSession(ClientSession clientSession) {
+        session.set(clientSession);
+    }
+    
+    public void unbindSession() {
+        session.remove();
+    }
+    
+    /**
+     * Read preference of the current thread's reads, {@code null} for the default (primary)
+     */
+    ReadPreference currentReadPreference() {
+        return active && Boolean.TRUE.equals(readOnly.get()) ? secondaryReads : null;
+    }
+    
+    ClientSession currentSession() {
+        return session.get();
+    }
+    
+    public ReadPreference getSecondaryReads() {
+        return secondaryReads;
+    }
+}
@@ -0,0 +1,45 @@
+package com.municipal.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * {@link MongoTemplate} applying the {@link ReadRouting} of the calling thread to every operation: the
+ * database handed to the operation carries the thread's session and read preference. Queries with a read
+ * preference of their own keep it.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+    
+    private final ReadRouting readRouting;
+    
+    public RoutingMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter,
+                                ReadRouting readRouting) {
+        super(mongoDbFactory, mongoConverter);
+        this.readRouting = readRouting;
+    }
+    
+    @Override
+    protected MongoDatabase doGetDatabase() {
+        // Also called from the super constructor, before readRouting is set
+        if (readRouting == null) {
+            return super.doGetDatabase();
+        }
+        ClientSession session = readRouting.currentSession();
+        MongoDatabase database = session != null
+                ? getMongoDatabaseFactory().withSession(session).getMongoDatabase()
+                : super.doGetDatabase();
+        ReadPreference readPreference = readRouting.currentReadPreference();
+        return readPreference != null ? database.withReadPreference(readPreference) : database;
+    }
+    
+    /**
+     * Whether operations on the calling thread currently read from a secondary, and may see stale data
+     */
+    boolean readsFromSecondary() {
+        return readRouting.currentReadPreference() != null;
+    }
+}
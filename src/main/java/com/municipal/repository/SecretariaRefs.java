@@ -0,0 +1,27 @@
+package com.municipal.repository;
+
+import com.mongodb.DBRef;
+import org.bson.Document;
+
+/**
+ * Reading the {@code secretaria} reference of servidores when it comes back from an aggregation
+ * (grouped by the reference itself, since pipelines cannot address {@code $id})
+ */
+final class SecretariaRefs {
+    
+    private SecretariaRefs() {
+    }
+    
+    /**
+     * Secretaria id of a reference read back as a DBRef or as its raw document; null otherwise
+     */
+    static String idOf(Object reference) {
+        if (reference instanceof DBRef dbRef) {
+            return dbRef.getId().toString();
+        }
+        if (reference instanceof Document document && document.get("$id") != null) {
+            return document.get("$id").toString();
+        }
+        return null;
+    }
+}
@@ -1,18 +1,20 @@
 package com.municipal.repository;
 
+import com.municipal.config.CacheConfig;
 import com.municipal.model.Secretaria;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface SecretariaRepository extends MongoRepository<Secretaria, String> {
+public interface SecretariaRepository extends MongoRepository<Secretaria, String>, SecretariaRepositoryCustom {
     
     /**
-     * Find secretaria by sigla (unique identifier)
+     * Find secretaria by sigla (unique identifier), cached by upper-case sigla
      */
+    @Cacheable(cacheNames = CacheConfig.SECRETARIAS_BY_SIGLA, key = "#p0.toUpperCase()", unless = "#result == null")
     Optional<Secretaria> findBySiglaIgnoreCase(String sigla);
     
     /**
@@ -21,9 +23,8 @@ public interface SecretariaRepository extends MongoRepository<Secretaria, String
     boolean existsBySiglaIgnoreCase(String sigla);
     
     /**
-     * Find secretarias by nome containing (case insensitive)
+     * Find secretarias by nome containing (case insensitive); derived, so the input is matched literally
      */
-    @Query("{'nome': {$regex: ?0, $options: 'i'}}")
     java.util.List<Secretaria> findByNomeContainingIgnoreCase(String nome);
     
     /**
@@ -0,0 +1,79 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom query fragment for {@link SecretariaRepository}, implemented with {@code MongoTemplate}
+ */
+public interface SecretariaRepositoryCustom {
+    
+    /**
+     * Find one keyset page of secretarias, reading only the selected fields and the sort keys
+     */
+    KeysetPage<Secretaria> findPage(KeysetPageRequest pageRequest, FieldSelection fields);
+    
+    /**
+     * Count and newest updatedAt of the secretarias, versioning any listing of them
+     */
+    ChangeStamp findChangeStamp();
+    
+    /**
+     * Apply the non-null nome and sigla of changes, with its updatedAt, in one {@code findAndModify} that
+     * only matches while the secretaria holds the given version, and increment it; the servidor count is left
+     * untouched. A null version matches a secretaria written before the field existed. Returns the updated
+     * secretaria; empty when no secretaria has that id and version.
+     */
+    Optional<Secretaria> patchIfVersion(String id, Long version, Secretaria changes);
+    
+    /**
+     * Set version 0 on documents written before the field existed; returns how many changed
+     */
+    long backfillVersion();
+    
+    /**
+     * Add delta to the servidor count with {@code $inc}; false when the secretaria does not exist
+     */
+    boolean incrementServidorCount(String secretariaId, long delta);
+    
+    /**
+     * Apply several servidor count deltas, keyed by secretaria id, in one unordered bulkWrite
+     */
+    void incrementServidorCounts(Map<String, Long> deltas);
+    
+    /**
+     * Current servidor count of a secretaria (0 when it does not exist)
+     */
+    long findServidorCount(String secretariaId);
+    
+    /**
+     * Secretarias with id, sigla, nome and servidor count only, ordered by nome
+     */
+    List<Secretaria> findHeadcounts();
+    
+    /**
+     * Delete the secretaria only if its servidor count is zero, in one atomic {@code findAndModify} (remove).
+     * Returns the deleted secretaria; empty when it does not exist or still has servidores. A secretaria
+     * with no count stored is not deleted either: its count is unknown until {@link #backfillServidorCount()}.
+     */
+    Optional<Secretaria> deleteIfNoServidores(String secretariaId);
+    
+    /**
+     * Recount the servidores of every secretaria and list the stored counts that differ
+     */
+    List<ServidorCountDrift> findServidorCountDrifts();
+    
+    /**
+     * Store the recount on secretarias stored before the counter existed; returns how many were filled
+     */
+    long backfillServidorCount();
+    
+    /**
+     * Set each drifted count to its recount, only where the stored count still holds the value listed;
+     * returns how many were corrected
+     */
+    long correctServidorCounts(List<ServidorCountDrift> drifts);
+}
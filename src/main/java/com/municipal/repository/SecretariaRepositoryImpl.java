@@ -0,0 +1,183 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class SecretariaRepositoryImpl implements SecretariaRepositoryCustom {
+    
+    private static final String COLLECTION = "secretarias";
+    private static final String SERVIDORES_COLLECTION = "servidores";
+    private static final String SERVIDOR_COUNT_FIELD = "servidorCount";
+    
+    private final MongoOperations mongoOperations;
+    
+    SecretariaRepositoryImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+    
+    @Override
+    public KeysetPage<Secretaria> findPage(KeysetPageRequest pageRequest, FieldSelection fields) {
+        Query query = fields.projectSecretaria(KeysetQueries.pageQuery(pageRequest),
+                KeysetQueries.sortKeys(pageRequest));
+        List<Secretaria> rows = mongoOperations.find(query, Secretaria.class);
+        return KeysetQueries.toPage(rows, pageRequest, Secretaria::getId, Secretaria::getNome);
+    }
+    
+    @Override
+    public ChangeStamp findChangeStamp() {
+        return ChangeStamps.of(mongoOperations, COLLECTION);
+    }
+    
+    @Override
+    public Optional<Secretaria> patchIfVersion(String id, Long version, Secretaria changes) {
+        return Optional.ofNullable(mongoOperations.findAndModify(VersionedUpdates.byIdAndVersion(id, version),
+                VersionedUpdates.secretariaChanges(changes), FindAndModifyOptions.options().returnNew(true),
+                Secretaria.class));
+    }
+    
+    @Override
+    public long backfillVersion() {
+        return mongoOperations.updateMulti(VersionedUpdates.missingVersion(), VersionedUpdates.initialVersion(),
+                COLLECTION).getModifiedCount();
+    }
+    
+    /**
+     * Counter updates name the collection instead of the entity class, which would make MongoTemplate
+     * increment the {@code @Version} too: a count change must not conflict with edits of the secretaria
+     */
+    @Override
+    public boolean incrementServidorCount(String secretariaId, long delta) {
+        return mongoOperations.updateFirst(byStoredId(secretariaId), new Update().inc(SERVIDOR_COUNT_FIELD, delta),
+                COLLECTION).getMatchedCount() > 0;
+    }
+    
+    @Override
+    public void incrementServidorCounts(Map<String, Long> deltas) {
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>();
+        deltas.forEach((secretariaId, delta) -> {
+            if (delta != 0) {
+                updates.add(Pair.of(byStoredId(secretariaId), new Update().inc(SERVIDOR_COUNT_FIELD, delta)));
+            }
+        });
+        if (!updates.isEmpty()) {
+            mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                    .updateOne(updates)
+                    .execute();
+        }
+    }
+    
+    @Override
+    public long findServidorCount(String secretariaId) {
+        Query query = byId(secretariaId);
+        query.fields().include(SERVIDOR_COUNT_FIELD);
+        Secretaria secretaria = mongoOperations.findOne(query, Secretaria.class);
+        return secretaria != null ? secretaria.getServidorCount() : 0;
+    }
+    
+    @Override
+    public List<Secretaria> findHeadcounts() {
+        Query query = new Query().with(Sort.by(Sort.Order.asc("nome"), Sort.Order.asc("_id")));
+        query.fields().include("sigla", "nome", SERVIDOR_COUNT_FIELD);
+        return mongoOperations.find(query, Secretaria.class);
+    }
+    
+    /**
+     * {@code $lte} does not match a missing field, so a secretaria without a count is kept
+     */
+    @Override
+    public Optional<Secretaria> deleteIfNoServidores(String secretariaId) {
+        Query query = byId(secretariaId).addCriteria(Criteria.where(SERVIDOR_COUNT_FIELD).lte(0));
+        return Optional.ofNullable(mongoOperations.findAndRemove(query, Secretaria.class));
+    }
+    
+    /**
+     * The recount runs before the stored counts are read, so a servidor written in between shows up as a
+     * count above the recount (servidor writes increment before they insert and decrement after they
+     * delete) rather than below it.
+     */
+    @Override
+    public List<ServidorCountDrift> findServidorCountDrifts() {
+        Map<String, Long> actual = new HashMap<>();
+        Aggregation countBySecretaria = Aggregation.newAggregation(
+                Aggregation.group("secretaria").count().as("count"));
+        for (Document group : mongoOperations.aggregate(countBySecretaria, SERVIDORES_COLLECTION, Document.class)) {
+            String secretariaId = SecretariaRefs.idOf(group.get("_id"));
+            if (secretariaId != null) {
+                actual.merge(secretariaId, ((Number) group.get("count")).longValue(), Long::sum);
+            }
+        }
+        
+        Query stored = new Query();
+        stored.fields().include(SERVIDOR_COUNT_FIELD);
+        List<ServidorCountDrift> drifts = new ArrayList<>();
+        for (Document secretaria : mongoOperations.find(stored, Document.class, COLLECTION)) {
+            String id = secretaria.get("_id").toString();
+            Object count = secretaria.get(SERVIDOR_COUNT_FIELD);
+            long expected = actual.getOrDefault(id, 0L);
+            if (!(count instanceof Number number) || number.longValue() != expected) {
+                drifts.add(new ServidorCountDrift(id, count != null ? ((Number) count).longValue() : null, expected));
+            }
+        }
+        return drifts;
+    }
+    
+    @Override
+    public long backfillServidorCount() {
+        if (!mongoOperations.exists(Query.query(Criteria.where(SERVIDOR_COUNT_FIELD).exists(false)), COLLECTION)) {
+            return 0;
+        }
+        return correctServidorCounts(findServidorCountDrifts().stream()
+                .filter(drift -> drift.getStored() == null)
+                .toList());
+    }
+    
+    /**
+     * Each fix applies only while the count still holds the value listed, so a concurrent {@code $inc}
+     * is never overwritten
+     */
+    @Override
+    public long correctServidorCounts(List<ServidorCountDrift> drifts) {
+        if (drifts.isEmpty()) {
+            return 0;
+        }
+        List<Pair<Query, UpdateDefinition>> fixes = new ArrayList<>();
+        for (ServidorCountDrift drift : drifts) {
+            Criteria unchanged = drift.getStored() != null
+                    ? Criteria.where(SERVIDOR_COUNT_FIELD).is(drift.getStored())
+                    : Criteria.where(SERVIDOR_COUNT_FIELD).exists(false);
+            fixes.add(Pair.of(byStoredId(drift.getSecretariaId()).addCriteria(unchanged),
+                    Update.update(SERVIDOR_COUNT_FIELD, drift.getActual())));
+        }
+        return mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                .updateOne(fixes)
+                .execute()
+                .getModifiedCount();
+    }
+    
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+    
+    /**
+     * By id as stored, for queries run without the entity mapping
+     */
+    private static Query byStoredId(String id) {
+        return Query.query(Criteria.where("_id").is(VersionedUpdates.toObjectId(id)));
+    }
+}
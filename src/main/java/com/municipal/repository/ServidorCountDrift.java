@@ -0,0 +1,39 @@
+package com.municipal.repository;
+
+/**
+ * A secretaria whose stored servidor count differs from a recount of its servidores
+ */
+public final class ServidorCountDrift {
+    
+    private final String secretariaId;
+    private final Long stored;
+    private final long actual;
+    
+    public ServidorCountDrift(String secretariaId, Long stored, long actual) {
+        this.secretariaId = secretariaId;
+        this.stored = stored;
+        this.actual = actual;
+    }
+    
+    public String getSecretariaId() {
+        return secretariaId;
+    }
+    
+    /**
+     * Stored count, {@code null} for a secretaria stored before the counter existed
+     */
+    public Long getStored() {
+        return stored;
+    }
+    
+    public long getActual() {
+        return actual;
+    }
+    
+    /**
+     * Stored count above the recount: also what a create looks like between its increment and its insert
+     */
+    public boolean isExcess() {
+        return stored != null && stored > actual;
+    }
+}
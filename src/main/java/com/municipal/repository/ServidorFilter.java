@@ -0,0 +1,131 @@
+package com.municipal.repository;
+
+import com.mongodb.DBRef;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Optional restrictions of a servidor listing: a secretaria and an age range. Ages are converted once,
+ * when the filter is built, into inclusive birth-date boundaries (the {@code minDate}/{@code maxDate} of
+ * {@link ServidorRepository#findByIdadeBetween}), so the query compares stored dates on the
+ * {@code (secretaria, dataNascimento, _id)} index, or {@code (dataNascimento, _id)} without a secretaria.
+ * Filtered listings are paged in the order of those indexes, so no page needs an in-memory sort.
+ */
+public final class ServidorFilter {
+    
+    public static final ServidorFilter NONE = new ServidorFilter(null, null, null);
+    
+    private final String secretariaId;
+    private final LocalDate bornOnOrAfter;
+    private final LocalDate bornOnOrBefore;
+    
+    private ServidorFilter(String secretariaId, LocalDate bornOnOrAfter, LocalDate bornOnOrBefore) {
+        this.secretariaId = secretariaId;
+        this.bornOnOrAfter = bornOnOrAfter;
+        this.bornOnOrBefore = bornOnOrBefore;
+    }
+    
+    /**
+     * Build a filter from raw query parameters, ages as of referenceDate; all of them are optional.
+     * Being at least {@code idadeMin} means born on or before referenceDate minus idadeMin years; being at
+     * most {@code idadeMax} means born after referenceDate minus idadeMax + 1 years.
+     */
+    public static ServidorFilter of(Integer idadeMin, Integer idadeMax, String secretariaId, LocalDate referenceDate) {
+        if (idadeMin != null && idadeMin < 0) {
+            throw new IllegalArgumentException("idadeMin não pode ser negativa");
+        }
+        if (idadeMax != null && idadeMax < 0) {
+            throw new IllegalArgumentException("idadeMax não pode ser negativa");
+        }
+        if (idadeMin != null && idadeMax != null && idadeMin > idadeMax) {
+            throw new IllegalArgumentException("idadeMin deve ser menor ou igual a idadeMax");
+        }
+        
+        String secretaria = secretariaId != null && !secretariaId.isBlank() ? secretariaId.trim() : null;
+        LocalDate bornOnOrBefore = idadeMin != null ? referenceDate.minusYears(idadeMin) : null;
+        LocalDate bornOnOrAfter = idadeMax != null ? referenceDate.minusYears(idadeMax + 1L).plusDays(1) : null;
+        return new ServidorFilter(secretaria, bornOnOrAfter, bornOnOrBefore);
+    }
+    
+    /**
+     * Page request for a listing with this filter: unfiltered listings take the {@code sort} parameter,
+     * filtered ones are ordered by {@code (dataNascimento, _id)} and reject any other sort
+     */
+    public KeysetPageRequest pageRequest(Integer limit, String after, String sort) {
+        if (isEmpty()) {
+            return KeysetPageRequest.of(limit, after, sort);
+        }
+        if (sort != null && !sort.isBlank() && KeysetSort.find(sort) != KeysetSort.DATA_NASCIMENTO) {
+            throw new IllegalArgumentException(
+                "Listagens filtradas por idade ou secretaria são ordenadas por dataNascimento; sort=" + sort
+                + " não é suportado");
+        }
+        return KeysetPageRequest.of(limit, after, KeysetSort.DATA_NASCIMENTO);
+    }
+    
+    public String getSecretariaId() {
+        return secretariaId;
+    }
+    
+    public LocalDate getBornOnOrAfter() {
+        return bornOnOrAfter;
+    }
+    
+    public LocalDate getBornOnOrBefore() {
+        return bornOnOrBefore;
+    }
+    
+    public boolean isEmpty() {
+        return secretariaId == null && bornOnOrAfter == null && bornOnOrBefore == null;
+    }
+    
+    /**
+     * Add the restrictions to a query on the stored fields: equality on the whole {@code secretaria}
+     * reference, then the {@code dataNascimento} range, matching the compound index prefix
+     */
+    Query applyTo(Query query) {
+        if (secretariaId != null) {
+            Object id = ObjectId.isValid(secretariaId) ? new ObjectId(secretariaId) : secretariaId;
+            query.addCriteria(Criteria.where("secretaria").is(new DBRef("secretarias", id)));
+        }
+        if (bornOnOrAfter != null || bornOnOrBefore != null) {
+            Criteria dataNascimento = Criteria.where("dataNascimento");
+            if (bornOnOrAfter != null) {
+                dataNascimento.gte(bornOnOrAfter);
+            }
+            if (bornOnOrBefore != null) {
+                dataNascimento.lte(bornOnOrBefore);
+            }
+            query.addCriteria(dataNascimento);
+        }
+        return query;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ServidorFilter that = (ServidorFilter) o;
+        return Objects.equals(secretariaId, that.secretariaId)
+                && Objects.equals(bornOnOrAfter, that.bornOnOrAfter)
+                && Objects.equals(bornOnOrBefore, that.bornOnOrBefore);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(secretariaId, bornOnOrAfter, bornOnOrBefore);
+    }
+    
+    @Override
+    public String toString() {
+        return "ServidorFilter{" +
+                "secretariaId='" + secretariaId + '\'' +
+                ", bornOnOrAfter=" + bornOnOrAfter +
+                ", bornOnOrBefore=" + bornOnOrBefore +
+                '}';
+    }
+}
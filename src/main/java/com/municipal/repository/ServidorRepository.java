@@ -10,46 +10,32 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ServidorRepository extends MongoRepository<Servidor, String> {
+public interface ServidorRepository extends MongoRepository<Servidor, String>, ServidorRepositoryCustom {
     
     /**
-     * Find servidor by email (unique identifier)
+     * Find servidor by id, served by {@link ServidorRepositoryCustom} (secretaria resolved from cache)
      */
-    Optional<Servidor> findByEmailIgnoreCase(String email);
+    @Override
+    Optional<Servidor> findById(String id);
     
     /**
-     * Check if exists by email (for validation)
+     * Find servidor by normalized email (unique index), see {@link Servidor#normalizeEmail(String)}
      */
-    boolean existsByEmailIgnoreCase(String email);
-    
-    /**
-     * Check if exists by email excluding current id (for updates)
-     */
-    boolean existsByEmailIgnoreCaseAndIdNot(String email, String id);
+    Optional<Servidor> findByEmailNormalizado(String emailNormalizado);
     
     /**
      * Find servidores by secretaria
      */
     List<Servidor> findBySecretaria(Secretaria secretaria);
     
-    /**
-     * Find servidores by secretaria id
-     */
-    List<Servidor> findBySecretariaId(String secretariaId);
-    
-    /**
-     * Find servidores by nome containing (case insensitive)
-     */
-    @Query("{'nome': {$regex: ?0, $options: 'i'}}")
-    List<Servidor> findByNomeContainingIgnoreCase(String nome);
-    
     /**
      * Count servidores by secretaria
      */
     long countBySecretaria(Secretaria secretaria);
     
     /**
-     * Find servidores with age range (calculated field)
+     * Find servidores born between minDate and maxDate, inclusive; {@link ServidorFilter} turns an
+     * age range into these boundaries. Paged listings go through {@link #findPage} instead.
      */
     @Query("{'dataNascimento': {$gte: ?1, $lte: ?0}}")
     List<Servidor> findByIdadeBetween(java.time.LocalDate maxDate, java.time.LocalDate minDate);
@@ -0,0 +1,132 @@
+package com.municipal.repository;
+
+import com.municipal.model.Servidor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom query fragment for {@link ServidorRepository}, implemented with {@code MongoTemplate}.
+ * Reads resolve the {@code secretaria} reference from the secretaria cache, fetching the misses of
+ * the whole result in one {@code $in} query instead of one {@code @DBRef} fetch per servidor;
+ * the returned entities are identical.
+ */
+public interface ServidorRepositoryCustom {
+    
+    /**
+     * Find servidor by id
+     */
+    Optional<Servidor> findById(String id);
+    
+    /**
+     * Find servidor by id reading only the selected fields, plus updatedAt for its ETag
+     */
+    Optional<Servidor> findById(String id, FieldSelection fields);
+    
+    /**
+     * Find servidor by id reading only version, updatedAt and the secretaria reference, enough to tell which
+     * version of it a client holds
+     */
+    Optional<Servidor> findVersionById(String id);
+    
+    /**
+     * Count and newest updatedAt of the servidores (updatedAt is indexed), versioning any listing of them
+     */
+    ChangeStamp findChangeStamp();
+    
+    /**
+     * Find all servidores
+     */
+    List<Servidor> findAll();
+    
+    /**
+     * Find servidores by secretaria id
+     */
+    List<Servidor> findBySecretariaId(String secretariaId);
+    
+    /**
+     * Find servidores by nome containing (case insensitive); the input is matched literally.
+     * Unanchored, so it cannot use an index; prefer {@link #searchByNomeTokens(List, int)}.
+     */
+    List<Servidor> findByNomeContainingIgnoreCase(String nome);
+    
+    /**
+     * Find servidores whose nome has a word starting with every term, through the nomeTokens index,
+     * ordered by nome; terms must come from {@code NomeTokens.terms}. Reads only the selected fields and nome,
+     * which ranks the results.
+     */
+    List<Servidor> searchByNomeTokens(List<String> terms, int limit, FieldSelection fields);
+    
+    /**
+     * Find one keyset page of the servidores matching the filter, reading only the selected fields and the
+     * sort keys
+     */
+    KeysetPage<Servidor> findPage(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields);
+    
+    /**
+     * Return, normalized, which of the given emails already belong to a servidor (one indexed query)
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+    
+    /**
+     * Insert all servidores with one unordered {@code bulkWrite}; ids must be assigned by the caller.
+     * Returns the rejected documents, an empty list when every insert succeeded.
+     */
+    List<BulkInsertFailure> insertAllUnordered(List<Servidor> servidores);
+    
+    /**
+     * Apply the non-null nome, email, dataNascimento and secretaria of changes, with its updatedAt, in one
+     * {@code findAndModify} that only matches while the servidor holds the given version, and increment it.
+     * Returns the servidor as it was before the change; empty when no servidor has that id and version.
+     */
+    Optional<Servidor> patchIfVersion(String id, long version, Servidor changes);
+    
+    /**
+     * Delete the servidor in one {@code findAndModify} (remove), returning it as it was, with its secretaria
+     * resolved; empty when no servidor has that id
+     */
+    Optional<Servidor> findAndRemoveById(String id);
+    
+    /**
+     * Map each of the given servidor ids that exists to the id of its secretaria ({@code null} when it has
+     * none), in one {@code $in} query reading only the reference
+     */
+    Map<String, String> findSecretariaIds(Collection<String> ids);
+    
+    /**
+     * Delete the servidores with the given ids in one {@code $in} deleteMany; returns how many were deleted
+     */
+    long deleteAllByIdIn(Collection<String> ids);
+    
+    /**
+     * Set version 0 on documents written before the field existed; returns how many changed
+     */
+    long backfillVersion();
+    
+    /**
+     * Fill {@code emailNormalizado} on documents written before the field existed; returns how many changed
+     */
+    long backfillEmailNormalizado();
+    
+    /**
+     * Fill {@code nomeTokens} on documents written before the field existed; returns how many changed
+     */
+    long backfillNomeTokens();
+    
+    /**
+     * Stream every servidor from a server-side cursor; the caller must close the stream
+     */
+    Stream<Servidor> streamAll();
+    
+    /**
+     * Age distribution on referenceDate of all servidores (first element) and of each secretaria, in one
+     * {@code $facet} aggregation over {@code dataNascimento}. Brackets are keyed by their lowest age;
+     * bracketStarts must be ascending, younger servidores fall in bracket 0.
+     */
+    List<AgeDistribution> ageDistribution(LocalDate referenceDate, List<Integer> bracketStarts, int nearRetirementAge);
+}
@@ -0,0 +1,424 @@
+package com.municipal.repository;
+
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteError;
+import com.municipal.config.CacheConfig;
+import com.municipal.model.NomeTokens;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+class ServidorRepositoryImpl implements ServidorRepositoryCustom {
+    
+    private static final String COLLECTION = "servidores";
+    private static final String SECRETARIA_FIELD = "secretaria";
+    private static final String EMAIL_NORMALIZADO_FIELD = "emailNormalizado";
+    private static final String NOME_TOKENS_FIELD = "nomeTokens";
+    private static final String DATA_NASCIMENTO_FIELD = "$dataNascimento";
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final double MILLIS_PER_YEAR = 365.2425 * 24 * 60 * 60 * 1000;
+    private static final String BRACKET_PREFIX = "bracket";
+    
+    private final MongoOperations mongoOperations;
+    private final Cache secretariaCache;
+    
+    ServidorRepositoryImpl(MongoOperations mongoOperations, CacheManager cacheManager) {
+        this.mongoOperations = mongoOperations;
+        this.secretariaCache = cacheManager.getCache(CacheConfig.SECRETARIAS);
+    }
+    
+    @Override
+    public Optional<Servidor> findById(String id) {
+        List<Servidor> servidores = findResolved(Query.query(Criteria.where("_id").is(toObjectId(id))));
+        return servidores.stream().findFirst();
+    }
+    
+    @Override
+    public Optional<Servidor> findById(String id, FieldSelection fields) {
+        Query query = Query.query(Criteria.where("_id").is(toObjectId(id)));
+        return findResolved(fields.projectServidor(query, "updatedAt", "version")).stream().findFirst();
+    }
+    
+    @Override
+    public Optional<Servidor> findVersionById(String id) {
+        Query query = Query.query(Criteria.where("_id").is(toObjectId(id)));
+        query.fields().include("updatedAt", "version", SECRETARIA_FIELD);
+        return findResolved(query).stream().findFirst();
+    }
+    
+    @Override
+    public ChangeStamp findChangeStamp() {
+        return ChangeStamps.of(mongoOperations, COLLECTION);
+    }
+    
+    @Override
+    public List<Servidor> findAll() {
+        return findResolved(new Query());
+    }
+    
+    @Override
+    public List<Servidor> findBySecretariaId(String secretariaId) {
+        return findResolved(Query.query(Criteria.where(SECRETARIA_FIELD + ".$id").is(toObjectId(secretariaId))));
+    }
+    
+    @Override
+    public List<Servidor> findByNomeContainingIgnoreCase(String nome) {
+        Pattern literal = Pattern.compile(Pattern.quote(nome), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return findResolved(Query.query(Criteria.where("nome").regex(literal)));
+    }
+    
+    @Override
+    public List<Servidor> searchByNomeTokens(List<String> terms, int limit, FieldSelection fields) {
+        Query query = Query.query(Criteria.where(NOME_TOKENS_FIELD).all(terms))
+                .with(Sort.by(Sort.Order.asc("nome")))
+                .limit(limit);
+        return findResolved(fields.projectServidor(query, "nome"));
+    }
+    
+    @Override
+    public KeysetPage<Servidor> findPage(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields) {
+        Query query = filter.applyTo(KeysetQueries.pageQuery(pageRequest));
+        List<Servidor> rows = findResolved(fields.projectServidor(query, KeysetQueries.sortKeys(pageRequest)));
+        return KeysetQueries.toPage(rows, pageRequest, Servidor::getId, Servidor::getNome,
+                Servidor::getDataNascimento);
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        
+        List<String> normalized = emails.stream().map(Servidor::normalizeEmail).distinct().toList();
+        Query query = Query.query(Criteria.where(EMAIL_NORMALIZADO_FIELD).in(normalized));
+        query.fields().include(EMAIL_NORMALIZADO_FIELD);
+        
+        Set<String> existing = new HashSet<>();
+        for (Document document : mongoOperations.find(query, Document.class, COLLECTION)) {
+            existing.add(document.getString(EMAIL_NORMALIZADO_FIELD));
+        }
+        return existing;
+    }
+    
+    @Override
+    public List<BulkInsertFailure> insertAllUnordered(List<Servidor> servidores) {
+        if (servidores.isEmpty()) {
+            return List.of();
+        }
+        
+        try {
+            mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class)
+                    .insert(servidores)
+                    .execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            List<BulkInsertFailure> failures = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                failures.add(new BulkInsertFailure(error.getIndex(), error.getCode(), error.getMessage()));
+            }
+            return failures;
+        }
+    }
+    
+    @Override
+    public Optional<Servidor> patchIfVersion(String id, long version, Servidor changes) {
+        Document previous = mongoOperations.findAndModify(VersionedUpdates.byIdAndVersion(toObjectId(id), version),
+                VersionedUpdates.servidorChanges(changes), Document.class, COLLECTION);
+        return previous != null ? resolve(List.of(previous)).stream().findFirst() : Optional.empty();
+    }
+    
+    @Override
+    public Optional<Servidor> findAndRemoveById(String id) {
+        Document removed = mongoOperations.findAndRemove(Query.query(Criteria.where("_id").is(toObjectId(id))),
+                Document.class, COLLECTION);
+        return removed != null ? resolve(List.of(removed)).stream().findFirst() : Optional.empty();
+    }
+    
+    @Override
+    public Map<String, String> findSecretariaIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        
+        Query query = Query.query(Criteria.where("_id").in(ids.stream().map(ServidorRepositoryImpl::toObjectId).toList()));
+        query.fields().include(SECRETARIA_FIELD);
+        
+        Map<String, String> secretariaIds = new HashMap<>();
+        for (Document document : mongoOperations.find(query, Document.class, COLLECTION)) {
+            secretariaIds.put(document.get("_id").toString(), SecretariaRefs.idOf(document.get(SECRETARIA_FIELD)));
+        }
+        return secretariaIds;
+    }
+    
+    @Override
+    public long deleteAllByIdIn(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids.stream().map(ServidorRepositoryImpl::toObjectId).toList()));
+        return mongoOperations.remove(query, COLLECTION).getDeletedCount();
+    }
+    
+    @Override
+    public long backfillVersion() {
+        return mongoOperations.updateMulti(VersionedUpdates.missingVersion(), VersionedUpdates.initialVersion(),
+                COLLECTION).getModifiedCount();
+    }
+    
+    @Override
+    public long backfillEmailNormalizado() {
+        Query missing = Query.query(Criteria.where(EMAIL_NORMALIZADO_FIELD).exists(false).and("email").exists(true));
+        if (!mongoOperations.exists(missing, COLLECTION)) {
+            return 0;
+        }
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(EMAIL_NORMALIZADO_FIELD).toValue(StringOperators.valueOf("email").toLower());
+        return mongoOperations.updateMulti(missing, update, COLLECTION).getModifiedCount();
+    }
+    
+    @Override
+    public long backfillNomeTokens() {
+        Query missing = Query.query(Criteria.where(NOME_TOKENS_FIELD).exists(false).and("nome").exists(true));
+        missing.fields().include("nome");
+        missing.cursorBatchSize(STREAM_BATCH_SIZE);
+        
+        long updated = 0;
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>();
+        try (Stream<Document> documents = mongoOperations.stream(missing, Document.class, COLLECTION)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                updates.add(Pair.of(Query.query(Criteria.where("_id").is(document.get("_id"))),
+                        Update.update(NOME_TOKENS_FIELD, NomeTokens.of(document.getString("nome")))));
+                if (updates.size() == STREAM_BATCH_SIZE) {
+                    updated += applyUpdates(updates);
+                }
+            }
+        }
+        return updated + applyUpdates(updates);
+    }
+    
+    private long applyUpdates(List<Pair<Query, UpdateDefinition>> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        long modified = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION)
+                .updateOne(updates)
+                .execute()
+                .getModifiedCount();
+        updates.clear();
+        return modified;
+    }
+    
+    @Override
+    public Stream<Servidor> streamAll() {
+        // Secretarias are few; remember each one the first time the cursor references it
+        Map<String, Secretaria> seen = new HashMap<>();
+        return mongoOperations.stream(new Query().cursorBatchSize(STREAM_BATCH_SIZE), Document.class, COLLECTION)
+                .map(document -> {
+                    Object ref = document.remove(SECRETARIA_FIELD);
+                    Servidor servidor = read(document);
+                    if (ref instanceof DBRef dbRef) {
+                        attach(servidor, seen.computeIfAbsent(dbRef.getId().toString(),
+                                key -> resolveSecretarias(Set.of(dbRef.getId())).get(key)));
+                    }
+                    return servidor;
+                });
+    }
+    
+    /**
+     * An age of at least n years on the reference date is a birth date on or before the reference date
+     * minus n years, so ages are compared as birth-date boundaries computed once here
+     */
+    @Override
+    public List<AgeDistribution> ageDistribution(LocalDate referenceDate, List<Integer> bracketStarts,
+                                                 int nearRetirementAge) {
+        // One conditional count per bracket: born after the next bracket's boundary and on or before its own
+        Document accumulators = new Document()
+                .append("count", new Document("$sum", 1))
+                .append("oldest", new Document("$min", DATA_NASCIMENTO_FIELD))
+                .append("youngest", new Document("$max", DATA_NASCIMENTO_FIELD))
+                .append("averageAgeMillis", new Document("$avg", new Document("$subtract",
+                        List.of(mongoOperations.getConverter().convertToMongoType(referenceDate), DATA_NASCIMENTO_FIELD))))
+                .append("nearRetirement", countWhere(bornOnOrBefore(referenceDate.minusYears(nearRetirementAge))));
+        List<Integer> starts = new ArrayList<>(emptyBrackets(bracketStarts).keySet());
+        for (int i = 0; i < starts.size(); i++) {
+            List<Object> conditions = new ArrayList<>();
+            if (starts.get(i) > 0) {
+                conditions.add(bornOnOrBefore(referenceDate.minusYears(starts.get(i))));
+            }
+            if (i + 1 < starts.size()) {
+                conditions.add(new Document("$not", List.of(bornOnOrBefore(referenceDate.minusYears(starts.get(i + 1))))));
+            }
+            accumulators.append(BRACKET_PREFIX + starts.get(i), countWhere(new Document("$and", conditions)));
+        }
+        
+        Document facets = new Document()
+                .append("overall", List.of(new Document("$group", groupBy(null, accumulators))))
+                .append("bySecretaria", List.of(new Document("$group",
+                        groupBy("$" + SECRETARIA_FIELD, accumulators))));
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("dataNascimento", new Document("$type", "date"))),
+                new Document("$facet", facets));
+        Document result = mongoOperations.getCollection(COLLECTION).aggregate(pipeline).first();
+        
+        List<AgeDistribution> distributions = new ArrayList<>();
+        List<Document> overall = result.getList("overall", Document.class);
+        distributions.add(overall.isEmpty()
+                ? new AgeDistribution(null, 0, null, null, 0, 0, emptyBrackets(bracketStarts))
+                : toAgeDistribution(null, overall.get(0), starts));
+        for (Document row : result.getList("bySecretaria", Document.class)) {
+            String secretariaId = SecretariaRefs.idOf(row.get("_id"));
+            if (secretariaId != null) {
+                distributions.add(toAgeDistribution(secretariaId, row, starts));
+            }
+        }
+        return distributions;
+    }
+    
+    private Document bornOnOrBefore(LocalDate date) {
+        return new Document("$lte", List.of(DATA_NASCIMENTO_FIELD, mongoOperations.getConverter().convertToMongoType(date)));
+    }
+    
+    private static Document groupBy(Object key, Document accumulators) {
+        Document group = new Document("_id", key);
+        group.putAll(accumulators);
+        return group;
+    }
+    
+    private static Document countWhere(Document condition) {
+        return new Document("$sum", new Document("$cond", List.of(condition, 1, 0)));
+    }
+    
+    private AgeDistribution toAgeDistribution(String secretariaId, Document row, List<Integer> bracketStarts) {
+        Map<Integer, Long> brackets = new TreeMap<>();
+        bracketStarts.forEach(start -> brackets.put(start, ((Number) row.get(BRACKET_PREFIX + start)).longValue()));
+        Number averageAgeMillis = (Number) row.get("averageAgeMillis");
+        return new AgeDistribution(secretariaId,
+                ((Number) row.get("count")).longValue(),
+                toLocalDate(row.get("oldest")),
+                toLocalDate(row.get("youngest")),
+                averageAgeMillis != null ? averageAgeMillis.doubleValue() / MILLIS_PER_YEAR : 0,
+                ((Number) row.get("nearRetirement")).longValue(),
+                brackets);
+    }
+    
+    private LocalDate toLocalDate(Object date) {
+        return date != null
+                ? mongoOperations.getConverter().getConversionService().convert(date, LocalDate.class)
+                : null;
+    }
+    
+    private static Map<Integer, Long> emptyBrackets(List<Integer> bracketStarts) {
+        Map<Integer, Long> brackets = new TreeMap<>();
+        brackets.put(0, 0L);
+        bracketStarts.forEach(start -> brackets.put(start, 0L));
+        return brackets;
+    }
+    
+    /**
+     * Run the query against the raw documents, then resolve every referenced secretaria at once
+     */
+    private List<Servidor> findResolved(Query query) {
+        return resolve(mongoOperations.find(query, Document.class, COLLECTION));
+    }
+    
+    private List<Servidor> resolve(List<Document> documents) {
+        Set<Object> secretariaIds = new LinkedHashSet<>();
+        for (Document document : documents) {
+            if (document.get(SECRETARIA_FIELD) instanceof DBRef dbRef) {
+                secretariaIds.add(dbRef.getId());
+            }
+        }
+        Map<String, Secretaria> secretarias = resolveSecretarias(secretariaIds);
+        
+        List<Servidor> servidores = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            Object ref = document.remove(SECRETARIA_FIELD);
+            Servidor servidor = read(document);
+            if (ref instanceof DBRef dbRef) {
+                attach(servidor, secretarias.get(dbRef.getId().toString()));
+            }
+            servidores.add(servidor);
+        }
+        return servidores;
+    }
+    
+    /**
+     * Look the ids up in the secretaria cache and fetch only the misses, with a single {@code $in}
+     */
+    private Map<String, Secretaria> resolveSecretarias(Set<Object> ids) {
+        Map<String, Secretaria> secretarias = new HashMap<>();
+        List<Object> misses = new ArrayList<>();
+        for (Object id : ids) {
+            Secretaria cached = secretariaCache != null ? secretariaCache.get(id.toString(), Secretaria.class) : null;
+            if (cached != null) {
+                secretarias.put(id.toString(), cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        
+        if (!misses.isEmpty()) {
+            for (Secretaria secretaria : mongoOperations.find(Query.query(Criteria.where("_id").in(misses)), Secretaria.class)) {
+                secretarias.put(secretaria.getId(), secretaria);
+                // A secondary may lag the primary; only primary reads go to the cache SecretariaService reads
+                if (secretariaCache != null && !readsFromSecondary()) {
+                    secretariaCache.put(secretaria.getId(), secretaria);
+                }
+            }
+        }
+        return secretarias;
+    }
+    
+    private boolean readsFromSecondary() {
+        return mongoOperations instanceof RoutingMongoTemplate routing && routing.readsFromSecondary();
+    }
+    
+    /**
+     * Map a document whose reference was removed, so the converter has no {@code @DBRef} left to fetch
+     */
+    private Servidor read(Document document) {
+        return mongoOperations.getConverter().read(Servidor.class, document);
+    }
+    
+    /**
+     * Set the resolved secretaria without touching {@code updatedAt}, which the setter would otherwise bump
+     */
+    private static void attach(Servidor servidor, Secretaria secretaria) {
+        LocalDateTime updatedAt = servidor.getUpdatedAt();
+        servidor.setSecretaria(secretaria);
+        servidor.setUpdatedAt(updatedAt);
+    }
+    
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -0,0 +1,82 @@
+package com.municipal.repository;
+
+import com.mongodb.DBRef;
+import com.municipal.model.NomeTokens;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial {@code $set} updates that move the {@code @Version} field forward, and the query that makes
+ * them conditional on it, shared by the blocking and the reactive fragments. Only the non-null fields of
+ * the changes are written, with the derived fields that follow them; updatedAt is set and the version
+ * incremented in the same operation.
+ */
+final class VersionedUpdates {
+    
+    static final String VERSION_FIELD = "version";
+    
+    private VersionedUpdates() {
+    }
+    
+    /**
+     * Matches the document only while it still holds the given version; a null version matches
+     * documents written before the field existed
+     */
+    static Query byIdAndVersion(Object id, Long version) {
+        return Query.query(Criteria.where("_id").is(id).and(VERSION_FIELD).is(version));
+    }
+    
+    static Update servidorChanges(Servidor changes) {
+        Update update = new Update();
+        if (changes.getNome() != null) {
+            update.set("nome", changes.getNome()).set("nomeTokens", NomeTokens.of(changes.getNome()));
+        }
+        if (changes.getEmail() != null) {
+            update.set("email", changes.getEmail()).set("emailNormalizado", changes.getEmailNormalizado());
+        }
+        if (changes.getDataNascimento() != null) {
+            update.set("dataNascimento", changes.getDataNascimento());
+        }
+        if (changes.getSecretaria() != null) {
+            update.set("secretaria", new DBRef("secretarias", toObjectId(changes.getSecretaria().getId())));
+        }
+        return versioned(update, changes.getUpdatedAt());
+    }
+    
+    static Update secretariaChanges(Secretaria changes) {
+        Update update = new Update();
+        if (changes.getNome() != null) {
+            update.set("nome", changes.getNome());
+        }
+        if (changes.getSigla() != null) {
+            update.set("sigla", changes.getSigla());
+        }
+        return versioned(update, changes.getUpdatedAt());
+    }
+    
+    /**
+     * Documents written before the version field existed. Spring Data takes a null version for a new
+     * entity, so they get version 0 before a whole-document save can try to insert them again.
+     */
+    static Query missingVersion() {
+        return Query.query(Criteria.where(VERSION_FIELD).exists(false));
+    }
+    
+    static Update initialVersion() {
+        return Update.update(VERSION_FIELD, 0L);
+    }
+    
+    private static Update versioned(Update update, LocalDateTime updatedAt) {
+        return update.set("updatedAt", updatedAt != null ? updatedAt : LocalDateTime.now()).inc(VERSION_FIELD, 1);
+    }
+    
+    static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
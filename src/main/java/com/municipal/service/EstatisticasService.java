@@ -0,0 +1,111 @@
+package com.municipal.service;
+
+import com.municipal.config.CacheConfig;
+import com.municipal.config.MetricsConfig;
+import com.municipal.dto.AgeStatistics;
+import com.municipal.dto.StatisticsReport;
+import com.municipal.model.Secretaria;
+import com.municipal.repository.AgeDistribution;
+import com.municipal.repository.ServidorRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Headcount and age distribution per secretaria for the HR dashboard. Computed by one aggregation
+ * and cached for {@code municipal.estatisticas.ttl}, so polling clients share one result.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class EstatisticasService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticasService.class);
+    
+    /** Lowest age of each bracket, from the 18-year minimum of {@code @IdadeValida} */
+    static final List<Integer> AGE_BRACKETS = List.of(18, 30, 40, 50, 60, 70);
+    
+    private final ServidorRepository servidorRepository;
+    private final SecretariaService secretariaService;
+    private final int nearRetirementAge;
+    
+    @Autowired
+    public EstatisticasService(ServidorRepository servidorRepository, SecretariaService secretariaService,
+                               @Value("${municipal.estatisticas.near-retirement-age:70}") int nearRetirementAge) {
+        this.servidorRepository = servidorRepository;
+        this.secretariaService = secretariaService;
+        this.nearRetirementAge = nearRetirementAge;
+    }
+    
+    /**
+     * Statistics of all servidores and of each secretaria, ages as of today
+     */
+    @Cacheable(CacheConfig.ESTATISTICAS)
+    public StatisticsReport getStatistics() {
+        logger.debug("Calculando estatísticas de idade dos servidores");
+        
+        LocalDate today = LocalDate.now();
+        List<AgeDistribution> distributions =
+                servidorRepository.ageDistribution(today, AGE_BRACKETS, nearRetirementAge);
+        
+        Set<String> secretariaIds = distributions.stream()
+                .skip(1)
+                .map(AgeDistribution::getSecretariaId)
+                .collect(Collectors.toSet());
+        Map<String, Secretaria> secretarias = secretariaService.findAllById(secretariaIds);
+        
+        List<AgeStatistics> bySecretaria = new ArrayList<>();
+        for (AgeDistribution distribution : distributions.subList(1, distributions.size())) {
+            Secretaria secretaria = secretarias.get(distribution.getSecretariaId());
+            bySecretaria.add(toStatistics(distribution, secretaria, today));
+        }
+        bySecretaria.sort(Comparator.comparing(AgeStatistics::getSigla, Comparator.nullsLast(Comparator.naturalOrder())));
+        
+        return new StatisticsReport(LocalDateTime.now(), nearRetirementAge,
+                toStatistics(distributions.get(0), null, today), bySecretaria);
+    }
+    
+    private static AgeStatistics toStatistics(AgeDistribution distribution, Secretaria secretaria, LocalDate today) {
+        boolean empty = distribution.getCount() == 0;
+        return new AgeStatistics(
+                distribution.getSecretariaId(),
+                secretaria != null ? secretaria.getSigla() : null,
+                secretaria != null ? secretaria.getNome() : null,
+                distribution.getCount(),
+                empty ? null : Period.between(distribution.getYoungestBirthDate(), today).getYears(),
+                empty ? null : Period.between(distribution.getOldestBirthDate(), today).getYears(),
+                empty ? null : Math.round(distribution.getAverageAge() * 10) / 10.0,
+                distribution.getNearRetirement(),
+                bracketLabels(distribution.getBrackets()));
+    }
+    
+    /**
+     * "&lt;18", "18-29", ..., "70+"
+     */
+    private static Map<String, Long> bracketLabels(Map<Integer, Long> brackets) {
+        Map<String, Long> labeled = new LinkedHashMap<>();
+        labeled.put("<" + AGE_BRACKETS.get(0), brackets.getOrDefault(0, 0L));
+        for (int i = 0; i < AGE_BRACKETS.size(); i++) {
+            int start = AGE_BRACKETS.get(i);
+            String label = i + 1 < AGE_BRACKETS.size() ? start + "-" + (AGE_BRACKETS.get(i + 1) - 1) : start + "+";
+            labeled.put(label, brackets.getOrDefault(start, 0L));
+        }
+        return labeled;
+    }
+}
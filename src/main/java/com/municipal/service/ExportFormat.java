@@ -0,0 +1,79 @@
+package com.municipal.service;
+
+import com.municipal.config.BinaryFormatsConfig;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Output formats supported by the servidor export
+ */
+public enum ExportFormat {
+    
+    NDJSON("application/x-ndjson", "ndjson", false),
+    CSV("text/csv", "csv", false),
+    /** Concatenated Smile values after a single header */
+    SMILE(BinaryFormatsConfig.APPLICATION_SMILE_VALUE, "sml", true),
+    /** CBOR sequence (RFC 8742): concatenated CBOR values */
+    CBOR("application/cbor", "cbor", true);
+    
+    private final String contentType;
+    private final String extension;
+    private final boolean binary;
+    
+    ExportFormat(String contentType, String extension, boolean binary) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.binary = binary;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    /**
+     * Content type of the response, with the UTF-8 charset for the text formats
+     */
+    public MediaType getMediaType() {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return binary ? mediaType : new MediaType(mediaType, StandardCharsets.UTF_8);
+    }
+    
+    public boolean isBinary() {
+        return binary;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    /**
+     * Resolve the export format: the {@code format} query parameter when given, otherwise the format the
+     * Accept header negotiates among the export types (NDJSON for none or a wildcard)
+     */
+    public static ExportFormat resolve(String format, List<MediaType> accepted) {
+        if (format != null && !format.isBlank()) {
+            return fromParameter(format);
+        }
+        List<MediaType> types = Arrays.stream(values()).map(value -> MediaType.parseMediaType(value.contentType))
+                .toList();
+        return values()[types.indexOf(BinaryFormatsConfig.negotiate(accepted, types))];
+    }
+    
+    /**
+     * Resolve the value of the {@code format} query parameter
+     */
+    public static ExportFormat fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + value + ". Valores aceitos: ndjson, csv, smile, cbor");
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.municipal.service;
+
+import com.municipal.config.CacheConfig;
+import com.municipal.dto.SecretariaHeadcount;
+import com.municipal.dto.SecretariaPatch;
+import com.municipal.exception.BusinessException;
+import com.municipal.exception.ResourceNotFoundException;
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.Secretaria;
+import com.municipal.repository.ChangeStamp;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ReactiveSecretariaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link SecretariaService}, with the same rules and messages. Lookups by id
+ * share the in-memory secretaria cache with the blocking side; writes clear the secretaria caches.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveSecretariaService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSecretariaService.class);
+    
+    private final ReactiveSecretariaRepository secretariaRepository;
+    private final CacheManager cacheManager;
+    
+    @Autowired
+    public ReactiveSecretariaService(ReactiveSecretariaRepository secretariaRepository,
+                                     CacheManager cacheManager) {
+        this.secretariaRepository = secretariaRepository;
+        this.cacheManager = cacheManager;
+    }
+    
+    /**
+     * Find one keyset page of secretarias with only the selected fields read
+     */
+    public Mono<KeysetPage<Secretaria>> findPage(KeysetPageRequest pageRequest, FieldSelection fields) {
+        logger.debug("Buscando página de secretarias: {} {}", pageRequest, fields);
+        return secretariaRepository.findPage(pageRequest, fields);
+    }
+    
+    /**
+     * Stream secretarias from the cursor position, as fast as the subscriber consumes them
+     */
+    public Flux<Secretaria> stream(KeysetPageRequest pageRequest, FieldSelection fields) {
+        logger.debug("Transmitindo secretarias: {} {}", pageRequest, fields);
+        return secretariaRepository.streamFrom(pageRequest, fields);
+    }
+    
+    /**
+     * See {@link SecretariaService#findChangeStamp()}
+     */
+    public Mono<ChangeStamp> findChangeStamp() {
+        return secretariaRepository.findChangeStamp();
+    }
+    
+    /**
+     * Find secretaria by ID (used internally)
+     */
+    public Mono<Secretaria> findById(String id) {
+        logger.debug("Buscando secretaria com ID: {}", id);
+        
+        Cache cache = cacheManager.getCache(CacheConfig.SECRETARIAS);
+        Secretaria cached = cache != null ? cache.get(id, Secretaria.class) : null;
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return secretariaRepository.findById(id)
+                .doOnNext(secretaria -> {
+                    if (cache != null) {
+                        cache.put(id, secretaria);
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Secretaria", "id", id)));
+    }
+    
+    /**
+     * Servidores per secretaria, read from the maintained counters
+     */
+    public Mono<List<SecretariaHeadcount>> findHeadcounts() {
+        logger.debug("Buscando quantidade de servidores por secretaria");
+        return secretariaRepository.findHeadcounts()
+                .map(secretaria -> new SecretariaHeadcount(secretaria.getId(), secretaria.getSigla(),
+                        secretaria.getNome(), secretaria.getServidorCount()))
+                .collectList();
+    }
+    
+    /**
+     * See {@link SecretariaService#adjustServidorCount(String, long)}
+     */
+    public Mono<Boolean> adjustServidorCount(String secretariaId, long delta) {
+        return secretariaRepository.incrementServidorCount(secretariaId, delta);
+    }
+    
+    /**
+     * Create new secretaria
+     */
+    public Mono<Secretaria> create(Secretaria secretaria) {
+        logger.debug("Criando nova secretaria: {}", secretaria);
+        
+        if (secretaria == null) {
+            return Mono.error(new BusinessException("Secretaria não pode ser nula"));
+        }
+        
+        // Always an insert: a version sent by the client would make the save an update
+        secretaria.setVersion(null);
+        
+        return secretariaRepository.existsBySiglaIgnoreCase(secretaria.getSigla())
+                .flatMap(exists -> exists
+                        ? Mono.error(new BusinessException("Já existe uma secretaria com a sigla: " + secretaria.getSigla()))
+                        : secretariaRepository.save(secretaria))
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao criar secretaria - sigla já existe: {}", secretaria.getSigla());
+                    return new BusinessException("Já existe uma secretaria com a sigla: " + secretaria.getSigla());
+                })
+                .doOnNext(savedSecretaria -> logger.info("Secretaria criada com sucesso - ID: {}, Sigla: {}",
+                        savedSecretaria.getId(), savedSecretaria.getSigla()))
+                .doFinally(signal -> evictCaches());
+    }
+    
+    /**
+     * Update existing secretaria
+     */
+    public Mono<Secretaria> update(String id, Secretaria secretaria) {
+        return update(id, secretaria, null);
+    }
+    
+    /**
+     * See {@link SecretariaService#update(String, Secretaria, Long)}
+     */
+    public Mono<Secretaria> update(String id, Secretaria secretaria, Long expectedVersion) {
+        logger.debug("Atualizando secretaria - ID: {}", id);
+        
+        if (secretaria == null) {
+            return Mono.error(new BusinessException("Secretaria não pode ser nula"));
+        }
+        
+        // Without an expected version, the version is read uncached: the update only applies while the
+        // secretaria still holds it
+        Mono<Secretaria> updated = expectedVersion != null
+                ? updateIfVersion(id, secretaria, expectedVersion)
+                : secretariaRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Secretaria", "id", id)))
+                        .flatMap(existing -> updateIfVersion(id, secretaria, existing.getVersion()));
+        return updated
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao atualizar secretaria - sigla já existe: {}", secretaria.getSigla());
+                    return new BusinessException("Já existe uma secretaria com a sigla: " + secretaria.getSigla());
+                })
+                .doOnNext(updatedSecretaria -> logger.info("Secretaria atualizada com sucesso - ID: {}, Sigla: {}",
+                        updatedSecretaria.getId(), updatedSecretaria.getSigla()))
+                .doFinally(signal -> evictCaches());
+    }
+    
+    /**
+     * Sigla check and conditional write of an update
+     */
+    private Mono<Secretaria> updateIfVersion(String id, Secretaria secretaria, Long version) {
+        return secretariaRepository.existsBySiglaIgnoreCaseAndIdNot(secretaria.getSigla(), id)
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.error(new BusinessException(
+                                "Já existe uma secretaria com a sigla: " + secretaria.getSigla()));
+                    }
+                    
+                    // $set of the edited fields only, see SecretariaService#update
+                    Secretaria changes = new Secretaria();
+                    changes.setNome(secretaria.getNome());
+                    changes.setSigla(secretaria.getSigla());
+                    changes.setUpdatedAt(LocalDateTime.now());
+                    return patchIfVersion(id, version, changes);
+                });
+    }
+    
+    /**
+     * Partially update a secretaria, see {@link SecretariaService#patch(String, SecretariaPatch)}
+     */
+    public Mono<Secretaria> patch(String id, SecretariaPatch patch) {
+        logger.debug("Atualizando parcialmente secretaria - ID: {}", id);
+        
+        Secretaria changes;
+        try {
+            changes = SecretariaService.changes(patch);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        
+        return patchIfVersion(id, patch.getVersion(), changes)
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao atualizar secretaria - sigla já existe: {}", changes.getSigla());
+                    return new BusinessException("Já existe uma secretaria com a sigla: " + changes.getSigla());
+                })
+                .doOnNext(updatedSecretaria -> logger.info("Secretaria atualizada parcialmente - ID: {}, Versão: {}",
+                        id, updatedSecretaria.getVersion()))
+                .doFinally(signal -> evictCaches());
+    }
+    
+    /**
+     * Conditional write of the changes, failing when the secretaria is gone or holds another version
+     */
+    private Mono<Secretaria> patchIfVersion(String id, Long version, Secretaria changes) {
+        return secretariaRepository.patchIfVersion(id, version, changes)
+                .switchIfEmpty(Mono.defer(() -> secretariaRepository.existsById(id)
+                        .flatMap(exists -> Mono.<Secretaria>error(exists
+                                ? new VersionConflictException("Secretaria", id, version)
+                                : new ResourceNotFoundException("Secretaria", "id", id)))));
+    }
+    
+    /**
+     * Delete secretaria by ID
+     */
+    public Mono<Void> delete(String id) {
+        logger.debug("Deletando secretaria - ID: {}", id);
+        
+        // Deleted only while its servidor count is zero, checked and removed in one findAndModify
+        return secretariaRepository.deleteIfNoServidores(id)
+                .doOnNext(secretaria -> logger.info("Secretaria deletada com sucesso - ID: {}, Sigla: {}",
+                                                   id, secretaria.getSigla()))
+                .switchIfEmpty(Mono.defer(() -> notDeleted(id)))
+                .then()
+                .doFinally(signal -> evictCaches());
+    }
+    
+    /**
+     * See {@link SecretariaService#delete(String)}: missing, or still has servidores
+     */
+    private Mono<Secretaria> notDeleted(String id) {
+        return secretariaRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Secretaria", "id", id)))
+                .flatMap(secretaria -> {
+                    logger.error("Tentativa de deletar secretaria com servidores vinculados - ID: {}, Servidores: {}",
+                                id, secretaria.getServidorCount());
+                    return Mono.error(new BusinessException(
+                        String.format("Não é possível excluir a secretaria '%s' pois possui %d servidor(es) vinculado(s)",
+                                     secretaria.getSigla(), secretaria.getServidorCount())));
+                });
+    }
+    
+    /**
+     * Same effect as the {@code @CacheEvict(allEntries = true)} on the blocking service writes
+     */
+    private void evictCaches() {
+        for (String name : new String[] {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                                         CacheConfig.SECRETARIA_PAGES}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
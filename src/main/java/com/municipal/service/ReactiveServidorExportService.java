@@ -0,0 +1,173 @@
+package com.municipal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Servidor;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ReactiveServidorRepository;
+import com.municipal.repository.ServidorFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reactive counterpart of {@link ServidorExportService}: the same NDJSON, CSV, Smile and CBOR output, produced
+ * as a stream of buffers that only reads further from the cursor when the client keeps up.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveServidorExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveServidorExportService.class);
+    
+    // Records encoded per buffer; also the unit compressed and flushed when gzip is on
+    private static final int CHUNK_SIZE = 256;
+    
+    private final ReactiveServidorRepository servidorRepository;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter smileWriter;
+    private final ObjectWriter cborWriter;
+    
+    @Autowired
+    public ReactiveServidorExportService(ReactiveServidorRepository servidorRepository, ObjectMapper objectMapper) {
+        this.servidorRepository = servidorRepository;
+        // Flushed once per chunk instead of after every record
+        this.jsonWriter = objectMapper.writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.smileWriter = BinaryFormatsConfig.smileMapper(objectMapper).writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cborWriter = BinaryFormatsConfig.cborMapper(objectMapper).writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Every servidor in the given format, optionally gzip-compressed
+     */
+    public Flux<DataBuffer> export(ExportFormat format, boolean gzip) {
+        logger.debug("Exportando servidores no formato {}", format);
+        
+        AtomicLong count = new AtomicLong();
+        Flux<List<Servidor>> chunks = servidorRepository.streamFrom(KeysetPageRequest.of(null, null, null),
+                        ServidorFilter.NONE, FieldSelection.ALL)
+                .doOnNext(servidor -> count.incrementAndGet())
+                .buffer(CHUNK_SIZE);
+        Flux<byte[]> records = format.isBinary()
+                ? encodeBinary(format == ExportFormat.SMILE ? smileWriter : cborWriter, chunks)
+                : chunks.map(chunk -> encode(format, chunk));
+        if (format == ExportFormat.CSV) {
+            records = Flux.concat(Mono.just((ServidorExportService.CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8)), records);
+        }
+        if (gzip) {
+            records = gzip(records);
+        }
+        
+        return records
+                .<DataBuffer>map(DefaultDataBufferFactory.sharedInstance::wrap)
+                .doOnComplete(() -> logger.info("Exportação de servidores concluída - Formato: {}, Registros: {}",
+                        format, count.get()));
+    }
+    
+    private byte[] encode(ExportFormat format, List<Servidor> chunk) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.size() * 256);
+        try {
+            for (Servidor servidor : chunk) {
+                if (format == ExportFormat.CSV) {
+                    out.write(ServidorExportService.csvRow(servidor).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(jsonWriter.writeValueAsBytes(servidor));
+                    out.write('\n');
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar servidor", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * One generator per subscription, so the Smile header is written once; every chunk is drained as it is encoded
+     */
+    private static Flux<byte[]> encodeBinary(ObjectWriter writer, Flux<List<Servidor>> chunks) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            SequenceWriter values;
+            try {
+                values = writer.writeValues(buffer);
+            } catch (IOException e) {
+                return Flux.error(new UncheckedIOException(e));
+            }
+            
+            return chunks
+                    .map(chunk -> {
+                        try {
+                            values.writeAll(chunk);
+                            values.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return drain(buffer);
+                    })
+                    .concatWith(Mono.fromCallable(() -> {
+                        values.close();
+                        return drain(buffer);
+                    }));
+        });
+    }
+    
+    /**
+     * One gzip member per subscription; every chunk is sync-flushed so compressed bytes go out as they are produced
+     */
+    private static Flux<byte[]> gzip(Flux<byte[]> chunks) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            GZIPOutputStream gzipOut;
+            try {
+                gzipOut = new GZIPOutputStream(buffer, true);
+            } catch (IOException e) {
+                return Flux.error(new UncheckedIOException(e));
+            }
+            
+            return chunks
+                    .map(chunk -> {
+                        try {
+                            gzipOut.write(chunk);
+                            gzipOut.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return drain(buffer);
+                    })
+                    .concatWith(Mono.fromCallable(() -> {
+                        gzipOut.finish();
+                        return drain(buffer);
+                    }));
+        });
+    }
+    
+    private static byte[] drain(ByteArrayOutputStream buffer) {
+        byte[] bytes = buffer.toByteArray();
+        buffer.reset();
+        return bytes;
+    }
+}
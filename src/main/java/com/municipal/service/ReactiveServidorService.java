@@ -0,0 +1,308 @@
+package com.municipal.service;
+
+import com.municipal.dto.BatchDeleteResult;
+import com.municipal.dto.BatchResult;
+import com.municipal.dto.ServidorPatch;
+import com.municipal.exception.BusinessException;
+import com.municipal.exception.ResourceNotFoundException;
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.Servidor;
+import com.municipal.repository.ChangeStamp;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ReactiveServidorRepository;
+import com.municipal.repository.ServidorFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reactive counterpart of {@link ServidorService}, with the same rules and messages.
+ * Batch create keeps using the blocking bulkWrite path, off the event loop.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveServidorService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveServidorService.class);
+    
+    private final ReactiveServidorRepository servidorRepository;
+    private final ReactiveSecretariaService secretariaService;
+    private final ServidorService blockingServidorService;
+    
+    @Autowired
+    public ReactiveServidorService(ReactiveServidorRepository servidorRepository,
+                                   ReactiveSecretariaService secretariaService,
+                                   ServidorService blockingServidorService) {
+        this.servidorRepository = servidorRepository;
+        this.secretariaService = secretariaService;
+        this.blockingServidorService = blockingServidorService;
+    }
+    
+    /**
+     * Find one keyset page of the servidores matching the filter, with only the selected fields read
+     */
+    public Mono<KeysetPage<Servidor>> findPage(KeysetPageRequest pageRequest, ServidorFilter filter,
+                                               FieldSelection fields) {
+        logger.debug("Buscando página de servidores: {} {} {}", pageRequest, filter, fields);
+        return servidorRepository.findPage(pageRequest, filter, fields);
+    }
+    
+    /**
+     * Stream the servidores matching the filter from the cursor position, as fast as the subscriber
+     * consumes them
+     */
+    public Flux<Servidor> stream(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields) {
+        logger.debug("Transmitindo servidores: {} {} {}", pageRequest, filter, fields);
+        return servidorRepository.streamFrom(pageRequest, filter, fields);
+    }
+    
+    /**
+     * Search servidores by name, with the same matching and ranking as {@link ServidorService#search}
+     */
+    public Mono<List<Servidor>> search(String query, Integer limit, FieldSelection fields) {
+        logger.debug("Pesquisando servidores por nome: {}", query);
+        
+        int resultLimit;
+        List<String> terms;
+        try {
+            resultLimit = ServidorService.searchLimit(limit);
+            terms = ServidorService.searchTerms(query);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        
+        return servidorRepository.searchByNomeTokens(terms, ServidorService.SEARCH_CANDIDATE_WINDOW, fields)
+                .sort(ServidorService.searchOrder(terms))
+                .take(resultLimit)
+                .collectList();
+    }
+    
+    /**
+     * Find servidor by ID (used internally)
+     */
+    public Mono<Servidor> findById(String id) {
+        logger.debug("Buscando servidor com ID: {}", id);
+        return servidorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Servidor", "id", id)));
+    }
+    
+    /**
+     * See {@link ServidorService#findById(String, FieldSelection)}
+     */
+    public Mono<Servidor> findById(String id, FieldSelection fields) {
+        logger.debug("Buscando servidor com ID: {} {}", id, fields);
+        return servidorRepository.findById(id, fields)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Servidor", "id", id)));
+    }
+    
+    /**
+     * See {@link ServidorService#findVersion(String)}
+     */
+    public Mono<Servidor> findVersion(String id) {
+        return servidorRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Servidor", "id", id)));
+    }
+    
+    /**
+     * See {@link ServidorService#findListStamps()}
+     */
+    public Mono<List<ChangeStamp>> findListStamps() {
+        return Mono.zip(servidorRepository.findChangeStamp(), secretariaService.findChangeStamp())
+                .map(stamps -> List.of(stamps.getT1(), stamps.getT2()));
+    }
+    
+    /**
+     * Create new servidor
+     */
+    public Mono<Servidor> create(Servidor servidor) {
+        logger.debug("Criando novo servidor: {}", servidor);
+        
+        return Mono.fromRunnable(() -> {
+                    ServidorRules.validate(servidor);
+                    // Always an insert: a version sent by the client would make the save an update
+                    servidor.setVersion(null);
+                })
+                // Validate and set secretaria
+                .then(Mono.defer(() -> secretariaService.findById(servidor.getSecretaria().getId())))
+                .flatMap(secretaria -> {
+                    servidor.setSecretaria(secretaria);
+                    // Counted before the insert and undone if it fails, see ServidorService#create
+                    return countServidor(secretaria.getId())
+                            .then(Mono.defer(() -> servidorRepository.save(servidor)))
+                            .onErrorResume(e -> secretariaService.adjustServidorCount(secretaria.getId(), -1)
+                                    .then(Mono.error(e)));
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao criar servidor - email já existe: {}", servidor.getEmail());
+                    return new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
+                })
+                .doOnNext(savedServidor -> logger.info("Servidor criado com sucesso - ID: {}, Email: {}",
+                        savedServidor.getId(), savedServidor.getEmail()));
+    }
+    
+    /**
+     * Create many servidores at once, see {@link ServidorService#createBatch}
+     */
+    public Mono<BatchResult> createBatch(List<Servidor> servidores) {
+        return Mono.fromCallable(() -> blockingServidorService.createBatch(servidores))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Update existing servidor
+     */
+    public Mono<Servidor> update(String id, Servidor servidor) {
+        return update(id, servidor, null);
+    }
+    
+    /**
+     * See {@link ServidorService#update(String, Servidor, Long)}
+     */
+    public Mono<Servidor> update(String id, Servidor servidor, Long expectedVersion) {
+        logger.debug("Atualizando servidor - ID: {}", id);
+        
+        return findById(id)
+                .flatMap(existingServidor -> {
+                    Long version = existingServidor.getVersion();
+                    if (expectedVersion != null && !expectedVersion.equals(version)) {
+                        logger.warn("Versão desatualizada do servidor - ID: {}, Versão: {}", id, expectedVersion);
+                        return Mono.error(new VersionConflictException("Servidor", id, expectedVersion));
+                    }
+                    ServidorRules.validate(servidor);
+                    
+                    // Validate and set secretaria if changed; a move is counted in the new secretaria first
+                    String secretariaId = servidor.getSecretaria().getId();
+                    String previousSecretariaId = existingServidor.getSecretaria().getId();
+                    boolean moved = !previousSecretariaId.equals(secretariaId);
+                    Mono<Servidor> withSecretaria = !moved
+                            ? Mono.just(existingServidor)
+                            : secretariaService.findById(secretariaId)
+                                    .flatMap(secretaria -> countServidor(secretaria.getId()).then(Mono.fromSupplier(() -> {
+                                        existingServidor.setSecretaria(secretaria);
+                                        return existingServidor;
+                                    })));
+                    
+                    return withSecretaria.flatMap(target -> {
+                        // Update fields
+                        target.setNome(servidor.getNome());
+                        target.setEmail(servidor.getEmail());
+                        target.setDataNascimento(servidor.getDataNascimento());
+                        target.setUpdatedAt(LocalDateTime.now());
+                        if (!moved) {
+                            return servidorRepository.save(target);
+                        }
+                        return servidorRepository.save(target)
+                                .onErrorResume(e -> secretariaService.adjustServidorCount(secretariaId, -1)
+                                        .then(Mono.error(e)))
+                                .flatMap(updated -> secretariaService.adjustServidorCount(previousSecretariaId, -1)
+                                        .thenReturn(updated));
+                    }).onErrorMap(OptimisticLockingFailureException.class, e -> {
+                        // The save only matches the version read above, see ServidorService#update
+                        logger.warn("Servidor alterado durante a atualização - ID: {}, Versão: {}", id, version);
+                        return new VersionConflictException("Servidor", id, version);
+                    });
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao atualizar servidor - email já existe: {}", servidor.getEmail());
+                    return new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
+                })
+                .doOnNext(updatedServidor -> logger.info("Servidor atualizado com sucesso - ID: {}, Email: {}",
+                        updatedServidor.getId(), updatedServidor.getEmail()));
+    }
+    
+    /**
+     * Partially update a servidor, see {@link ServidorService#patch(String, ServidorPatch)}
+     */
+    public Mono<Servidor> patch(String id, ServidorPatch patch) {
+        logger.debug("Atualizando parcialmente servidor - ID: {}", id);
+        
+        Servidor changes;
+        try {
+            changes = ServidorPatches.changes(patch);
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+        
+        Mono<Servidor> replaced = patch.getSecretariaId() == null
+                ? patchIfVersion(id, patch.getVersion(), changes)
+                : secretariaService.findById(patch.getSecretariaId())
+                        .flatMap(secretaria -> {
+                            changes.setSecretaria(secretaria);
+                            // Counted in the new secretaria first, uncounted from the previous one after the write
+                            return countServidor(secretaria.getId())
+                                    .then(patchIfVersion(id, patch.getVersion(), changes)
+                                            .onErrorResume(e -> secretariaService.adjustServidorCount(secretaria.getId(), -1)
+                                                    .then(Mono.error(e))))
+                                    .flatMap(previous -> (previous.getSecretaria() != null
+                                            ? secretariaService.adjustServidorCount(previous.getSecretaria().getId(), -1)
+                                            : Mono.just(false))
+                                            .thenReturn(previous));
+                        });
+        
+        return replaced
+                .map(previous -> ServidorPatches.apply(previous, changes))
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    logger.error("Erro ao atualizar servidor - email já existe: {}", patch.getEmail());
+                    return new BusinessException("Já existe um servidor com o email: " + patch.getEmail());
+                })
+                .doOnNext(updatedServidor -> logger.info("Servidor atualizado parcialmente - ID: {}, Versão: {}",
+                        id, updatedServidor.getVersion()));
+    }
+    
+    /**
+     * The conditional write; when it matches nothing, tells a missing servidor from another version
+     */
+    private Mono<Servidor> patchIfVersion(String id, Long version, Servidor changes) {
+        return Mono.defer(() -> servidorRepository.patchIfVersion(id, version, changes))
+                .switchIfEmpty(Mono.defer(() -> servidorRepository.existsById(id)
+                        .flatMap(exists -> Mono.<Servidor>error(exists
+                                ? new VersionConflictException("Servidor", id, version)
+                                : new ResourceNotFoundException("Servidor", "id", id)))));
+    }
+    
+    /**
+     * Delete servidor by ID
+     */
+    public Mono<Void> delete(String id) {
+        logger.debug("Deletando servidor - ID: {}", id);
+        
+        // Read and removed in one findAndModify, so a concurrent delete cannot turn this one into a no-op
+        return servidorRepository.findAndRemoveById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Servidor", "id", id)))
+                .flatMap(servidor -> (servidor.getSecretaria() != null
+                        ? secretariaService.adjustServidorCount(servidor.getSecretaria().getId(), -1).then()
+                        : Mono.<Void>empty())
+                        .doOnSuccess(done -> logger.info("Servidor deletado com sucesso - ID: {}, Email: {}",
+                                id, servidor.getEmail())));
+    }
+    
+    /**
+     * Delete many servidores by id, see {@link ServidorService#deleteBatch}
+     */
+    public Mono<BatchDeleteResult> deleteBatch(List<String> ids) {
+        return Mono.fromCallable(() -> blockingServidorService.deleteBatch(ids))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    /**
+     * Increment the servidor count of a secretaria, failing when it no longer exists
+     */
+    private Mono<Void> countServidor(String secretariaId) {
+        return secretariaService.adjustServidorCount(secretariaId, 1)
+                .flatMap(found -> found
+                        ? Mono.<Void>empty()
+                        : Mono.<Void>error(new ResourceNotFoundException("Secretaria", "id", secretariaId)));
+    }
+}
@@ -1,33 +1,48 @@
 package com.municipal.service;
 
+import com.municipal.config.CacheConfig;
+import com.municipal.config.CacheInvalidationEvent;
+import com.municipal.config.MetricsConfig;
+import com.municipal.dto.SecretariaHeadcount;
+import com.municipal.dto.SecretariaPatch;
 import com.municipal.exception.BusinessException;
 import com.municipal.exception.ResourceNotFoundException;
+import com.municipal.exception.VersionConflictException;
 import com.municipal.model.Secretaria;
+import com.municipal.repository.ChangeStamp;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
 import com.municipal.repository.SecretariaRepository;
-import com.municipal.repository.ServidorRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class SecretariaService {
     
     private static final Logger logger = LoggerFactory.getLogger(SecretariaService.class);
     
     private final SecretariaRepository secretariaRepository;
-    private final ServidorRepository servidorRepository;
     
     @Autowired
-    public SecretariaService(SecretariaRepository secretariaRepository, ServidorRepository servidorRepository) {
+    public SecretariaService(SecretariaRepository secretariaRepository) {
         this.secretariaRepository = secretariaRepository;
-        this.servidorRepository = servidorRepository;
     }
     
     /**
@@ -39,23 +54,89 @@ public class SecretariaService {
         return secretariaRepository.findAll();
     }
     
+    /**
+     * Find one keyset page of secretarias with only the selected fields read; cached per page and selection
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SECRETARIA_PAGES)
+    public KeysetPage<Secretaria> findPage(KeysetPageRequest pageRequest, FieldSelection fields) {
+        logger.debug("Buscando página de secretarias: {} {}", pageRequest, fields);
+        return secretariaRepository.findPage(pageRequest, fields);
+    }
+    
+    /**
+     * Change stamp of the secretarias, to validate conditional requests on listings
+     */
+    @Transactional(readOnly = true)
+    public ChangeStamp findChangeStamp() {
+        return secretariaRepository.findChangeStamp();
+    }
+    
     /**
      * Find secretaria by ID (used internally)
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SECRETARIAS, key = "#id")
     public Secretaria findById(String id) {
         logger.debug("Buscando secretaria com ID: {}", id);
         return secretariaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Secretaria", "id", id));
     }
     
+    /**
+     * Find secretarias by IDs with a single query, keyed by id; unknown ids are simply absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Secretaria> findAllById(Collection<String> ids) {
+        logger.debug("Buscando {} secretarias por ID", ids.size());
+        
+        Map<String, Secretaria> secretarias = new HashMap<>();
+        if (!ids.isEmpty()) {
+            secretariaRepository.findAllById(ids).forEach(secretaria -> secretarias.put(secretaria.getId(), secretaria));
+        }
+        return secretarias;
+    }
+    
+    /**
+     * Servidores per secretaria, read from the maintained counters (no count over servidores)
+     */
+    @Transactional(readOnly = true)
+    public List<SecretariaHeadcount> findHeadcounts() {
+        logger.debug("Buscando quantidade de servidores por secretaria");
+        return secretariaRepository.findHeadcounts().stream()
+                .map(secretaria -> new SecretariaHeadcount(secretaria.getId(), secretaria.getSigla(),
+                        secretaria.getNome(), secretaria.getServidorCount()))
+                .toList();
+    }
+    
+    /**
+     * Add delta to the servidor count of a secretaria; false when the secretaria does not exist.
+     * Servidor writes count a servidor before inserting it, so the delete guard never misses one.
+     */
+    public boolean adjustServidorCount(String secretariaId, long delta) {
+        return secretariaRepository.incrementServidorCount(secretariaId, delta);
+    }
+    
+    /**
+     * Apply servidor count deltas of several secretarias at once (batch writes)
+     */
+    public void adjustServidorCounts(Map<String, Long> deltas) {
+        if (!deltas.isEmpty()) {
+            secretariaRepository.incrementServidorCounts(deltas);
+        }
+    }
+    
     /**
      * Create new secretaria
      */
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
     public Secretaria create(Secretaria secretaria) {
         logger.debug("Criando nova secretaria: {}", secretaria);
         
         validateSecretariaForCreate(secretaria);
+        // Always an insert: a version sent by the client would make the save an update
+        secretaria.setVersion(null);
         
         try {
             Secretaria savedSecretaria = secretariaRepository.save(secretaria);
@@ -71,19 +152,33 @@ public class SecretariaService {
     /**
      * Update existing secretaria
      */
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
     public Secretaria update(String id, Secretaria secretaria) {
+        return update(id, secretaria, null);
+    }
+    
+    /**
+     * Update existing secretaria only if it holds {@code expectedVersion}; when null, the version it holds now
+     */
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
+    public Secretaria update(String id, Secretaria secretaria, Long expectedVersion) {
         logger.debug("Atualizando secretaria - ID: {}", id);
         
-        Secretaria existingSecretaria = findById(id);
+        Long version = expectedVersion != null ? expectedVersion : findById(id).getVersion();
         validateSecretariaForUpdate(id, secretaria);
         
-        // Update fields
-        existingSecretaria.setNome(secretaria.getNome());
-        existingSecretaria.setSigla(secretaria.getSigla());
-        existingSecretaria.setUpdatedAt(LocalDateTime.now());
+        Secretaria changes = new Secretaria();
+        changes.setNome(secretaria.getNome());
+        changes.setSigla(secretaria.getSigla());
+        changes.setUpdatedAt(LocalDateTime.now());
         
         try {
-            Secretaria updatedSecretaria = secretariaRepository.save(existingSecretaria);
+            // $set of the edited fields (a whole-document save would overwrite concurrent servidor count changes),
+            // only while the secretaria still holds the version read above
+            Secretaria updatedSecretaria = secretariaRepository.patchIfVersion(id, version, changes)
+                    .orElseThrow(() -> notFoundOrConflict(id, version));
             logger.info("Secretaria atualizada com sucesso - ID: {}, Sigla: {}", 
                        updatedSecretaria.getId(), updatedSecretaria.getSigla());
             return updatedSecretaria;
@@ -93,28 +188,100 @@ public class SecretariaService {
         }
     }
     
+    /**
+     * Partially update a secretaria with one conditional findAndModify, applied only while it holds the
+     * version the client read. Siglas are stored upper-case, so the unique sigla index alone rejects
+     * duplicates ignoring case, without the existence query of {@link #update}.
+     */
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
+    public Secretaria patch(String id, SecretariaPatch patch) {
+        logger.debug("Atualizando parcialmente secretaria - ID: {}", id);
+        
+        Secretaria changes = changes(patch);
+        try {
+            Secretaria updatedSecretaria = secretariaRepository.patchIfVersion(id, patch.getVersion(), changes)
+                    .orElseThrow(() -> notFoundOrConflict(id, patch.getVersion()));
+            logger.info("Secretaria atualizada parcialmente - ID: {}, Versão: {}",
+                       id, updatedSecretaria.getVersion());
+            return updatedSecretaria;
+        } catch (DuplicateKeyException e) {
+            logger.error("Erro ao atualizar secretaria - sigla já existe: {}", changes.getSigla());
+            throw new BusinessException("Já existe uma secretaria com a sigla: " + changes.getSigla());
+        }
+    }
+    
+    /**
+     * The fields to write, as a secretaria whose null fields stay untouched
+     */
+    static Secretaria changes(SecretariaPatch patch) {
+        if (patch == null || patch.getVersion() == null) {
+            throw new BusinessException("Versão é obrigatória");
+        }
+        if (!patch.hasChanges()) {
+            throw new BusinessException("Informe ao menos um campo para atualizar");
+        }
+        
+        Secretaria changes = new Secretaria();
+        changes.setNome(patch.getNome());
+        changes.setSigla(patch.getSigla());
+        changes.setUpdatedAt(LocalDateTime.now());
+        return changes;
+    }
+    
+    /**
+     * A conditional write matched nothing: the secretaria is gone, or holds another version
+     */
+    private RuntimeException notFoundOrConflict(String id, Long version) {
+        if (!secretariaRepository.existsById(id)) {
+            return new ResourceNotFoundException("Secretaria", "id", id);
+        }
+        logger.warn("Versão desatualizada da secretaria - ID: {}, Versão: {}", id, version);
+        return new VersionConflictException("Secretaria", id, version);
+    }
+    
+    /**
+     * Evict the secretaria caches when a secretaria changed, on this instance or another one
+     * (published by {@code ChangeStreamCacheInvalidator})
+     */
+    @EventListener(condition = "#event.collection == 'secretarias'")
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
+    public void onSecretariaChanged(CacheInvalidationEvent event) {
+        logger.debug("Caches de secretarias invalidados - Operação: {}, ID: {}",
+                    event.getOperationType(), event.getDocumentId());
+    }
+    
     /**
      * Delete secretaria by ID
      */
+    @CacheEvict(cacheNames = {CacheConfig.SECRETARIAS, CacheConfig.SECRETARIAS_BY_SIGLA,
+                              CacheConfig.SECRETARIA_PAGES}, allEntries = true)
     public void delete(String id) {
         logger.debug("Deletando secretaria - ID: {}", id);
         
-        Secretaria secretaria = findById(id);
+        // Deleted only while its servidor count is zero, checked and removed in one findAndModify
+        Secretaria secretaria = secretariaRepository.deleteIfNoServidores(id)
+                .orElseThrow(() -> notDeleted(id));
         
-        // Check if secretaria has servidores
-        long servidorCount = servidorRepository.countBySecretaria(secretaria);
-        if (servidorCount > 0) {
-            logger.error("Tentativa de deletar secretaria com servidores vinculados - ID: {}, Servidores: {}", 
-                        id, servidorCount);
-            throw new BusinessException(
-                String.format("Não é possível excluir a secretaria '%s' pois possui %d servidor(es) vinculado(s)", 
-                             secretaria.getSigla(), servidorCount));
-        }
-        
-        secretariaRepository.deleteById(id);
         logger.info("Secretaria deletada com sucesso - ID: {}, Sigla: {}", id, secretaria.getSigla());
     }
     
+    /**
+     * Why a guarded delete matched nothing, read only on that path: missing, or still has servidores
+     */
+    private RuntimeException notDeleted(String id) {
+        Secretaria secretaria = secretariaRepository.findById(id).orElse(null);
+        if (secretaria == null) {
+            return new ResourceNotFoundException("Secretaria", "id", id);
+        }
+        logger.error("Tentativa de deletar secretaria com servidores vinculados - ID: {}, Servidores: {}", 
+                    id, secretaria.getServidorCount());
+        return new BusinessException(
+            String.format("Não é possível excluir a secretaria '%s' pois possui %d servidor(es) vinculado(s)", 
+                         secretaria.getSigla(), secretaria.getServidorCount()));
+    }
+    
     /**
      * Validate secretaria for creation
      */
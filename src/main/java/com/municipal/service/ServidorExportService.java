@@ -0,0 +1,149 @@
+package com.municipal.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.ServidorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the servidores collection straight from a Mongo cursor to an output stream,
+ * one record at a time, so memory use does not grow with the collection size.
+ */
+@Service
+public class ServidorExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServidorExportService.class);
+    
+    static final String CSV_HEADER =
+            "id,nome,email,dataNascimento,secretariaId,secretariaSigla,createdAt,updatedAt";
+    
+    private final ServidorRepository servidorRepository;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter smileWriter;
+    private final ObjectWriter cborWriter;
+    
+    @Autowired
+    public ServidorExportService(ServidorRepository servidorRepository, ObjectMapper objectMapper) {
+        this.servidorRepository = servidorRepository;
+        // Flushed once at the end instead of after every record, as writeCsv does
+        this.jsonWriter = objectMapper.writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.smileWriter = BinaryFormatsConfig.smileMapper(objectMapper).writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.cborWriter = BinaryFormatsConfig.cborMapper(objectMapper).writerFor(Servidor.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Write every servidor to the output in the given format; returns the number of records written
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        logger.debug("Exportando servidores no formato {}", format);
+        
+        long count;
+        try (Stream<Servidor> servidores = servidorRepository.streamAll()) {
+            count = switch (format) {
+                case CSV -> writeCsv(servidores.iterator(), out);
+                case SMILE -> writeValues(smileWriter, servidores.iterator(), out, false);
+                case CBOR -> writeValues(cborWriter, servidores.iterator(), out, false);
+                case NDJSON -> writeValues(jsonWriter, servidores.iterator(), out, true);
+            };
+        }
+        
+        logger.info("Exportação de servidores concluída - Formato: {}, Registros: {}", format, count);
+        return count;
+    }
+    
+    /**
+     * One root value per servidor through a single generator (the Smile header is written once),
+     * newline-separated for NDJSON and concatenated for the binary formats
+     */
+    private long writeValues(ObjectWriter writer, Iterator<Servidor> servidores, OutputStream out,
+                             boolean newlines) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (newlines) {
+                // Binary generators have no root value separator to turn off
+                generator.setRootValueSeparator(null);
+            }
+            while (servidores.hasNext()) {
+                writer.writeValue(generator, servidores.next());
+                if (newlines) {
+                    generator.writeRaw('\n');
+                }
+                count++;
+            }
+            generator.flush();
+        }
+        return count;
+    }
+    
+    private long writeCsv(Iterator<Servidor> servidores, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (servidores.hasNext()) {
+            writeCsvRow(writer, servidores.next());
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+    
+    private void writeCsvRow(Writer writer, Servidor servidor) throws IOException {
+        writer.write(csvRow(servidor));
+    }
+    
+    /**
+     * One CSV record, including the trailing line break
+     */
+    static String csvRow(Servidor servidor) {
+        Secretaria secretaria = servidor.getSecretaria();
+        StringBuilder row = new StringBuilder(128);
+        appendCsvField(row, servidor.getId(), false);
+        appendCsvField(row, servidor.getNome(), false);
+        appendCsvField(row, servidor.getEmail(), false);
+        appendCsvField(row, servidor.getDataNascimento(), false);
+        appendCsvField(row, secretaria != null ? secretaria.getId() : null, false);
+        appendCsvField(row, secretaria != null ? secretaria.getSigla() : null, false);
+        appendCsvField(row, servidor.getCreatedAt(), false);
+        appendCsvField(row, servidor.getUpdatedAt(), true);
+        return row.toString();
+    }
+    
+    /**
+     * RFC 4180 quoting: fields with separators, quotes or line breaks are wrapped and quotes doubled
+     */
+    private static void appendCsvField(StringBuilder row, Object value, boolean last) {
+        if (value != null) {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                row.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                row.append(text);
+            }
+        }
+        row.append(last ? '\n' : ',');
+    }
+}
@@ -0,0 +1,65 @@
+package com.municipal.service;
+
+import com.municipal.dto.ServidorPatch;
+import com.municipal.exception.BusinessException;
+import com.municipal.model.Servidor;
+
+import java.time.LocalDateTime;
+
+/**
+ * PATCH of a servidor shared by the blocking and reactive services. The repository writes the changes
+ * with one conditional findAndModify and returns the document it replaced; since that document held
+ * exactly the version the client sent, applying the same changes to it gives the stored result.
+ */
+final class ServidorPatches {
+    
+    private ServidorPatches() {
+    }
+    
+    /**
+     * The fields to write, as a servidor whose null fields stay untouched (the secretaria is set by the
+     * caller once resolved)
+     */
+    static Servidor changes(ServidorPatch patch) {
+        if (patch == null || patch.getVersion() == null) {
+            throw new BusinessException("Versão é obrigatória");
+        }
+        if (!patch.hasChanges()) {
+            throw new BusinessException("Informe ao menos um campo para atualizar");
+        }
+        
+        Servidor changes = new Servidor();
+        if (patch.getNome() != null) {
+            changes.setNome(patch.getNome());
+        }
+        if (patch.getEmail() != null) {
+            changes.setEmail(patch.getEmail());
+        }
+        if (patch.getDataNascimento() != null) {
+            changes.setDataNascimento(patch.getDataNascimento());
+        }
+        changes.setUpdatedAt(LocalDateTime.now());
+        return changes;
+    }
+    
+    /**
+     * The servidor as stored after the patch, from the document it replaced
+     */
+    static Servidor apply(Servidor previous, Servidor changes) {
+        if (changes.getNome() != null) {
+            previous.setNome(changes.getNome());
+        }
+        if (changes.getEmail() != null) {
+            previous.setEmail(changes.getEmail());
+        }
+        if (changes.getDataNascimento() != null) {
+            previous.setDataNascimento(changes.getDataNascimento());
+        }
+        if (changes.getSecretaria() != null) {
+            previous.setSecretaria(changes.getSecretaria());
+        }
+        previous.setUpdatedAt(changes.getUpdatedAt());
+        previous.setVersion(previous.getVersion() + 1);
+        return previous;
+    }
+}
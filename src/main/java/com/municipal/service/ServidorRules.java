@@ -0,0 +1,34 @@
+package com.municipal.service;
+
+import com.municipal.exception.BusinessException;
+import com.municipal.model.Servidor;
+
+/**
+ * Business rules of a servidor shared by the blocking and reactive services
+ */
+final class ServidorRules {
+    
+    private ServidorRules() {
+    }
+    
+    /**
+     * Validate the business rules shared by create, update and batch create
+     */
+    static void validate(Servidor servidor) {
+        if (servidor == null) {
+            throw new BusinessException("Servidor não pode ser nulo");
+        }
+        
+        // Validate age
+        if (!servidor.isIdadeValida()) {
+            throw new BusinessException(
+                String.format("Idade inválida: %d anos. Deve estar entre 18 e 75 anos", 
+                             servidor.getIdade()));
+        }
+        
+        // Validate secretaria
+        if (servidor.getSecretaria() == null || servidor.getSecretaria().getId() == null) {
+            throw new BusinessException("Secretaria é obrigatória");
+        }
+    }
+}
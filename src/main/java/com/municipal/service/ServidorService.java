@@ -1,33 +1,82 @@
 package com.municipal.service;
 
+import com.municipal.config.MetricsConfig;
+import com.municipal.dto.BatchDeleteResult;
+import com.municipal.dto.BatchItemResult;
+import com.municipal.dto.BatchResult;
+import com.municipal.dto.ServidorPatch;
 import com.municipal.exception.BusinessException;
 import com.municipal.exception.ResourceNotFoundException;
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.NomeTokens;
 import com.municipal.model.Secretaria;
 import com.municipal.model.Servidor;
+import com.municipal.repository.BulkInsertFailure;
+import com.municipal.repository.ChangeStamp;
+import com.municipal.repository.FieldSelection;
+import com.municipal.repository.KeysetPage;
+import com.municipal.repository.KeysetPageRequest;
+import com.municipal.repository.ServidorFilter;
 import com.municipal.repository.ServidorRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ServidorService {
     
     private static final Logger logger = LoggerFactory.getLogger(ServidorService.class);
     
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    
+    // Index-ordered candidates ranked in memory; bounds the work of very common prefixes
+    static final int SEARCH_CANDIDATE_WINDOW = 500;
+    
     private final ServidorRepository servidorRepository;
     private final SecretariaService secretariaService;
+    private final Validator validator;
+    private final Executor taskExecutor;
     
+    /**
+     * The task executor runs independent lookups concurrently; it uses virtual threads when
+     * {@code spring.threads.virtual.enabled} is on
+     */
     @Autowired
-    public ServidorService(ServidorRepository servidorRepository, SecretariaService secretariaService) {
+    public ServidorService(ServidorRepository servidorRepository, SecretariaService secretariaService,
+                           Validator validator,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
         this.servidorRepository = servidorRepository;
         this.secretariaService = secretariaService;
+        this.validator = validator;
+        this.taskExecutor = taskExecutor;
     }
     
     /**
@@ -39,6 +88,81 @@ public class ServidorService {
         return servidorRepository.findAll();
     }
     
+    /**
+     * Find one keyset page of the servidores matching the filter, with only the selected fields read
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Servidor> findPage(KeysetPageRequest pageRequest, ServidorFilter filter, FieldSelection fields) {
+        logger.debug("Buscando página de servidores: {} {} {}", pageRequest, filter, fields);
+        return servidorRepository.findPage(pageRequest, filter, fields);
+    }
+    
+    /**
+     * Search servidores by name: every word of the query must prefix a word of the name, ignoring
+     * case and accents. Candidates come from the nomeTokens index; the best matches are ranked first.
+     */
+    @Transactional(readOnly = true)
+    public List<Servidor> search(String query, Integer limit, FieldSelection fields) {
+        logger.debug("Pesquisando servidores por nome: {}", query);
+        
+        int resultLimit = searchLimit(limit);
+        List<String> terms = searchTerms(query);
+        
+        List<Servidor> candidates = servidorRepository.searchByNomeTokens(terms, SEARCH_CANDIDATE_WINDOW, fields);
+        return candidates.stream()
+                .sorted(searchOrder(terms))
+                .limit(resultLimit)
+                .toList();
+    }
+    
+    /**
+     * Validate the requested number of search results
+     */
+    static int searchLimit(Integer limit) {
+        int resultLimit = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+        if (resultLimit < 1 || resultLimit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException(
+                String.format("limit deve estar entre 1 e %d", MAX_SEARCH_LIMIT));
+        }
+        return resultLimit;
+    }
+    
+    /**
+     * Accent-folded search terms; at least one is required
+     */
+    static List<String> searchTerms(String query) {
+        List<String> terms = NomeTokens.terms(query);
+        if (terms.isEmpty()) {
+            throw new BusinessException(
+                String.format("Informe ao menos um termo com %d ou mais caracteres", NomeTokens.MIN_LENGTH));
+        }
+        return terms;
+    }
+    
+    /**
+     * Best score first, then shorter names, then alphabetical
+     */
+    static Comparator<Servidor> searchOrder(List<String> terms) {
+        return Comparator.comparingInt((Servidor servidor) -> -searchScore(servidor, terms))
+                .thenComparingInt(servidor -> servidor.getNome().length())
+                .thenComparing(Servidor::getNome);
+    }
+    
+    /**
+     * Whole-word matches weigh more than prefix matches, and a match on the first word earns a bonus
+     */
+    private static int searchScore(Servidor servidor, List<String> terms) {
+        List<String> words = NomeTokens.words(servidor.getNome());
+        int score = 0;
+        for (String term : terms) {
+            score += words.contains(term) ? 3 : 1;
+        }
+        if (!words.isEmpty() && words.get(0).startsWith(terms.get(0))) {
+            score += 2;
+        }
+        return score;
+    }
+    
     /**
      * Find servidor by ID (used internally)
      */
@@ -49,6 +173,33 @@ public class ServidorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Servidor", "id", id));
     }
     
+    /**
+     * Find servidor by ID reading only the selected fields
+     */
+    @Transactional(readOnly = true)
+    public Servidor findById(String id, FieldSelection fields) {
+        logger.debug("Buscando servidor com ID: {} {}", id, fields);
+        return servidorRepository.findById(id, fields)
+                .orElseThrow(() -> new ResourceNotFoundException("Servidor", "id", id));
+    }
+    
+    /**
+     * Find servidor by ID with only its version, updatedAt and the secretaria, to validate conditional requests
+     */
+    @Transactional(readOnly = true)
+    public Servidor findVersion(String id) {
+        return servidorRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Servidor", "id", id));
+    }
+    
+    /**
+     * Change stamps of what a servidor listing shows: the servidores, then the secretarias embedded in them
+     */
+    @Transactional(readOnly = true)
+    public List<ChangeStamp> findListStamps() {
+        return List.of(servidorRepository.findChangeStamp(), secretariaService.findChangeStamp());
+    }
+    
     /**
      * Create new servidor
      */
@@ -56,19 +207,184 @@ public class ServidorService {
         logger.debug("Criando novo servidor: {}", servidor);
         
         validateServidorForCreate(servidor);
+        // Always an insert: a version sent by the client would make the save an update
+        servidor.setVersion(null);
         
         // Validate and set secretaria
         Secretaria secretaria = secretariaService.findById(servidor.getSecretaria().getId());
         servidor.setSecretaria(secretaria);
         
+        // Counted before the insert, so a concurrent secretaria delete sees it; undone if the insert fails
+        countServidor(secretaria.getId());
+        boolean saved = false;
         try {
             Servidor savedServidor = servidorRepository.save(servidor);
+            saved = true;
             logger.info("Servidor criado com sucesso - ID: {}, Email: {}", 
                        savedServidor.getId(), savedServidor.getEmail());
             return savedServidor;
         } catch (DuplicateKeyException e) {
             logger.error("Erro ao criar servidor - email já existe: {}", servidor.getEmail());
             throw new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
+        } finally {
+            if (!saved) {
+                secretariaService.adjustServidorCount(secretaria.getId(), -1);
+            }
+        }
+    }
+    
+    /**
+     * Increment the servidor count of a secretaria, failing when it no longer exists
+     */
+    private void countServidor(String secretariaId) {
+        if (!secretariaService.adjustServidorCount(secretariaId, 1)) {
+            throw new ResourceNotFoundException("Secretaria", "id", secretariaId);
+        }
+    }
+    
+    /**
+     * Create many servidores at once. Every item is validated in memory, secretarias and email
+     * uniqueness are checked with one query each, and the valid items are inserted with one
+     * unordered bulkWrite. Failures are reported per item instead of failing the whole batch.
+     */
+    public BatchResult createBatch(List<Servidor> servidores) {
+        logger.debug("Criando lote de servidores: {} itens", servidores != null ? servidores.size() : 0);
+        
+        if (servidores == null || servidores.isEmpty()) {
+            throw new BusinessException("O lote de servidores não pode ser vazio");
+        }
+        if (servidores.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(
+                String.format("O lote excede o limite de %d servidores", MAX_BATCH_SIZE));
+        }
+        
+        BatchItemResult[] results = new BatchItemResult[servidores.size()];
+        
+        // Bean validation and business rules, in memory
+        for (int i = 0; i < servidores.size(); i++) {
+            String error = validateBatchItem(servidores.get(i));
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, BatchItemResult.Status.INVALID, error);
+            }
+        }
+        
+        // All referenced secretarias and all existing emails, one query each, run concurrently
+        Set<String> secretariaIds = new LinkedHashSet<>();
+        Set<String> emails = new LinkedHashSet<>();
+        for (int i = 0; i < servidores.size(); i++) {
+            if (results[i] == null) {
+                secretariaIds.add(servidores.get(i).getSecretaria().getId());
+                emails.add(servidores.get(i).getEmail());
+            }
+        }
+        CompletableFuture<Map<String, Secretaria>> secretariasLookup =
+                CompletableFuture.supplyAsync(() -> secretariaService.findAllById(secretariaIds), taskExecutor);
+        Set<String> existingEmails = servidorRepository.findExistingEmails(emails);
+        Map<String, Secretaria> secretarias = await(secretariasLookup);
+        
+        // Email uniqueness, within the batch and against the database
+        Set<String> batchEmails = new HashSet<>();
+        
+        List<Servidor> toInsert = new ArrayList<>();
+        List<Integer> insertPositions = new ArrayList<>();
+        for (int i = 0; i < servidores.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Servidor servidor = servidores.get(i);
+            String secretariaId = servidor.getSecretaria().getId();
+            String email = Servidor.normalizeEmail(servidor.getEmail());
+            
+            Secretaria secretaria = secretarias.get(secretariaId);
+            if (secretaria == null) {
+                results[i] = BatchItemResult.failed(i, BatchItemResult.Status.INVALID,
+                        new ResourceNotFoundException("Secretaria", "id", secretariaId).getMessage());
+            } else if (existingEmails.contains(email) || !batchEmails.add(email)) {
+                results[i] = BatchItemResult.failed(i, BatchItemResult.Status.DUPLICATE,
+                        "Já existe um servidor com o email: " + servidor.getEmail());
+            } else {
+                servidor.setId(new ObjectId().toHexString());
+                // bulkWrite inserts do not initialize the version as save does
+                servidor.setVersion(0L);
+                servidor.setSecretaria(secretaria);
+                toInsert.add(servidor);
+                insertPositions.add(i);
+            }
+        }
+        
+        // Secretaria counts go up before the insert and are taken back for the rejected items
+        secretariaService.adjustServidorCounts(countBySecretaria(toInsert, 1));
+        
+        // One unordered bulkWrite; whatever the database still rejects is reported per item
+        List<BulkInsertFailure> failures = null;
+        try {
+            failures = servidorRepository.insertAllUnordered(toInsert);
+        } finally {
+            if (failures == null) {
+                uncountUninserted(toInsert);
+            }
+        }
+        List<Servidor> rejected = new ArrayList<>();
+        for (BulkInsertFailure failure : failures) {
+            int position = insertPositions.get(failure.getIndex());
+            Servidor servidor = servidores.get(position);
+            rejected.add(toInsert.get(failure.getIndex()));
+            results[position] = failure.isDuplicateKey()
+                    ? BatchItemResult.failed(position, BatchItemResult.Status.DUPLICATE,
+                            "Já existe um servidor com o email: " + servidor.getEmail())
+                    : BatchItemResult.failed(position, BatchItemResult.Status.ERROR, failure.getMessage());
+        }
+        for (int k = 0; k < toInsert.size(); k++) {
+            int position = insertPositions.get(k);
+            if (results[position] == null) {
+                results[position] = BatchItemResult.created(position, toInsert.get(k).getId());
+            }
+        }
+        secretariaService.adjustServidorCounts(countBySecretaria(rejected, -1));
+        
+        BatchResult batchResult = new BatchResult(List.of(results));
+        logger.info("Lote de servidores processado - Total: {}, Criados: {}, Falhas: {}",
+                   batchResult.getTotal(), batchResult.getCreated(), batchResult.getFailed());
+        return batchResult;
+    }
+    
+    /**
+     * The bulkWrite failed without telling which items it inserted (timeout, lost connection): take back the
+     * count of those not found by id. If that lookup fails too, the counts are left to the reconciler.
+     */
+    private void uncountUninserted(List<Servidor> toInsert) {
+        try {
+            Set<String> inserted = servidorRepository.findSecretariaIds(
+                    toInsert.stream().map(Servidor::getId).toList()).keySet();
+            List<Servidor> uninserted = toInsert.stream()
+                    .filter(servidor -> !inserted.contains(servidor.getId()))
+                    .toList();
+            secretariaService.adjustServidorCounts(countBySecretaria(uninserted, -1));
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível corrigir a contagem de servidores após falha no lote: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Servidor count delta per secretaria id for the given servidores
+     */
+    private static Map<String, Long> countBySecretaria(List<Servidor> servidores, long delta) {
+        return servidores.stream()
+                .collect(Collectors.groupingBy(servidor -> servidor.getSecretaria().getId(),
+                        Collectors.summingLong(servidor -> delta)));
+    }
+    
+    /**
+     * Wait for a fan-out lookup, rethrowing its own exception rather than a CompletionException
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
     
@@ -76,14 +392,30 @@ public class ServidorService {
      * Update existing servidor
      */
     public Servidor update(String id, Servidor servidor) {
+        return update(id, servidor, null);
+    }
+    
+    /**
+     * Update existing servidor only if it holds {@code expectedVersion} (any version when null): the
+     * version-checked save cannot apply over a write made after that version
+     */
+    public Servidor update(String id, Servidor servidor, Long expectedVersion) {
         logger.debug("Atualizando servidor - ID: {}", id);
         
         Servidor existingServidor = findById(id);
-        validateServidorForUpdate(id, servidor);
+        Long version = existingServidor.getVersion();
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            logger.warn("Versão desatualizada do servidor - ID: {}, Versão: {}", id, expectedVersion);
+            throw new VersionConflictException("Servidor", id, expectedVersion);
+        }
+        validateServidorForUpdate(servidor);
         
-        // Validate and set secretaria if changed
-        if (!existingServidor.getSecretaria().getId().equals(servidor.getSecretaria().getId())) {
+        // Validate and set secretaria if changed; a move is counted in the new secretaria first
+        String previousSecretariaId = existingServidor.getSecretaria().getId();
+        boolean moved = !previousSecretariaId.equals(servidor.getSecretaria().getId());
+        if (moved) {
             Secretaria secretaria = secretariaService.findById(servidor.getSecretaria().getId());
+            countServidor(secretaria.getId());
             existingServidor.setSecretaria(secretaria);
         }
         
@@ -93,15 +425,73 @@ public class ServidorService {
         existingServidor.setDataNascimento(servidor.getDataNascimento());
         existingServidor.setUpdatedAt(LocalDateTime.now());
         
+        boolean saved = false;
         try {
             Servidor updatedServidor = servidorRepository.save(existingServidor);
+            saved = true;
             logger.info("Servidor atualizado com sucesso - ID: {}, Email: {}", 
                        updatedServidor.getId(), updatedServidor.getEmail());
             return updatedServidor;
         } catch (DuplicateKeyException e) {
             logger.error("Erro ao atualizar servidor - email já existe: {}", servidor.getEmail());
             throw new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
+        } catch (OptimisticLockingFailureException e) {
+            // The save only matches the version read above; someone else wrote in between
+            logger.warn("Servidor alterado durante a atualização - ID: {}, Versão: {}", id, version);
+            throw new VersionConflictException("Servidor", id, version);
+        } finally {
+            if (moved) {
+                secretariaService.adjustServidorCount(
+                        saved ? previousSecretariaId : existingServidor.getSecretaria().getId(), -1);
+            }
+        }
+    }
+    
+    /**
+     * Partially update a servidor with one conditional findAndModify, applied only while it holds the
+     * version the client read. A new secretaria is counted first and the previous one uncounted after
+     * the write, as in {@link #update}.
+     */
+    public Servidor patch(String id, ServidorPatch patch) {
+        logger.debug("Atualizando parcialmente servidor - ID: {}", id);
+        
+        Servidor changes = ServidorPatches.changes(patch);
+        Secretaria secretaria = null;
+        if (patch.getSecretariaId() != null) {
+            secretaria = secretariaService.findById(patch.getSecretariaId());
+            countServidor(secretaria.getId());
+            changes.setSecretaria(secretaria);
+        }
+        
+        Servidor previous = null;
+        try {
+            previous = servidorRepository.patchIfVersion(id, patch.getVersion(), changes)
+                    .orElseThrow(() -> notFoundOrConflict(id, patch.getVersion()));
+        } catch (DuplicateKeyException e) {
+            logger.error("Erro ao atualizar servidor - email já existe: {}", patch.getEmail());
+            throw new BusinessException("Já existe um servidor com o email: " + patch.getEmail());
+        } finally {
+            // Nothing written: uncount the new secretaria; written: uncount the one it had (the same one is a no-op)
+            Secretaria counted = previous != null ? previous.getSecretaria() : secretaria;
+            if (secretaria != null && counted != null) {
+                secretariaService.adjustServidorCount(counted.getId(), -1);
+            }
+        }
+        
+        Servidor updatedServidor = ServidorPatches.apply(previous, changes);
+        logger.info("Servidor atualizado parcialmente - ID: {}, Versão: {}", id, updatedServidor.getVersion());
+        return updatedServidor;
+    }
+    
+    /**
+     * A conditional write matched nothing: the servidor is gone, or holds another version
+     */
+    private RuntimeException notFoundOrConflict(String id, Long version) {
+        if (!servidorRepository.existsById(id)) {
+            return new ResourceNotFoundException("Servidor", "id", id);
         }
+        logger.warn("Versão desatualizada do servidor - ID: {}, Versão: {}", id, version);
+        return new VersionConflictException("Servidor", id, version);
     }
     
     /**
@@ -110,12 +500,51 @@ public class ServidorService {
     public void delete(String id) {
         logger.debug("Deletando servidor - ID: {}", id);
         
-        Servidor servidor = findById(id);
-        servidorRepository.deleteById(id);
+        // Read and removed in one findAndModify, so a concurrent delete cannot turn this one into a no-op
+        Servidor servidor = servidorRepository.findAndRemoveById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Servidor", "id", id));
+        if (servidor.getSecretaria() != null) {
+            secretariaService.adjustServidorCount(servidor.getSecretaria().getId(), -1);
+        }
         
         logger.info("Servidor deletado com sucesso - ID: {}, Email: {}", id, servidor.getEmail());
     }
     
+    /**
+     * Delete many servidores by id: one {@code $in} read of their secretaria references, one {@code $in}
+     * deleteMany and one bulk update of the secretaria counts. Ids that match no servidor are reported,
+     * not treated as errors. A servidor deleted or moved concurrently between the read and the delete can
+     * leave a count off by one, which {@code ServidorCountReconciler} repairs.
+     */
+    public BatchDeleteResult deleteBatch(List<String> ids) {
+        logger.debug("Deletando lote de servidores: {} ids", ids != null ? ids.size() : 0);
+        
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException("Informe ao menos um id para excluir");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException(
+                String.format("O lote excede o limite de %d servidores", MAX_BATCH_SIZE));
+        }
+        
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Map<String, String> secretariaIds = servidorRepository.findSecretariaIds(requested);
+        long deleted = servidorRepository.deleteAllByIdIn(secretariaIds.keySet());
+        if (deleted != secretariaIds.size()) {
+            logger.warn("Lote de exclusão concorrente com outra escrita - Encontrados: {}, Deletados: {}",
+                       secretariaIds.size(), deleted);
+        }
+        
+        secretariaService.adjustServidorCounts(secretariaIds.values().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(secretariaId -> secretariaId, Collectors.summingLong(secretariaId -> -1L))));
+        
+        List<String> notFound = requested.stream().filter(id -> !secretariaIds.containsKey(id)).toList();
+        logger.info("Lote de exclusão processado - Solicitados: {}, Deletados: {}, Não encontrados: {}",
+                   requested.size(), deleted, notFound.size());
+        return new BatchDeleteResult(requested.size(), deleted, notFound);
+    }
+    
     /**
      * Validate servidor for creation
      */
@@ -124,47 +553,43 @@ public class ServidorService {
             throw new BusinessException("Servidor não pode ser nulo");
         }
         
-        // Check email uniqueness
-        if (servidorRepository.existsByEmailIgnoreCase(servidor.getEmail())) {
-            throw new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
+        // Email uniqueness is enforced by the unique index on emailNormalizado (DuplicateKeyException on save)
+        ServidorRules.validate(servidor);
+    }
+    
+    /**
+     * Validate one batch item; returns the error message, or null when the item is valid
+     */
+    private String validateBatchItem(Servidor servidor) {
+        if (servidor == null) {
+            return "Servidor não pode ser nulo";
         }
         
-        // Validate age
-        if (!servidor.isIdadeValida()) {
-            throw new BusinessException(
-                String.format("Idade inválida: %d anos. Deve estar entre 18 e 75 anos", 
-                             servidor.getIdade()));
+        Set<ConstraintViolation<Servidor>> violations = validator.validate(servidor);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
         }
         
-        // Validate secretaria
-        if (servidor.getSecretaria() == null || servidor.getSecretaria().getId() == null) {
-            throw new BusinessException("Secretaria é obrigatória");
+        try {
+            ServidorRules.validate(servidor);
+            return null;
+        } catch (BusinessException e) {
+            return e.getMessage();
         }
     }
     
     /**
      * Validate servidor for update
      */
-    private void validateServidorForUpdate(String id, Servidor servidor) {
+    private void validateServidorForUpdate(Servidor servidor) {
         if (servidor == null) {
             throw new BusinessException("Servidor não pode ser nulo");
         }
         
-        // Check email uniqueness (excluding current servidor)
-        if (servidorRepository.existsByEmailIgnoreCaseAndIdNot(servidor.getEmail(), id)) {
-            throw new BusinessException("Já existe um servidor com o email: " + servidor.getEmail());
-        }
-        
-        // Validate age
-        if (!servidor.isIdadeValida()) {
-            throw new BusinessException(
-                String.format("Idade inválida: %d anos. Deve estar entre 18 e 75 anos", 
-                             servidor.getIdade()));
-        }
-        
-        // Validate secretaria
-        if (servidor.getSecretaria() == null || servidor.getSecretaria().getId() == null) {
-            throw new BusinessException("Secretaria é obrigatória");
-        }
+        // Email uniqueness is enforced by the unique index on emailNormalizado (DuplicateKeyException on save)
+        ServidorRules.validate(servidor);
     }
-} 
\ No newline at end of file
+}
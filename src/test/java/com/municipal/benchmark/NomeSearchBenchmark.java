@@ -0,0 +1,169 @@
+package com.municipal.benchmark;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.MongoCollection;
+import com.municipal.model.NomeTokens;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the former unanchored regex name query with the nomeTokens index lookup.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=NomeSearchBenchmark -Dbenchmark=true [-Dbenchmark.servidores=500000] [-Dbenchmark.queries=200]
+ * </pre>
+ * Results are written to {@code target/benchmarks/nome-search.txt}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NomeSearchBenchmark {
+
+    private static final String[] PRIMEIROS_NOMES = {
+        "João", "José", "Maria", "Ana", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+        "Luíza", "Márcia", "Fábio", "Sérgio", "Cláudia", "Vitória", "Júlia", "Letícia", "Caio", "Inês"
+    };
+
+    private static final String[] SOBRENOMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+        "Conceição", "Araújo", "Ribeiro", "Carvalho", "Simões", "Magalhães", "Brandão", "Falcão", "Assunção", "Leão"
+    };
+
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Test
+    void compareRegexWithTokenIndex() throws IOException {
+        int servidores = Integer.getInteger("benchmark.servidores", 500_000);
+        int queries = Integer.getInteger("benchmark.queries", 200);
+
+        seed(servidores);
+        MongoCollection<Document> collection = mongoTemplate.getCollection("servidores");
+
+        Random random = new Random(7);
+        List<String> termos = new ArrayList<>();
+        for (int i = 0; i < queries; i++) {
+            String nome = random.nextBoolean()
+                    ? PRIMEIROS_NOMES[random.nextInt(PRIMEIROS_NOMES.length)]
+                    : SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            termos.add(nome.substring(0, 3 + random.nextInt(nome.length() - 2)));
+        }
+
+        Function<String, Document> regex = termo -> new Document("nome",
+                Pattern.compile(Pattern.quote(termo), Pattern.CASE_INSENSITIVE));
+        Function<String, Document> tokens = termo -> new Document("nomeTokens",
+                new Document("$all", NomeTokens.terms(termo)));
+
+        StringBuilder report = new StringBuilder()
+                .append("Nome search benchmark - ").append(servidores).append(" servidores, ")
+                .append(queries).append(" queries, limit ").append(LIMIT).append('\n')
+                .append(String.format("%-10s %10s %10s %10s %10s %16s%n",
+                        "approach", "mean_ms", "p50_ms", "p95_ms", "p99_ms", "docs_examined"));
+
+        for (int round = 0; round < 2; round++) {
+            // First round warms up caches and JIT; only the second one is reported
+            boolean measured = round == 1;
+            Result regexResult = run(collection, termos, regex);
+            Result tokenResult = run(collection, termos, tokens);
+            if (measured) {
+                report.append(regexResult.format("regex")).append(tokenResult.format("tokens"));
+            }
+        }
+
+        Path output = Path.of("target", "benchmarks", "nome-search.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report.toString());
+        System.out.print(report);
+    }
+
+    private Result run(MongoCollection<Document> collection, List<String> termos, Function<String, Document> filter) {
+        long[] nanos = new long[termos.size()];
+        long docsExamined = 0;
+        for (int i = 0; i < termos.size(); i++) {
+            Document query = filter.apply(termos.get(i));
+            long start = System.nanoTime();
+            collection.find(query).sort(new Document("nome", 1)).limit(LIMIT).into(new ArrayList<>());
+            nanos[i] = System.nanoTime() - start;
+
+            Document explain = collection.find(query).sort(new Document("nome", 1)).limit(LIMIT)
+                    .explain(ExplainVerbosity.EXECUTION_STATS);
+            docsExamined += explain.get("executionStats", Document.class).get("totalDocsExamined", Number.class).longValue();
+        }
+        return new Result(nanos, docsExamined / termos.size());
+    }
+
+    private void seed(int servidores) {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        Secretaria secretaria = secretariaRepository.save(new Secretaria("Secretaria de Administração", "SMA"));
+
+        Random random = new Random(42);
+        List<Servidor> batch = new ArrayList<>();
+        for (int i = 0; i < servidores; i++) {
+            String nome = PRIMEIROS_NOMES[random.nextInt(PRIMEIROS_NOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            batch.add(new Servidor(nome, "servidor" + i + "@municipal.gov.br",
+                    LocalDate.of(1960, 1, 1).plusDays(random.nextInt(15_000)), secretaria));
+            if (batch.size() == 5_000) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class).insert(batch).execute();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class).insert(batch).execute();
+        }
+    }
+
+    private static final class Result {
+
+        private final long[] nanos;
+        private final long docsExamined;
+
+        Result(long[] nanos, long docsExamined) {
+            this.nanos = nanos.clone();
+            this.docsExamined = docsExamined;
+            Arrays.sort(this.nanos);
+        }
+
+        String format(String approach) {
+            double mean = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+            return String.format("%-10s %10.2f %10.2f %10.2f %10.2f %16d%n", approach, mean,
+                    percentile(0.50), percentile(0.95), percentile(0.99), docsExamined);
+        }
+
+        private double percentile(double p) {
+            int index = (int) Math.ceil(p * nanos.length) - 1;
+            return nanos[Math.max(0, Math.min(index, nanos.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.municipal.benchmark;
+
+import com.municipal.model.NomeTokens;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end HTTP load test: boots the application on a random port against the embedded MongoDB,
+ * seeds a dataset and drives a mixed read/write workload at a fixed target rate.
+ * <p>
+ * Requests are scheduled open-loop: latency is measured from the time a request was <em>due</em>,
+ * so a slow server cannot hide its queueing delay by slowing the generator down (coordinated omission).
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=ServidorLoadBenchmark -Dbenchmark=true
+ *     [-Dbenchmark.servidores=20000] [-Dbenchmark.secretarias=20] [-Dbenchmark.rate=300]
+ *     [-Dbenchmark.duration=60] [-Dbenchmark.warmup=10] [-Dbenchmark.inflight=256]
+ *     [-Dbenchmark.mix=list:25,get:35,search:15,create:10,update:10,delete:5]
+ * </pre>
+ * Results are written to {@code target/benchmarks/load-test.txt} and, one row per endpoint,
+ * to {@code target/benchmarks/load-test.csv}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.com.municipal=WARN", "logging.level.org.springframework.data.mongodb=WARN",
+                "municipal.concurrency-limit.enabled=false"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ServidorLoadBenchmark {
+
+    private static final String[] PRIMEIROS_NOMES = {
+        "João", "José", "Maria", "Ana", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+        "Luíza", "Márcia", "Fábio", "Sérgio", "Cláudia", "Vitória", "Júlia", "Letícia", "Caio", "Inês"
+    };
+
+    private static final String[] SOBRENOMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+        "Conceição", "Araújo", "Ribeiro", "Carvalho", "Simões", "Magalhães", "Brandão", "Falcão", "Assunção", "Leão"
+    };
+
+    // Latencies up to one minute, three significant digits
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private enum Operation {
+        LIST("GET /servidores"),
+        GET("GET /servidores/{id}"),
+        SEARCH("GET /servidores/search"),
+        CREATE("POST /servidores"),
+        UPDATE("PUT /servidores/{id}"),
+        DELETE("DELETE /servidores/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Operation, ConcurrentHistogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private HttpClient client;
+    private String baseUrl;
+    private IdPool servidorIds;
+    private List<String> secretariaIds;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int servidores = Integer.getInteger("benchmark.servidores", 20_000);
+        int secretarias = Integer.getInteger("benchmark.secretarias", 20);
+        int rate = Integer.getInteger("benchmark.rate", 300);
+        int duration = Integer.getInteger("benchmark.duration", 60);
+        int warmup = Integer.getInteger("benchmark.warmup", 10);
+        int inflight = Integer.getInteger("benchmark.inflight", 256);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("benchmark.mix",
+                "list:25,get:35,search:15,create:10,update:10,delete:5"));
+
+        seed(servidores, secretarias);
+        baseUrl = "http://localhost:" + port + "/api/servidores";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+
+        // Warm-up samples are discarded; the measured phase starts with empty histograms
+        drive(rate, warmup, inflight, mix);
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        long sent = drive(rate, duration, inflight, mix);
+
+        String report = report(servidores, secretarias, rate, duration, sent, mix);
+        Path output = Path.of("target", "benchmarks", "load-test.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+        Files.writeString(output.resolveSibling("load-test.csv"), csv(duration));
+        System.out.print(report);
+    }
+
+    /**
+     * Issue requests at the target rate for the given number of seconds; returns the number sent
+     */
+    private long drive(int rate, int seconds, int inflight, Map<Operation, Integer> mix) throws InterruptedException {
+        Semaphore permits = new Semaphore(inflight);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        for (long i = 0; i < total; i++) {
+            long due = start + i * interval;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Waiting for a permit counts as latency: it is measured from the due time
+            permits.acquire();
+            Operation operation = pick(mix);
+            CompletableFuture<?> call = send(operation)
+                    .whenComplete((status, failure) -> {
+                        long latency = System.nanoTime() - due;
+                        histograms.get(operation).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                        if (failure != null || status >= 300) {
+                            errors.get(operation).increment();
+                        }
+                        permits.release();
+                    });
+            pending.add(call);
+            if (pending.size() >= 10_000) {
+                pending.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .exceptionally(failure -> null)
+                .join();
+        return total;
+    }
+
+    private CompletableFuture<Integer> send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest request;
+        switch (operation) {
+            case LIST -> request = get(baseUrl + "?limit=50&sort=" + (random.nextBoolean() ? "id" : "nome"));
+            case GET -> request = get(baseUrl + "/" + servidorIds.random());
+            case SEARCH -> {
+                String nome = random.nextBoolean()
+                        ? PRIMEIROS_NOMES[random.nextInt(PRIMEIROS_NOMES.length)]
+                        : SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+                String termo = nome.substring(0, Math.max(NomeTokens.MIN_LENGTH, 2 + random.nextInt(nome.length() - 1)));
+                request = get(baseUrl + "/search?q=" + URLEncoder.encode(termo, StandardCharsets.UTF_8));
+            }
+            case CREATE -> request = HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body()))
+                    .build();
+            case UPDATE -> request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + servidorIds.random()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body()))
+                    .build();
+            case DELETE -> {
+                String id = servidorIds.take();
+                if (id == null) {
+                    return CompletableFuture.completedFuture(204);
+                }
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE().build();
+            }
+            default -> throw new IllegalStateException(operation.name());
+        }
+
+        if (operation == Operation.CREATE) {
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() == 201) {
+                            servidorIds.add(extractId(response.body()));
+                        }
+                        return response.statusCode();
+                    });
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private String body() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long n = sequence.incrementAndGet();
+        return String.format("{\"nome\":\"%s %s\",\"email\":\"carga%d@municipal.gov.br\","
+                        + "\"dataNascimento\":\"%s\",\"secretaria\":{\"id\":\"%s\"}}",
+                PRIMEIROS_NOMES[random.nextInt(PRIMEIROS_NOMES.length)], SOBRENOMES[random.nextInt(SOBRENOMES.length)],
+                n, LocalDate.of(1960, 1, 1).plusDays(random.nextInt(15_000)),
+                secretariaIds.get(random.nextInt(secretariaIds.size())));
+    }
+
+    private static String extractId(String json) {
+        int start = json.indexOf("\"id\":\"") + 6;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty workload mix");
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private void seed(int servidores, int secretarias) {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+
+        secretariaIds = new ArrayList<>();
+        List<Secretaria> savedSecretarias = new ArrayList<>();
+        for (int i = 0; i < secretarias; i++) {
+            Secretaria secretaria = secretariaRepository.save(new Secretaria("Secretaria " + i, "SEC" + i));
+            savedSecretarias.add(secretaria);
+            secretariaIds.add(secretaria.getId());
+        }
+
+        Random random = new Random(42);
+        List<String> ids = new ArrayList<>(servidores);
+        List<Servidor> batch = new ArrayList<>();
+        for (int i = 0; i < servidores; i++) {
+            String nome = PRIMEIROS_NOMES[random.nextInt(PRIMEIROS_NOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            Servidor servidor = new Servidor(nome, "semente" + i + "@municipal.gov.br",
+                    LocalDate.of(1960, 1, 1).plusDays(random.nextInt(15_000)),
+                    savedSecretarias.get(random.nextInt(savedSecretarias.size())));
+            servidor.setId(new ObjectId().toHexString());
+            batch.add(servidor);
+            ids.add(servidor.getId());
+            if (batch.size() == 5_000) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class).insert(batch).execute();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class).insert(batch).execute();
+        }
+        servidorIds = new IdPool(ids);
+    }
+
+    private String report(int servidores, int secretarias, int rate, int duration, long sent,
+                          Map<Operation, Integer> mix) {
+        StringBuilder report = new StringBuilder()
+                .append("Load test - ").append(servidores).append(" servidores, ").append(secretarias)
+                .append(" secretarias, target ").append(rate).append(" req/s for ").append(duration)
+                .append(" s, ").append(sent).append(" requests, mix ").append(mix).append('\n')
+                .append(String.format("%-24s %8s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors",
+                        "req_per_s", "p50_ms", "p95_ms", "p99_ms", "p999_ms", "max_ms"));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-24s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.endpoint, histogram.getTotalCount(), errors.get(operation).sum(),
+                    histogram.getTotalCount() / (double) duration,
+                    millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1_000_000.0));
+        }
+        return report.toString();
+    }
+
+    private String csv(int duration) {
+        StringBuilder csv = new StringBuilder("endpoint,count,errors,req_per_s,p50_ms,p95_ms,p99_ms,p999_ms,max_ms\n");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    operation.endpoint, histogram.getTotalCount(), errors.get(operation).sum(),
+                    histogram.getTotalCount() / (double) duration,
+                    millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1_000_000.0));
+        }
+        return csv.toString();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    /**
+     * Ids known to exist; deletes take an id out before the request so no other request reuses it
+     */
+    private static final class IdPool {
+
+        private final List<String> ids;
+
+        IdPool(List<String> ids) {
+            this.ids = new ArrayList<>(ids);
+        }
+
+        synchronized void add(String id) {
+            ids.add(id);
+        }
+
+        synchronized String random() {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized String take() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            String id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
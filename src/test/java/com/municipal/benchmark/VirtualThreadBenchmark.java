@@ -0,0 +1,205 @@
+package com.municipal.benchmark;
+
+import com.municipal.ServidorApiApplication;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Compares Tomcat on platform threads with Tomcat on virtual threads ({@code spring.threads.virtual.enabled})
+ * for {@code GET /api/servidores/{id}} and {@code POST /api/servidores}, over real HTTP with many concurrent
+ * clients. Each mode runs in its own application context. Disabled by default; run with:
+ * <pre>
+ * mvn test -Pjava21 -Dtest=VirtualThreadBenchmark -Dbenchmark=true
+ *     [-Dbenchmark.requests=20000] [-Dbenchmark.concurrency=400] [-Dbenchmark.servidores=10000]
+ * </pre>
+ * On Java 17 only the platform mode is measured. Results are written to {@code target/benchmarks/virtual-threads.txt}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmark {
+
+    @Test
+    void comparePlatformWithVirtualThreads() throws Exception {
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        int concurrency = Integer.getInteger("benchmark.concurrency", 400);
+        int servidores = Integer.getInteger("benchmark.servidores", 10_000);
+
+        StringBuilder report = new StringBuilder()
+                .append("Virtual threads benchmark - ").append(requests).append(" requests per workload, ")
+                .append(concurrency).append(" concurrent clients, ").append(servidores).append(" servidores, Java ")
+                .append(Runtime.version().feature()).append('\n')
+                .append(String.format("%-10s %-24s %12s %10s %10s %10s %8s%n",
+                        "mode", "workload", "req_per_s", "p50_ms", "p99_ms", "max_ms", "errors"));
+
+        report.append(runMode(false, requests, concurrency, servidores));
+        if (Runtime.version().feature() >= 21) {
+            report.append(runMode(true, requests, concurrency, servidores));
+        } else {
+            report.append(String.format("%-10s requires Java 21 (mvn -Pjava21)%n", "virtual"));
+        }
+
+        Path output = Path.of("target", "benchmarks", "virtual-threads.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report.toString());
+        System.out.print(report);
+    }
+
+    private String runMode(boolean virtual, int requests, int concurrency, int servidores) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServidorApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "logging.level.com.municipal=WARN",
+                        "logging.level.org.springframework.data.mongodb=WARN",
+                        "municipal.concurrency-limit.enabled=false")
+                .run()) {
+
+            List<String> ids = seed(context, servidores);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String secretariaId = context.getBean(SecretariaRepository.class).findAll().get(0).getId();
+            AtomicLong emailSequence = new AtomicLong();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            IntFunction<HttpRequest> getById = i -> HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/api/servidores/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size()))))
+                    .GET().build();
+            IntFunction<HttpRequest> create = i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/servidores"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"nome\":\"Servidor %1$d\",\"email\":\"%2$s-%1$d@bench.gov.br\","
+                                    + "\"dataNascimento\":\"1985-06-15\",\"secretaria\":{\"id\":\"%3$s\"}}",
+                            emailSequence.incrementAndGet(), mode, secretariaId)))
+                    .build();
+
+            StringBuilder lines = new StringBuilder();
+            for (int round = 0; round < 2; round++) {
+                // First round warms up the JIT, the connection pools and the caches; only the second one is reported
+                int count = round == 0 ? Math.max(1, requests / 10) : requests;
+                Result get = run(client, getById, count, concurrency);
+                Result post = run(client, create, count, concurrency);
+                if (round == 1) {
+                    lines.append(get.format(mode, "GET /servidores/{id}"))
+                            .append(post.format(mode, "POST /servidores"));
+                }
+            }
+            return lines.toString();
+        }
+    }
+
+    private Result run(HttpClient client, IntFunction<HttpRequest> requestFactory, int count, int concurrency)
+            throws InterruptedException {
+        long[] nanos = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            clients.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < count) {
+                    HttpRequest request = requestFactory.apply(i);
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    nanos[i] = System.nanoTime() - requestStart;
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(30, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        return new Result(nanos, elapsed, errors.get());
+    }
+
+    private List<String> seed(ConfigurableApplicationContext context, int servidores) {
+        ServidorRepository servidorRepository = context.getBean(ServidorRepository.class);
+        SecretariaRepository secretariaRepository = context.getBean(SecretariaRepository.class);
+        MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        Secretaria secretaria = secretariaRepository.save(new Secretaria("Secretaria de Administração", "SMA"));
+
+        List<Servidor> batch = new ArrayList<>();
+        List<String> ids = new ArrayList<>(servidores);
+        for (int i = 0; i < servidores; i++) {
+            Servidor servidor = new Servidor("Servidor Semente " + i, "semente" + i + "@municipal.gov.br",
+                    LocalDate.of(1960, 1, 1).plusDays(i % 15_000), secretaria);
+            servidor.setId(new ObjectId().toHexString());
+            batch.add(servidor);
+            ids.add(servidor.getId());
+            if (batch.size() == 5_000 || i == servidores - 1) {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Servidor.class).insert(batch).execute();
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private static final class Result {
+
+        private final long[] nanos;
+        private final long elapsedNanos;
+        private final int errors;
+
+        Result(long[] nanos, long elapsedNanos, int errors) {
+            this.nanos = nanos.clone();
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+            Arrays.sort(this.nanos);
+        }
+
+        String format(String mode, String workload) {
+            double throughput = nanos.length / (elapsedNanos / 1_000_000_000.0);
+            return String.format("%-10s %-24s %12.1f %10.2f %10.2f %10.2f %8d%n", mode, workload, throughput,
+                    percentile(0.50), percentile(0.99), nanos[nanos.length - 1] / 1_000_000.0, errors);
+        }
+
+        private double percentile(double p) {
+            int index = (int) Math.ceil(p * nanos.length) - 1;
+            return nanos[Math.max(0, Math.min(index, nanos.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.municipal.benchmark.jmh;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.validation.IdadeValida;
+import com.municipal.validation.IdadeValidaValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Age rules, which run for every validated request and every serialized servidor
+ * ({@code idade} and {@code idadeValida} are part of the JSON).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdadeBenchmark {
+
+    private IdadeValidaValidator idadeValidator;
+    private ValidatorFactory validatorFactory;
+    private Validator beanValidator;
+    private LocalDate dataNascimento;
+    private Servidor servidor;
+    private Servidor servidorIdadeInvalida;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        idadeValidator = new IdadeValidaValidator();
+        idadeValidator.initialize(Servidor.class.getDeclaredField("dataNascimento").getAnnotation(IdadeValida.class));
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+
+        Secretaria secretaria = new Secretaria("Secretaria de Educação", "SMED");
+        secretaria.setId("65a000000000000000000001");
+        dataNascimento = LocalDate.of(1985, 6, 15);
+        servidor = new Servidor("Maria da Conceição Souza", "maria.souza@municipal.gov.br", dataNascimento, secretaria);
+        servidorIdadeInvalida = new Servidor("Pedro Lima", "pedro.lima@municipal.gov.br", LocalDate.of(1930, 1, 1), secretaria);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Valid age only; the invalid path builds a violation and is covered by {@link #validateServidorIdadeInvalida}
+     */
+    @Benchmark
+    public boolean idadeValidaValidator() {
+        return idadeValidator.isValid(dataNascimento, null);
+    }
+
+    @Benchmark
+    public int getIdade() {
+        return servidor.getIdade();
+    }
+
+    @Benchmark
+    public boolean isIdadeValida() {
+        return servidor.isIdadeValida();
+    }
+
+    /**
+     * Full bean validation of a request body, as done for {@code @Valid} on POST and PUT
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Servidor>> validateServidor() {
+        return beanValidator.validate(servidor);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Servidor>> validateServidorIdadeInvalida() {
+        return beanValidator.validate(servidorIdadeInvalida);
+    }
+}
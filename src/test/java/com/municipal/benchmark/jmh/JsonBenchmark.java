@@ -0,0 +1,82 @@
+package com.municipal.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the API payloads, with an ObjectMapper configured like Spring Boot's
+ * (java.time module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectWriter servidorWriter;
+    private ObjectWriter secretariaWriter;
+    private ObjectReader servidorReader;
+    private ObjectReader secretariaReader;
+    private Servidor servidor;
+    private Secretaria secretaria;
+    private byte[] servidorJson;
+    private byte[] secretariaJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        servidorWriter = objectMapper.writerFor(Servidor.class);
+        secretariaWriter = objectMapper.writerFor(Secretaria.class);
+        servidorReader = objectMapper.readerFor(Servidor.class);
+        secretariaReader = objectMapper.readerFor(Secretaria.class);
+
+        secretaria = new Secretaria("Secretaria de Educação", "SMED");
+        secretaria.setId("65a000000000000000000001");
+        servidor = new Servidor("Maria da Conceição Souza", "maria.souza@municipal.gov.br",
+                LocalDate.of(1985, 6, 15), secretaria);
+        servidor.setId("65a000000000000000000002");
+
+        servidorJson = servidorWriter.writeValueAsBytes(servidor);
+        secretariaJson = secretariaWriter.writeValueAsBytes(secretaria);
+    }
+
+    @Benchmark
+    public byte[] serializeServidor() throws IOException {
+        return servidorWriter.writeValueAsBytes(servidor);
+    }
+
+    @Benchmark
+    public Servidor deserializeServidor() throws IOException {
+        return servidorReader.readValue(servidorJson);
+    }
+
+    @Benchmark
+    public byte[] serializeSecretaria() throws IOException {
+        return secretariaWriter.writeValueAsBytes(secretaria);
+    }
+
+    @Benchmark
+    public Secretaria deserializeSecretaria() throws IOException {
+        return secretariaReader.readValue(secretariaJson);
+    }
+}
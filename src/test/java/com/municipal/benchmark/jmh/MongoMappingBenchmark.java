@@ -0,0 +1,90 @@
+package com.municipal.benchmark.jmh;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/document mapping by {@link MappingMongoConverter}, which runs for every row read or written.
+ * Servidor documents are read without the secretaria reference, as the repositories do before
+ * attaching the secretarias they resolved in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MongoMappingBenchmark {
+
+    private MappingMongoConverter converter;
+    private Servidor servidor;
+    private Secretaria secretaria;
+    private Document servidorDocument;
+    private Document secretariaDocument;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        secretaria = new Secretaria("Secretaria de Educação", "SMED");
+        secretaria.setId("65a000000000000000000001");
+        servidor = new Servidor("Maria da Conceição Souza", "maria.souza@municipal.gov.br",
+                LocalDate.of(1985, 6, 15), secretaria);
+        servidor.setId("65a000000000000000000002");
+
+        servidorDocument = writeServidor();
+        servidorDocument.remove("secretaria");
+        secretariaDocument = writeSecretaria();
+    }
+
+    @Benchmark
+    public Document writeServidor() {
+        Document document = new Document();
+        converter.write(servidor, document);
+        return document;
+    }
+
+    @Benchmark
+    public Servidor readServidor() {
+        // The converter does not modify the source document, so it can be shared across invocations
+        return converter.read(Servidor.class, servidorDocument);
+    }
+
+    @Benchmark
+    public Document writeSecretaria() {
+        Document document = new Document();
+        converter.write(secretaria, document);
+        return document;
+    }
+
+    @Benchmark
+    public Secretaria readSecretaria() {
+        return converter.read(Secretaria.class, secretariaDocument);
+    }
+}
@@ -0,0 +1,104 @@
+package com.municipal.benchmark.jmh;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a servidor listing as JSON, Smile and CBOR, with the mappers the API negotiates
+ * (see {@link BinaryFormatsConfig}). The payload size of each format is printed once per fork by the setup.
+ * <pre>
+ * mvn -Pjmh -DskipTests verify -Djmh.args="WireFormatBenchmark -f 1"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final String[] NOMES = {
+        "Maria da Conceição Souza", "José Carlos Pereira", "Ana Luíza Magalhães", "João Pedro Araújo",
+        "Francisca Simões Brandão", "Antônio Ribeiro Falcão", "Cláudia Assunção Leão", "Paulo Sérgio Gomes"
+    };
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private String format;
+
+    @Param({"100000"})
+    private int rows;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Servidor> servidores;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper mapper = switch (format) {
+            case "SMILE" -> BinaryFormatsConfig.smileMapper(json);
+            case "CBOR" -> BinaryFormatsConfig.cborMapper(json);
+            default -> json;
+        };
+        TypeReference<List<Servidor>> listType = new TypeReference<>() {};
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+
+        List<Secretaria> secretarias = new ArrayList<>();
+        for (String sigla : List.of("SMED", "SMS", "SMA", "SMF", "SMOB")) {
+            Secretaria secretaria = new Secretaria("Secretaria Municipal " + sigla, sigla);
+            secretaria.setId(String.format("65a0000000000000000%05d", secretarias.size()));
+            secretarias.add(secretaria);
+        }
+
+        Random random = new Random(42);
+        servidores = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Servidor servidor = new Servidor(NOMES[random.nextInt(NOMES.length)], "servidor" + i + "@municipal.gov.br",
+                    LocalDate.of(1960, 1, 1).plusDays(random.nextInt(15_000)),
+                    secretarias.get(random.nextInt(secretarias.size())));
+            servidor.setId(String.format("65b0000000000000%08x", i));
+            servidores.add(servidor);
+        }
+
+        payload = writer.writeValueAsBytes(servidores);
+        System.out.printf("%n%s: %d rows, %d bytes (%.1f bytes/row)%n", format, rows, payload.length,
+                (double) payload.length / rows);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(servidores);
+    }
+
+    @Benchmark
+    public List<Servidor> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,93 @@
+package com.municipal.config;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.municipal.model.Secretaria;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.service.SecretariaService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cache invalidation through the change stream of the embedded single-node replica set; skipped when
+ * the server cannot open change streams.
+ */
+@SpringBootTest(properties = {
+        "municipal.cache-invalidation.enabled=true",
+        "municipal.cache-invalidation.node-id=test-node",
+        "municipal.cache-invalidation.token-save-interval=0s"
+})
+@ActiveProfiles("test")
+class ChangeStreamCacheInvalidatorTest {
+
+    @Autowired
+    private ChangeStreamCacheInvalidator invalidator;
+
+    @Autowired
+    private SecretariaService secretariaService;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(invalidator.isRunning(), "MongoDB sem suporte a change streams");
+        awaitTrue(invalidator::isWatching);
+
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void writeFromAnotherInstance_EvictsCachedSecretaria() {
+        String id = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED")).getId();
+        assertEquals("Secretaria de Educação", secretariaService.findById(id).getNome());
+
+        // Written behind the service, as another instance would
+        mongoTemplate.getCollection("secretarias").updateOne(Filters.eq("_id", new ObjectId(id)),
+                Updates.set("nome", "Secretaria Municipal de Educação"));
+
+        awaitTrue(() -> "Secretaria Municipal de Educação".equals(secretariaService.findById(id).getNome()));
+    }
+
+    @Test
+    void resumeTokenStoredForThisNode() {
+        secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+
+        awaitTrue(() -> mongoTemplate.getCollection(ChangeStreamCacheInvalidator.TOKEN_COLLECTION)
+                .countDocuments(Filters.eq("_id", "test-node")) == 1);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condição não atingida em 10s");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
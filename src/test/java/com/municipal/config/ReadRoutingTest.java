@@ -0,0 +1,186 @@
+package com.municipal.config;
+
+import com.mongodb.ReadPreference;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.ReadRouting;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Which read preference the reads of a service call get. The embedded server is standalone, so routing is
+ * switched on by hand; the effect on a replica set is the driver's.
+ */
+@SpringBootTest(properties = "municipal.read-routing.enabled=true")
+@ActiveProfiles("test")
+class ReadRoutingTest {
+
+    @Autowired
+    private ReadRouting readRouting;
+
+    @Autowired
+    private ReadProbe readProbe;
+
+    @Autowired
+    private WriteProbe writeProbe;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        readRouting.setActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readRouting.setActive(false);
+    }
+
+    @Test
+    void readOnlyCall_ReadsFromSecondary() {
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), readProbe.readPreference());
+    }
+
+    @Test
+    void readOnlyCallInsideWrite_StaysOnPrimary() {
+        assertEquals(ReadPreference.primary(), writeProbe.nestedReadPreference());
+    }
+
+    @Test
+    void cachedReadOnlyCall_StaysOnPrimary() {
+        assertEquals(ReadPreference.primary(), readProbe.cachedReadPreference());
+    }
+
+    @Test
+    void secondaryRead_DoesNotFillSecretariaCache() {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        Secretaria secretaria = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        Servidor servidor = servidorRepository.save(
+                new Servidor("Ana Lima", "ana@email.com", LocalDate.now().minusYears(30), secretaria));
+        Cache cache = cacheManager.getCache(CacheConfig.SECRETARIAS);
+        cache.clear();
+
+        // Resolved from the secondary, which may lag: used for the response but never cached
+        assertEquals("SMED", readProbe.servidor(servidor.getId()).getSecretaria().getSigla());
+        assertNull(cache.get(secretaria.getId()));
+
+        // Resolved from the primary: cached as before
+        assertEquals("SMED", writeProbe.nestedServidor(servidor.getId()).getSecretaria().getSigla());
+        assertNotNull(cache.get(secretaria.getId()));
+    }
+
+    @Test
+    void standaloneServer_StaysOnPrimary() {
+        readRouting.setActive(false);
+
+        assertEquals(ReadPreference.primary(), readProbe.readPreference());
+    }
+
+    @Test
+    void token_RoundTrip() {
+        BsonTimestamp operationTime = new BsonTimestamp(1_700_000_000, 7);
+        BsonDocument clusterTime = new BsonDocument("clusterTime", new BsonTimestamp(1_700_000_000, 9))
+                .append("signature", new BsonDocument("keyId", new BsonInt64(42)));
+
+        BsonDocument token = CausalConsistencyFilter.decode(CausalConsistencyFilter.encode(operationTime, clusterTime));
+
+        assertEquals(operationTime, token.getTimestamp("operationTime"));
+        assertEquals(clusterTime, token.getDocument("clusterTime"));
+        assertNull(CausalConsistencyFilter.encode(null, null));
+    }
+
+    @Test
+    void token_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> CausalConsistencyFilter.decode("not-a-token"));
+    }
+
+    @TestConfiguration
+    static class Probes {
+
+        @Bean
+        ReadProbe readProbe(MongoTemplate mongoTemplate, ServidorRepository servidorRepository) {
+            return new ReadProbe(mongoTemplate, servidorRepository);
+        }
+
+        @Bean
+        WriteProbe writeProbe(ReadProbe readProbe) {
+            return new WriteProbe(readProbe);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    static class ReadProbe {
+
+        private final MongoTemplate mongoTemplate;
+
+        private final ServidorRepository servidorRepository;
+
+        ReadProbe(MongoTemplate mongoTemplate, ServidorRepository servidorRepository) {
+            this.mongoTemplate = mongoTemplate;
+            this.servidorRepository = servidorRepository;
+        }
+
+        public Servidor servidor(String id) {
+            return servidorRepository.findById(id).orElseThrow();
+        }
+
+        public ReadPreference readPreference() {
+            return mongoTemplate.getDb().getReadPreference();
+        }
+
+        @Cacheable(cacheNames = "secretarias", key = "'read-routing-probe'")
+        public ReadPreference cachedReadPreference() {
+            return mongoTemplate.getDb().getReadPreference();
+        }
+    }
+
+    @Transactional
+    static class WriteProbe {
+
+        private final ReadProbe readProbe;
+
+        WriteProbe(ReadProbe readProbe) {
+            this.readProbe = readProbe;
+        }
+
+        public ReadPreference nestedReadPreference() {
+            return readProbe.readPreference();
+        }
+
+        public Servidor nestedServidor(String id) {
+            return readProbe.servidor(id);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.municipal.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Smile and CBOR request and response bodies, decoded back to the same values JSON carries.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class BinaryFormatsTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private ObjectMapper smileMapper;
+    private ObjectMapper cborMapper;
+    private Secretaria educacao;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        smileMapper = BinaryFormatsConfig.smileMapper(objectMapper);
+        cborMapper = BinaryFormatsConfig.cborMapper(objectMapper);
+
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+    }
+
+    @Test
+    void listServidores_Smile() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        servidorRepository.save(new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), educacao));
+
+        byte[] body = mockMvc.perform(get("/api/servidores").param("sort", "nome")
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<Servidor> servidores = smileMapper.readValue(body, new TypeReference<List<Servidor>>() {});
+        assertEquals(2, servidores.size());
+        assertEquals("João Silva", servidores.get(0).getNome());
+        assertEquals(LocalDate.of(1985, 3, 20), servidores.get(1).getDataNascimento());
+        assertEquals("SMED", servidores.get(1).getSecretaria().getSigla());
+    }
+
+    @Test
+    void createServidoresBatch_CborBody() throws Exception {
+        List<Servidor> batch = List.of(
+            new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), educacao),
+            new Servidor("Ana Souza", "ana@email.com", LocalDate.of(1992, 7, 1), educacao)
+        );
+
+        byte[] body = mockMvc.perform(post("/api/servidores/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode result = cborMapper.readTree(body);
+        assertEquals(2, result.get("created").asInt());
+        assertEquals(2, servidorRepository.count());
+    }
+
+    @Test
+    void exportServidores_SmileAndCbor() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        servidorRepository.save(new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), educacao));
+
+        for (String format : List.of("smile", "cbor")) {
+            MvcResult started = mockMvc.perform(get("/api/servidores/export").param("format", format))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            byte[] body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            ObjectMapper mapper = format.equals("smile") ? smileMapper : cborMapper;
+            List<Servidor> servidores = mapper.readerFor(Servidor.class).<Servidor>readValues(body).readAll();
+            assertEquals(2, servidores.size(), format);
+            assertEquals("SMED", servidores.get(0).getSecretaria().getSigla(), format);
+        }
+    }
+
+    @Test
+    void exportServidores_FormatFromAccept() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+
+        MvcResult started = mockMvc.perform(get("/api/servidores/export").accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<Servidor> servidores = smileMapper.readerFor(Servidor.class).<Servidor>readValues(body).readAll();
+        assertEquals(1, servidores.size());
+
+        // ?format= still overrides the Accept header
+        started = mockMvc.perform(get("/api/servidores/export").param("format", "csv")
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"));
+    }
+
+    @Test
+    void getServidorById_ETagPerFormat() throws Exception {
+        Servidor saved = servidorRepository.save(
+                new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+
+        String jsonEtag = mockMvc.perform(get("/api/servidores/{id}", saved.getId()))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborEtag = mockMvc.perform(get("/api/servidores/{id}", saved.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(jsonEtag);
+        assertNotEquals(jsonEtag, cborEtag);
+
+        // The JSON version does not validate a cached CBOR body
+        mockMvc.perform(get("/api/servidores/{id}", saved.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/servidores/{id}", saved.getId())
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborEtag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,209 @@
+package com.municipal.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag, If-None-Match and If-Match on the servidor and secretaria endpoints.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ConditionalRequestTest {
+    
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    
+    @Autowired
+    private ServidorRepository servidorRepository;
+    
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+    private Secretaria educacao;
+    
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+    }
+    
+    @Test
+    void getServidor_NotModifiedUntilUpdated() throws Exception {
+        String id = create(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        String etag = etagOf(get("/api/servidores/{id}", id));
+        
+        mockMvc.perform(get("/api/servidores/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        
+        String updatedEtag = mockMvc.perform(put("/api/servidores/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Servidor("João Silva Souza", "joao@email.com", LocalDate.of(1990, 5, 15), educacao))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updatedEtag);
+        
+        // The tag returned by the write is the one a later read computes
+        mockMvc.perform(get("/api/servidores/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updatedEtag))
+                .andExpect(jsonPath("$.nome").value("João Silva Souza"));
+    }
+    
+    @Test
+    void getServidor_ChangesWhenSecretariaIsRenamed() throws Exception {
+        String id = create(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        String etag = etagOf(get("/api/servidores/{id}", id));
+        String listEtag = etagOf(get("/api/servidores"));
+        
+        mockMvc.perform(put("/api/secretarias/{id}", educacao.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Secretaria("Secretaria Municipal de Educação", "SMED"))))
+                .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/servidores/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secretaria.nome").value("Secretaria Municipal de Educação"));
+        mockMvc.perform(get("/api/servidores").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void putServidor_IfMatch() throws Exception {
+        String id = create(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        String etag = etagOf(get("/api/servidores/{id}", id));
+        String body = objectMapper.writeValueAsString(
+                new Servidor("João Souza", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        
+        mockMvc.perform(put("/api/servidores/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+        
+        // Same stale version again: rejected, nothing written
+        mockMvc.perform(put("/api/servidores/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Servidor("Outro Nome", "joao@email.com", LocalDate.of(1990, 5, 15), educacao))))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("João Souza", servidorRepository.findById(id).orElseThrow().getNome());
+    }
+    
+    @Test
+    void putSecretaria_IfMatchCheckedByTheWrite() throws Exception {
+        String etag = etagOf(get("/api/secretarias/{id}", educacao.getId()));
+        
+        // Written behind the cache: the cached secretaria still carries the version of the tag
+        Secretaria changed = secretariaRepository.findById(educacao.getId()).orElseThrow();
+        changed.setNome("Secretaria Municipal de Educação");
+        secretariaRepository.save(changed);
+        
+        mockMvc.perform(put("/api/secretarias/{id}", educacao.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Secretaria("Educação", "SMED"))))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("Secretaria Municipal de Educação",
+                secretariaRepository.findById(educacao.getId()).orElseThrow().getNome());
+        
+        mockMvc.perform(put("/api/secretarias/{id}", educacao.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/" + etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Secretaria("Educação", "SMED"))))
+                .andExpect(status().isPreconditionFailed());
+    }
+    
+    @Test
+    void etag_ExposedToCrossOriginClients() throws Exception {
+        mockMvc.perform(get("/api/secretarias/{id}", educacao.getId())
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                        containsString(HttpHeaders.ETAG)));
+    }
+    
+    @Test
+    void secretarias_ListAndItemNotModified() throws Exception {
+        String listEtag = etagOf(get("/api/secretarias"));
+        String itemEtag = etagOf(get("/api/secretarias/{id}", educacao.getId()));
+        
+        mockMvc.perform(get("/api/secretarias").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/secretarias/{id}", educacao.getId()).header(HttpHeaders.IF_NONE_MATCH, itemEtag))
+                .andExpect(status().isNotModified());
+        
+        mockMvc.perform(post("/api/secretarias")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Secretaria("Secretaria de Saúde", "SMS"))))
+                .andExpect(status().isCreated());
+        
+        mockMvc.perform(get("/api/secretarias").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+    
+    private String create(Servidor servidor) throws Exception {
+        String body = mockMvc.perform(post("/api/servidores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(servidor)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+    
+    private String etagOf(RequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
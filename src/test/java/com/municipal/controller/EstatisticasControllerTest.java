@@ -0,0 +1,108 @@
+package com.municipal.controller;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class EstatisticasControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private MockMvc mockMvc;
+    private Secretaria educacao;
+    private Secretaria saude;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        saude = secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+    }
+
+    @Test
+    void getEstatisticas_AgesPerSecretaria() throws Exception {
+        LocalDate today = LocalDate.now();
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", today.minusYears(25), educacao));
+        servidorRepository.save(new Servidor("Bruno", "bruno@email.com", today.minusYears(45), educacao));
+        // Turns 70 today: near retirement; one day younger: still 69
+        servidorRepository.save(new Servidor("Carla", "carla@email.com", today.minusYears(70), saude));
+        servidorRepository.save(new Servidor("Davi", "davi@email.com", today.minusYears(70).plusDays(1), saude));
+
+        mockMvc.perform(get("/api/estatisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nearRetirementAge").value(70))
+                .andExpect(jsonPath("$.overall.headcount").value(4))
+                .andExpect(jsonPath("$.overall.minAge").value(25))
+                .andExpect(jsonPath("$.overall.maxAge").value(70))
+                .andExpect(jsonPath("$.overall.nearRetirement").value(1))
+                .andExpect(jsonPath("$.overall.ageBrackets['18-29']").value(1))
+                .andExpect(jsonPath("$.overall.ageBrackets['40-49']").value(1))
+                .andExpect(jsonPath("$.overall.ageBrackets['60-69']").value(1))
+                .andExpect(jsonPath("$.overall.ageBrackets['70+']").value(1))
+                .andExpect(jsonPath("$.bySecretaria", hasSize(2)))
+                .andExpect(jsonPath("$.bySecretaria[0].sigla").value("SMED"))
+                .andExpect(jsonPath("$.bySecretaria[0].headcount").value(2))
+                .andExpect(jsonPath("$.bySecretaria[0].averageAge").value(35.0))
+                .andExpect(jsonPath("$.bySecretaria[0].nearRetirement").value(0))
+                .andExpect(jsonPath("$.bySecretaria[1].sigla").value("SMS"))
+                .andExpect(jsonPath("$.bySecretaria[1].minAge").value(69))
+                .andExpect(jsonPath("$.bySecretaria[1].nearRetirement").value(1));
+    }
+
+    @Test
+    void getEstatisticas_Empty() throws Exception {
+        mockMvc.perform(get("/api/estatisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.overall.headcount").value(0))
+                .andExpect(jsonPath("$.overall.ageBrackets['18-29']").value(0))
+                .andExpect(jsonPath("$.bySecretaria", hasSize(0)));
+    }
+
+    @Test
+    void getEstatisticas_CachedBetweenPolls() throws Exception {
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), educacao));
+        mockMvc.perform(get("/api/estatisticas"))
+                .andExpect(jsonPath("$.overall.headcount").value(1));
+
+        servidorRepository.save(new Servidor("Bruno", "bruno@email.com", LocalDate.of(1980, 1, 1), educacao));
+
+        // Within the TTL the previous result is served
+        mockMvc.perform(get("/api/estatisticas"))
+                .andExpect(jsonPath("$.overall.headcount").value(1));
+    }
+}
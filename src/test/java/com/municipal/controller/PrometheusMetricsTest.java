@@ -0,0 +1,109 @@
+package com.municipal.controller;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.mongodb.driver.commands=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectProvider<AdminController> adminController;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @BeforeEach
+    void setUp() {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+    }
+
+    @Test
+    void adminEndpoints_OffByDefault() {
+        assertNull(adminController.getIfAvailable());
+    }
+
+    @Test
+    void httpTimers_TaggedWithHandledException() throws Exception {
+        mockMvc.perform(get("/api/servidores/{id}", "000000000000000000000000"))
+                .andExpect(status().isNotFound());
+
+        String scrape = scrape();
+        assertHasSample(scrape, "http_server_requests_seconds_count",
+                "uri=\"/api/servidores/{id}\"", "status=\"404\"", "exception=\"ResourceNotFoundException\"");
+    }
+
+    @Test
+    void serviceTimers_TaggedByMethodAndOutcome() throws Exception {
+        Secretaria secretaria = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        mockMvc.perform(get("/api/secretarias/{id}", secretaria.getId()))
+                .andExpect(status().isOk());
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), secretaria));
+        secretariaRepository.incrementServidorCount(secretaria.getId(), 1);
+        mockMvc.perform(delete("/api/secretarias/{id}", secretaria.getId()))
+                .andExpect(status().isBadRequest());
+
+        String scrape = scrape();
+        assertHasSample(scrape, "municipal_service_seconds_count",
+                "class=\"com.municipal.service.SecretariaService\"", "method=\"findById\"", "exception=\"none\"");
+        assertHasSample(scrape, "municipal_service_seconds_count",
+                "class=\"com.municipal.service.SecretariaService\"", "method=\"delete\"", "exception=\"BusinessException\"");
+        assertHasSample(scrape, "http_server_requests_seconds_count",
+                "uri=\"/api/secretarias/{id}\"", "method=\"DELETE\"", "exception=\"BusinessException\"");
+    }
+
+    @Test
+    void mongoCommandsAndPool_Exported() throws Exception {
+        mockMvc.perform(get("/api/servidores")).andExpect(status().isOk());
+
+        String scrape = scrape();
+        assertHasSample(scrape, "mongodb_driver_commands_seconds_bucket",
+                "command=\"find\"", "collection=\"servidores\"", "status=\"SUCCESS\"");
+        assertHasSample(scrape, "mongodb_driver_pool_size");
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static void assertHasSample(String scrape, String metric, String... labels) {
+        boolean found = scrape.lines()
+                .filter(line -> line.startsWith(metric + "{"))
+                .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+        assertTrue(found, () -> "No " + metric + " sample with " + Arrays.toString(labels));
+    }
+}
@@ -0,0 +1,406 @@
+package com.municipal.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.municipal.config.BinaryFormatsConfig;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveServidorControllerTest {
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private ServidorRepository servidorRepository;
+    
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private Secretaria testSecretaria;
+    
+    @BeforeEach
+    void setUp() {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        
+        testSecretaria = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+    }
+    
+    @Test
+    void createServidor_Success() {
+        Servidor servidor = new Servidor("João Silva", "joao.silva@email.com", LocalDate.of(1990, 5, 15), testSecretaria);
+        
+        webTestClient.post().uri("/api/servidores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(servidor)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").exists()
+                .jsonPath("$.nome").isEqualTo("João Silva")
+                .jsonPath("$.dataNascimento").isEqualTo("1990-05-15")
+                .jsonPath("$.secretaria.id").isEqualTo(testSecretaria.getId());
+    }
+    
+    @Test
+    void createServidor_DuplicateEmailIgnoringCase() {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        Servidor duplicate = new Servidor("João Souza", "JOAO@email.com", LocalDate.of(1991, 1, 1), testSecretaria);
+        
+        webTestClient.post().uri("/api/servidores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(duplicate)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Erro de negócio")
+                .jsonPath("$.message").isEqualTo("Já existe um servidor com o email: JOAO@email.com");
+    }
+    
+    @Test
+    void createServidor_ValidationError() {
+        Servidor invalid = new Servidor("", "invalid-email", LocalDate.now().plusDays(1), testSecretaria);
+        
+        webTestClient.post().uri("/api/servidores")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.error").isEqualTo("Erro de validação")
+                .jsonPath("$.path").isEqualTo("uri=/api/servidores");
+    }
+    
+    @Test
+    void getServidorById_Success() {
+        Servidor saved = servidorRepository.save(
+                new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("maria@email.com")
+                .jsonPath("$.secretaria.sigla").isEqualTo("SMED");
+    }
+    
+    @Test
+    void getServidorById_ConditionalRequests() {
+        Servidor saved = servidorRepository.save(
+                new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        String etag = webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        assertNotNull(etag);
+        
+        webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        
+        webTestClient.put().uri("/api/servidores/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, "\"stale\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Servidor("Outro Nome", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertEquals("Maria Santos", servidorRepository.findById(saved.getId()).orElseThrow().getNome());
+        
+        webTestClient.put().uri("/api/servidores/{id}", saved.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new Servidor("Maria Souza", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG);
+    }
+    
+    @Test
+    void patchServidor_VersionChecked() {
+        Servidor saved = servidorRepository.save(
+                new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        webTestClient.patch().uri("/api/servidores/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("nome", "Maria Souza", "version", 0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nome").isEqualTo("Maria Souza")
+                .jsonPath("$.secretaria.sigla").isEqualTo("SMED")
+                .jsonPath("$.version").isEqualTo(1);
+        
+        webTestClient.patch().uri("/api/servidores/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("nome", "Outro Nome", "version", 0))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        assertEquals("Maria Souza", servidorRepository.findById(saved.getId()).orElseThrow().getNome());
+    }
+    
+    @Test
+    void getServidorById_NotFound() {
+        webTestClient.get().uri("/api/servidores/{id}", "000000000000000000000000")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.error").isEqualTo("Recurso não encontrado")
+                .jsonPath("$.path").isEqualTo("uri=/api/servidores/000000000000000000000000");
+    }
+    
+    @Test
+    void getAllServidores_KeysetPagination() {
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), testSecretaria));
+        servidorRepository.save(new Servidor("Bruno", "bruno@email.com", LocalDate.of(1990, 1, 1), testSecretaria));
+        servidorRepository.save(new Servidor("Carla", "carla@email.com", LocalDate.of(1990, 1, 1), testSecretaria));
+        
+        String cursor = webTestClient.get().uri("/api/servidores?limit=2&sort=nome")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("Link")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].nome").isEqualTo("Ana")
+                .jsonPath("$[1].secretaria.sigla").isEqualTo("SMED")
+                .returnResult()
+                .getResponseHeaders()
+                .getFirst(PageResponses.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+        
+        webTestClient.get().uri("/api/servidores?limit=2&sort=nome&after={after}", cursor)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(PageResponses.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].nome").isEqualTo("Carla");
+    }
+    
+    @Test
+    void getAllServidores_NdjsonStream() {
+        for (int i = 0; i < 5; i++) {
+            servidorRepository.save(new Servidor("Servidor " + i, "servidor" + i + "@email.com",
+                    LocalDate.of(1990, 1, 1), testSecretaria));
+        }
+        
+        List<Servidor> streamed = webTestClient.get().uri("/api/servidores?sort=nome")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Servidor.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        
+        assertNotNull(streamed);
+        assertEquals(5, streamed.size());
+        assertEquals("Servidor 0", streamed.get(0).getNome());
+        assertEquals("SMED", streamed.get(4).getSecretaria().getSigla());
+    }
+    
+    @Test
+    void getAllServidores_SparseFields() {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        
+        webTestClient.get().uri("/api/servidores?fields=nome,secretaria.sigla")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].nome").isEqualTo("João Silva")
+                .jsonPath("$[0].secretaria.sigla").isEqualTo("SMED")
+                .jsonPath("$[0].email").doesNotExist()
+                .jsonPath("$[0].idade").doesNotExist()
+                .jsonPath("$[0].secretaria.nome").doesNotExist();
+        
+        String line = webTestClient.get().uri("/api/servidores?fields=email")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .blockFirst();
+        assertEquals("{\"email\":\"joao@email.com\"}", line);
+        
+        webTestClient.get().uri("/api/servidores?fields=salario")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+    
+    @Test
+    void exportServidores_Csv() {
+        servidorRepository.save(new Servidor("Silva, José", "jose@email.com", LocalDate.of(1980, 7, 1), testSecretaria));
+        
+        String csv = webTestClient.get().uri("/api/servidores/export?format=csv")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+        
+        assertNotNull(csv);
+        String[] lines = csv.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,nome,email"));
+        assertTrue(lines[1].contains("\"Silva, José\",jose@email.com,1980-07-01"));
+    }
+    
+    @Test
+    void exportServidores_FormatFromAccept() throws IOException {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        
+        byte[] body = webTestClient.get().uri("/api/servidores/export")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+                .expectHeader().values(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT))
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        List<Servidor> servidores = BinaryFormatsConfig.cborMapper(objectMapper).readerFor(Servidor.class)
+                .<Servidor>readValues(body).readAll();
+        assertEquals(1, servidores.size());
+        
+        // ?format= still overrides the Accept header
+        webTestClient.get().uri("/api/servidores/export?format=csv")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv");
+    }
+    
+    @Test
+    void getServidorById_ETagPerFormat() {
+        Servidor saved = servidorRepository.save(
+                new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        String jsonEtag = webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().values(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT))
+                .returnResult(String.class).getResponseHeaders().getETag();
+        String smileEtag = webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class).getResponseHeaders().getETag();
+        assertNotNull(jsonEtag);
+        assertNotEquals(jsonEtag, smileEtag);
+        
+        // The JSON version does not validate a cached Smile body
+        webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonEtag)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/servidores/{id}", saved.getId())
+                .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                .header(HttpHeaders.IF_NONE_MATCH, smileEtag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+    
+    @Test
+    void listAndBatch_BinaryFormats() throws IOException {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        servidorRepository.save(new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        for (MediaType type : List.of(BinaryFormatsConfig.APPLICATION_SMILE, MediaType.APPLICATION_CBOR)) {
+            ObjectMapper mapper = type.equals(MediaType.APPLICATION_CBOR)
+                    ? BinaryFormatsConfig.cborMapper(objectMapper)
+                    : BinaryFormatsConfig.smileMapper(objectMapper);
+            byte[] body = webTestClient.get().uri("/api/servidores")
+                    .accept(type)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(type)
+                    .expectBody(byte[].class)
+                    .returnResult()
+                    .getResponseBody();
+            
+            // Streamed element by element, still one array
+            List<Servidor> servidores = mapper.readValue(body, new TypeReference<List<Servidor>>() {});
+            assertEquals(2, servidores.size(), type.toString());
+            assertTrue(servidores.stream()
+                    .anyMatch(servidor -> LocalDate.of(1990, 5, 15).equals(servidor.getDataNascimento())));
+            assertTrue(servidores.stream().allMatch(servidor -> "SMED".equals(servidor.getSecretaria().getSigla())));
+        }
+        
+        // Request body in CBOR, decoded as a whole list
+        byte[] batch = BinaryFormatsConfig.cborMapper(objectMapper).writeValueAsBytes(List.of(
+                new Servidor("Ana Souza", "ana@email.com", LocalDate.of(1992, 7, 1), testSecretaria)));
+        webTestClient.post().uri("/api/servidores/batch")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(batch)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(1);
+    }
+    
+    @Test
+    void deleteSecretaria_WithServidores() {
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), testSecretaria));
+        // Saved behind the services' back, so counted by hand
+        secretariaRepository.incrementServidorCount(testSecretaria.getId(), 1);
+        
+        webTestClient.delete().uri("/api/secretarias/{id}", testSecretaria.getId())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Erro de negócio");
+    }
+    
+    @Test
+    void deleteServidor_Success() {
+        Servidor saved = servidorRepository.save(
+                new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        
+        webTestClient.delete().uri("/api/servidores/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        
+        assertTrue(servidorRepository.findById(saved.getId()).isEmpty());
+    }
+}
@@ -6,8 +6,10 @@ import com.municipal.repository.SecretariaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -15,6 +17,8 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.Map;
+
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,12 +37,16 @@ class SecretariaControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -68,6 +76,26 @@ class SecretariaControllerTest {
                 .andExpect(jsonPath("$[*].sigla", containsInAnyOrder("SMED", "SMS")));
     }
 
+    @Test
+    void getAllSecretarias_KeysetPagination() throws Exception {
+        secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+        secretariaRepository.save(new Secretaria("Secretaria de Obras", "SMO"));
+
+        MvcResult firstPage = mockMvc.perform(get("/api/secretarias").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/secretarias")
+                        .param("limit", "2")
+                        .param("after", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     void getSecretariaById_Success() throws Exception {
         Secretaria saved = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
@@ -97,6 +125,26 @@ class SecretariaControllerTest {
                 .andExpect(jsonPath("$.updatedAt").exists());
     }
 
+    @Test
+    void updateSecretaria_EvictsCachedReads() throws Exception {
+        Secretaria original = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+
+        mockMvc.perform(get("/api/secretarias/{id}", original.getId()))
+                .andExpect(jsonPath("$.sigla").value("SMED"));
+        mockMvc.perform(get("/api/secretarias"))
+                .andExpect(jsonPath("$[0].sigla").value("SMED"));
+
+        mockMvc.perform(put("/api/secretarias/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Secretaria("Secretaria Municipal de Educação", "SME"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/secretarias/{id}", original.getId()))
+                .andExpect(jsonPath("$.sigla").value("SME"));
+        mockMvc.perform(get("/api/secretarias"))
+                .andExpect(jsonPath("$[0].sigla").value("SME"));
+    }
+
     @Test
     void updateSecretaria_NotFound() throws Exception {
         Secretaria secretaria = new Secretaria("Secretaria de Educação", "SMED");
@@ -123,6 +171,49 @@ class SecretariaControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Já existe uma secretaria com a sigla: SMED")));
     }
 
+    @Test
+    void patchSecretaria_Success() throws Exception {
+        Secretaria saved = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        secretariaRepository.incrementServidorCount(saved.getId(), 3);
+
+        mockMvc.perform(patch("/api/secretarias/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("sigla", "smec", "version", 0))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Secretaria de Educação"))
+                .andExpect(jsonPath("$.sigla").value("SMEC"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // The servidor count is not part of the patch and survives it
+        mockMvc.perform(get("/api/secretarias/headcount"))
+                .andExpect(jsonPath("$[0].servidorCount").value(3));
+    }
+
+    @Test
+    void patchSecretaria_StaleVersionOrDuplicateSigla() throws Exception {
+        Secretaria saved = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+
+        mockMvc.perform(patch("/api/secretarias/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("sigla", "sms", "version", 0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Já existe uma secretaria com a sigla: SMS")));
+        mockMvc.perform(patch("/api/secretarias/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nome", "Educação", "version", 7))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void patchSecretaria_CorsPreflightAllowed() throws Exception {
+        mockMvc.perform(options("/api/secretarias/{id}", "1")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, containsString("PATCH")));
+    }
+
     @Test
     void deleteSecretaria_Success() throws Exception {
         Secretaria saved = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
@@ -0,0 +1,214 @@
+package com.municipal.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.municipal.config.ServidorCountReconciler;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The servidor count of each secretaria follows creates, batch creates, moves and deletes.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class SecretariaHeadcountTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private ServidorCountReconciler servidorCountReconciler;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+    private Secretaria educacao;
+    private Secretaria saude;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        saude = secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+    }
+
+    @Test
+    void headcount_FollowsCreateMoveAndDelete() throws Exception {
+        String id = create(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+        create(new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), educacao));
+        assertCounts(2, 0);
+
+        // Rejected duplicate: the provisional count is taken back
+        mockMvc.perform(post("/api/servidores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Servidor("João Souza", "JOAO@email.com", LocalDate.of(1991, 1, 1), educacao))))
+                .andExpect(status().isBadRequest());
+        assertCounts(2, 0);
+
+        mockMvc.perform(put("/api/servidores/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), saude))))
+                .andExpect(status().isOk());
+        assertCounts(1, 1);
+
+        mockMvc.perform(delete("/api/servidores/{id}", id))
+                .andExpect(status().isNoContent());
+        assertCounts(1, 0);
+
+        mockMvc.perform(get("/api/secretarias/headcount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].sigla").value("SMED"))
+                .andExpect(jsonPath("$[0].servidorCount").value(1))
+                .andExpect(jsonPath("$[1].sigla").value("SMS"))
+                .andExpect(jsonPath("$[1].servidorCount").value(0));
+    }
+
+    @Test
+    void headcount_FollowsBatchCreate() throws Exception {
+        List<Servidor> batch = List.of(
+                new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), educacao),
+                new Servidor("Bruno", "bruno@email.com", LocalDate.of(1990, 1, 1), saude),
+                new Servidor("Carla", "carla@email.com", LocalDate.of(1990, 1, 1), saude),
+                new Servidor("Ana de Novo", "ANA@email.com", LocalDate.of(1990, 1, 1), saude));
+
+        mockMvc.perform(post("/api/servidores/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(jsonPath("$.created").value(3));
+
+        assertCounts(1, 2);
+    }
+
+    @Test
+    void deleteSecretaria_GuardedByCount() throws Exception {
+        String id = create(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+
+        mockMvc.perform(delete("/api/secretarias/{id}", educacao.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("possui 1 servidor(es)")));
+
+        mockMvc.perform(delete("/api/servidores/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/secretarias/{id}", educacao.getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void reconcile_RepairsDrift() {
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), educacao));
+        servidorRepository.save(new Servidor("Bruno", "bruno@email.com", LocalDate.of(1990, 1, 1), educacao));
+        secretariaRepository.incrementServidorCount(saude.getId(), 5);
+
+        // Raised at once; lowered once the next run finds the same excess
+        servidorCountReconciler.reconcile();
+        assertCounts(2, 5);
+
+        servidorCountReconciler.reconcile();
+        assertCounts(2, 0);
+    }
+
+    @Test
+    void reconcile_KeepsCountOfCreateInProgress() {
+        // A create has incremented the count and not inserted yet
+        secretariaRepository.incrementServidorCount(educacao.getId(), 1);
+        servidorCountReconciler.reconcile();
+        assertCounts(1, 0);
+
+        // Another create moved the count before the next run: the earlier excess is not confirmed
+        secretariaRepository.incrementServidorCount(educacao.getId(), 1);
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1), educacao));
+        servidorCountReconciler.reconcile();
+        assertCounts(2, 0);
+    }
+
+    @Test
+    void deleteSecretaria_WithoutStoredCount() throws Exception {
+        // Stored before the counter existed
+        Document vazia = mongoTemplate.insert(new Document("nome", "Secretaria de Obras").append("sigla", "SMO"),
+                "secretarias");
+        Document ocupada = mongoTemplate.insert(new Document("nome", "Secretaria de Cultura").append("sigla", "SMC"),
+                "secretarias");
+        String vaziaId = vazia.get("_id").toString();
+        String ocupadaId = ocupada.get("_id").toString();
+        servidorRepository.save(new Servidor("Ana", "ana@email.com", LocalDate.of(1990, 1, 1),
+                secretariaRepository.findById(ocupadaId).orElseThrow()));
+
+        // Unknown count: not deleted, even with no servidores
+        assertTrue(secretariaRepository.deleteIfNoServidores(vaziaId).isEmpty());
+
+        servidorCountReconciler.afterSingletonsInstantiated();
+        assertEquals(0, secretariaRepository.findServidorCount(vaziaId));
+        assertEquals(1, secretariaRepository.findServidorCount(ocupadaId));
+
+        mockMvc.perform(delete("/api/secretarias/{id}", ocupadaId))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("possui 1 servidor(es)")));
+        mockMvc.perform(delete("/api/secretarias/{id}", vaziaId))
+                .andExpect(status().isNoContent());
+    }
+
+    private String create(Servidor servidor) throws Exception {
+        String body = mockMvc.perform(post("/api/servidores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(servidor)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private void assertCounts(long educacaoCount, long saudeCount) {
+        assertEquals(educacaoCount, secretariaRepository.findServidorCount(educacao.getId()));
+        assertEquals(saudeCount, secretariaRepository.findServidorCount(saude.getId()));
+    }
+}
@@ -2,6 +2,7 @@ package com.municipal.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.municipal.model.NomeTokens;
 import com.municipal.model.Secretaria;
 import com.municipal.model.Servidor;
 import com.municipal.repository.SecretariaRepository;
@@ -9,17 +10,25 @@ import com.municipal.repository.ServidorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +46,9 @@ class ServidorControllerTest {
     @Autowired
     private SecretariaRepository secretariaRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private ObjectMapper objectMapper;
     private MockMvc mockMvc;
     private Secretaria testSecretaria;
@@ -50,6 +62,7 @@ class ServidorControllerTest {
         // Clean up
         servidorRepository.deleteAll();
         secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         
         // Create test secretaria
         testSecretaria = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
@@ -77,6 +90,19 @@ class ServidorControllerTest {
                 .andExpect(jsonPath("$.updatedAt").exists());
     }
 
+    @Test
+    void createServidor_DuplicateEmailIgnoringCase() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+
+        Servidor duplicate = new Servidor("João Souza", "JOAO@Email.com", LocalDate.of(1991, 6, 1), testSecretaria);
+
+        mockMvc.perform(post("/api/servidores")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicate)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Já existe um servidor com o email: JOAO@Email.com")));
+    }
+
     @Test
     void getAllServidores_Success() throws Exception {
         // Create test data
@@ -89,6 +115,189 @@ class ServidorControllerTest {
                 .andExpect(jsonPath("$[*].email", containsInAnyOrder("joao@email.com", "maria@email.com")));
     }
 
+    @Test
+    void getAllServidores_KeysetPagination() throws Exception {
+        servidorRepository.save(new Servidor("Ana Lima", "ana@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        servidorRepository.save(new Servidor("Bruno Costa", "bruno@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        servidorRepository.save(new Servidor("Carla Dias", "carla@email.com", LocalDate.of(1980, 1, 10), testSecretaria));
+
+        MvcResult firstPage = mockMvc.perform(get("/api/servidores").param("limit", "2").param("sort", "nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].nome", contains("Ana Lima", "Bruno Costa")))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/servidores").param("limit", "2").param("sort", "nome").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome").value("Carla Dias"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllServidores_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllServidores_FilteredByAgeAndSecretaria() throws Exception {
+        LocalDate today = LocalDate.now();
+        Secretaria saude = secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+        servidorRepository.save(new Servidor("Ana Lima", "ana@email.com", today.minusYears(60), testSecretaria));
+        // Turns 66 tomorrow: still 65
+        servidorRepository.save(new Servidor("Bruno Costa", "bruno@email.com", today.minusYears(66).plusDays(1), testSecretaria));
+        servidorRepository.save(new Servidor("Carla Dias", "carla@email.com", today.minusYears(66), testSecretaria));
+        servidorRepository.save(new Servidor("Davi Rocha", "davi@email.com", today.minusYears(59).plusDays(1), testSecretaria));
+        servidorRepository.save(new Servidor("Eva Souza", "eva@email.com", today.minusYears(62), saude));
+
+        // Filtered listings come oldest first, in the order of the index serving the filter
+        MvcResult firstPage = mockMvc.perform(get("/api/servidores?idadeMin=60&idadeMax=65&secretariaId={id}&limit=1",
+                        testSecretaria.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nome", contains("Bruno Costa")))
+                .andExpect(header().string("Link", containsString("idadeMin=60")))
+                .andReturn();
+
+        mockMvc.perform(get("/api/servidores")
+                        .param("idadeMin", "60").param("idadeMax", "65")
+                        .param("secretariaId", testSecretaria.getId())
+                        .param("limit", "1")
+                        .param("after", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nome", contains("Ana Lima")))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/servidores").param("idadeMin", "60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nome", contains("Carla Dias", "Bruno Costa", "Eva Souza", "Ana Lima")));
+
+        mockMvc.perform(get("/api/servidores").param("idadeMin", "60").param("sort", "nome"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllServidores_InvalidAgeRange() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("idadeMin", "60").param("idadeMax", "30"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("idadeMin deve ser menor ou igual a idadeMax"));
+    }
+
+    @Test
+    void searchServidores_IgnoresAccentsAndRanksWholeWords() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        servidorRepository.save(new Servidor("Joana Prado", "joana@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+        servidorRepository.save(new Servidor("Maria Joaquina", "maria@email.com", LocalDate.of(1980, 1, 10), testSecretaria));
+
+        mockMvc.perform(get("/api/servidores/search").param("q", "Joao"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$[0].secretaria.sigla").value("SMED"));
+
+        mockMvc.perform(get("/api/servidores/search").param("q", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].nome").value("Maria Joaquina"));
+
+        mockMvc.perform(get("/api/servidores/search").param("q", "sil jo").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome").value("João Silva"));
+    }
+
+    @Test
+    void searchServidores_RequiresTerm() throws Exception {
+        mockMvc.perform(get("/api/servidores/search").param("q", "a"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportServidores_Ndjson() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+        servidorRepository.save(new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria));
+
+        MvcResult result = mockMvc.perform(get("/api/servidores/export").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("SMED",
+                objectMapper.readTree(lines[0]).path("secretaria").path("sigla").asText());
+    }
+
+    @Test
+    void exportServidores_Csv() throws Exception {
+        servidorRepository.save(new Servidor("Silva, João", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+
+        MvcResult result = mockMvc.perform(get("/api/servidores/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("id,nome,email,dataNascimento")))
+                .andExpect(content().string(containsString("\"Silva, João\",joao@email.com,1990-05-15")));
+    }
+
+    @Test
+    void createServidoresBatch_ReportsResultPerItem() throws Exception {
+        servidorRepository.save(new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria));
+
+        Secretaria unknown = new Secretaria("Inexistente", "XX");
+        unknown.setId("000000000000000000000000");
+
+        List<Servidor> batch = List.of(
+            new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria),
+            new Servidor("João Duplicado", "JOAO@email.com", LocalDate.of(1990, 5, 15), testSecretaria),
+            new Servidor("Pedro Jovem", "pedro@email.com", LocalDate.now().minusYears(16), testSecretaria),
+            new Servidor("Maria Repetida", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria),
+            new Servidor("Ana Souza", "ana@email.com", LocalDate.of(1992, 7, 1), unknown)
+        );
+
+        mockMvc.perform(post("/api/servidores/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].id").exists())
+                .andExpect(jsonPath("$.items[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.items[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.items[3].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.items[4].status").value("INVALID"));
+
+        assertEquals(2, servidorRepository.count());
+    }
+
+    @Test
+    void createServidoresBatch_AllCreated() throws Exception {
+        List<Servidor> batch = List.of(
+            new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), testSecretaria),
+            new Servidor("Ana Souza", "ana@email.com", LocalDate.of(1992, 7, 1), testSecretaria)
+        );
+
+        mockMvc.perform(post("/api/servidores/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        mockMvc.perform(get("/api/servidores"))
+                .andExpect(jsonPath("$[*].secretaria.sigla", everyItem(is("SMED"))));
+    }
+
     @Test
     void getServidorById_Success() throws Exception {
         Servidor saved = servidorRepository.save(
@@ -178,6 +387,92 @@ class ServidorControllerTest {
                 .andExpect(jsonPath("$.message", containsString("Idade inválida")));
     }
 
+    @Test
+    void patchServidor_ChangesOnlyGivenFields() throws Exception {
+        Servidor original = servidorRepository.save(
+            new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria)
+        );
+        Secretaria saude = secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+        secretariaRepository.incrementServidorCount(testSecretaria.getId(), 1);
+
+        mockMvc.perform(patch("/api/servidores/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "nome", "João Souza", "secretariaId", saude.getId(), "version", 0))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.nome").value("João Souza"))
+                .andExpect(jsonPath("$.email").value("joao@email.com"))
+                .andExpect(jsonPath("$.secretaria.sigla").value("SMS"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        Servidor stored = servidorRepository.findById(original.getId()).orElseThrow();
+        assertEquals("João Souza", stored.getNome());
+        assertEquals(NomeTokens.of("João Souza"), stored.getNomeTokens());
+        assertEquals(LocalDate.of(1990, 5, 15), stored.getDataNascimento());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(0, secretariaRepository.findServidorCount(testSecretaria.getId()));
+        assertEquals(1, secretariaRepository.findServidorCount(saude.getId()));
+    }
+
+    @Test
+    void patchServidor_StaleVersion() throws Exception {
+        Servidor original = servidorRepository.save(
+            new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria)
+        );
+        String stale = objectMapper.writeValueAsString(Map.of("nome", "Outro Nome", "version", 0));
+
+        mockMvc.perform(patch("/api/servidores/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("nome", "João Souza", "version", 0))))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/servidores/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stale))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflito de versão"));
+        assertEquals("João Souza", servidorRepository.findById(original.getId()).orElseThrow().getNome());
+
+        mockMvc.perform(patch("/api/servidores/{id}", "000000000000000000000000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(stale))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patchServidor_ValidationError() throws Exception {
+        Servidor original = servidorRepository.save(
+            new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria)
+        );
+
+        mockMvc.perform(patch("/api/servidores/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", "invalido"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Versão é obrigatória")))
+                .andExpect(jsonPath("$.message", containsString("E-mail deve ter um formato válido")));
+        mockMvc.perform(patch("/api/servidores/{id}", original.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("version", 0))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Informe ao menos um campo para atualizar"));
+    }
+
+    @Test
+    void updateServidor_StaleWriteConflicts() throws Exception {
+        Servidor original = servidorRepository.save(
+            new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria)
+        );
+        Servidor first = servidorRepository.findById(original.getId()).orElseThrow();
+        Servidor second = servidorRepository.findById(original.getId()).orElseThrow();
+
+        first.setNome("João Souza");
+        servidorRepository.save(first);
+        second.setNome("João Santos");
+        assertThrows(OptimisticLockingFailureException.class, () -> servidorRepository.save(second));
+        assertEquals("João Souza", servidorRepository.findById(original.getId()).orElseThrow().getNome());
+    }
+
     @Test
     void deleteServidor_Success() throws Exception {
         Servidor saved = servidorRepository.save(
@@ -188,6 +483,42 @@ class ServidorControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void deleteServidor_NotFoundAfterConcurrentDelete() throws Exception {
+        Servidor saved = servidorRepository.save(
+            new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), testSecretaria)
+        );
+        servidorRepository.deleteById(saved.getId());
+
+        mockMvc.perform(delete("/api/servidores/{id}", saved.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteServidores_ByIdList() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (String email : List.of("a@email.com", "b@email.com", "c@email.com")) {
+            MvcResult created = mockMvc.perform(post("/api/servidores")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new Servidor("Servidor " + email, email, LocalDate.of(1990, 5, 15), testSecretaria))))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ids.add(objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText());
+        }
+        String missing = "64b7f0c2a1b2c3d4e5f60718";
+
+        mockMvc.perform(delete("/api/servidores")
+                        .param("ids", ids.get(0) + "," + ids.get(1) + "," + missing))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound", contains(missing)));
+
+        assertEquals(List.of(ids.get(2)), servidorRepository.findAll().stream().map(Servidor::getId).toList());
+        assertEquals(1, secretariaRepository.findServidorCount(testSecretaria.getId()));
+    }
+
     @Test
     void createServidor_ValidationError() throws Exception {
         Servidor invalid = new Servidor("", "invalid-email", LocalDate.now().plusDays(1), testSecretaria);
@@ -0,0 +1,162 @@
+package com.municipal.controller;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the Mongo commands issued by list requests: the number must not grow with the number of rows.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ServidorListCommandCountTest {
+
+    private static final Map<String, AtomicInteger> COMMANDS = new ConcurrentHashMap<>();
+
+    // Lists read the newest updatedAt of servidores and of secretarias for their ETag: a fixed cost per request
+    private static final int LIST_VERSION_FINDS = 2;
+
+    @TestConfiguration
+    static class CommandCountingConfig {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCountingCustomizer() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    COMMANDS.computeIfAbsent(event.getCommandName(), name -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        List<Secretaria> secretarias = secretariaRepository.saveAll(List.of(
+                new Secretaria("Secretaria de Educação", "SMED"),
+                new Secretaria("Secretaria de Saúde", "SMS"),
+                new Secretaria("Secretaria de Obras", "SMO")));
+
+        for (int i = 0; i < 30; i++) {
+            servidorRepository.save(new Servidor("Servidor " + i, "servidor" + i + "@email.com",
+                    LocalDate.of(1980, 1, 1).plusDays(i), secretarias.get(i % secretarias.size())));
+        }
+        COMMANDS.clear();
+    }
+
+    @Test
+    void listPage_IssuesOneFindForServidoresAndOneForSecretarias() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("limit", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(25)))
+                .andExpect(jsonPath("$[0].secretaria.sigla").exists());
+
+        assertEquals(2 + LIST_VERSION_FINDS, finds());
+    }
+
+    @Test
+    void listPage_CommandCountDoesNotDependOnPageSize() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("limit", "5"))
+                .andExpect(status().isOk());
+        int smallPage = finds();
+
+        cacheManager.getCache("secretarias").clear();
+        COMMANDS.clear();
+        mockMvc.perform(get("/api/servidores").param("limit", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(30)));
+
+        assertEquals(smallPage, finds());
+    }
+
+    @Test
+    void listPage_ResolvesCachedSecretariasWithoutQuerying() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("limit", "10"))
+                .andExpect(status().isOk());
+
+        COMMANDS.clear();
+        mockMvc.perform(get("/api/servidores").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].secretaria.sigla").exists());
+
+        assertEquals(1 + LIST_VERSION_FINDS, finds());
+    }
+
+    @Test
+    void getById_ResolvesCachedSecretariaWithoutQuerying() throws Exception {
+        String id = servidorRepository.findAll().get(0).getId();
+        COMMANDS.clear();
+
+        mockMvc.perform(get("/api/servidores/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secretaria.sigla").exists());
+
+        assertEquals(1, finds());
+    }
+
+    @Test
+    void findBySecretariaId_IssuesTwoFinds() {
+        String secretariaId = secretariaRepository.findBySiglaIgnoreCase("SMED").orElseThrow().getId();
+        cacheManager.getCache("secretarias").clear();
+        COMMANDS.clear();
+
+        List<Servidor> servidores = servidorRepository.findBySecretariaId(secretariaId);
+
+        assertEquals(10, servidores.size());
+        assertEquals("SMED", servidores.get(0).getSecretaria().getSigla());
+        assertEquals(2, finds());
+    }
+
+    private static int finds() {
+        AtomicInteger finds = COMMANDS.get("find");
+        return finds != null ? finds.get() : 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.municipal.controller;
+
+import com.municipal.dto.SlowQueryReport;
+import com.municipal.monitoring.SlowQueryDetector;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every command counts as slow here (threshold 0); explain is disabled so only the capture path runs.
+ */
+@SpringBootTest(properties = {
+        "municipal.admin.enabled=true",
+        "municipal.slow-query.threshold=0ms",
+        "municipal.slow-query.explain-sample-rate=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SlowQueryAdminTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SlowQueryDetector slowQueryDetector;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @BeforeEach
+    void setUp() {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        slowQueryDetector.clear();
+    }
+
+    @Test
+    void slowQueries_AttributedToRepositoryMethodAndCaller() throws Exception {
+        mockMvc.perform(post("/api/secretarias")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Secretaria de Educação\",\"sigla\":\"SMED\"}"))
+                .andExpect(status().isCreated());
+
+        List<SlowQueryReport> reports = slowQueryDetector.recent(false, 200);
+        SlowQueryReport exists = reports.stream()
+                .filter(report -> "SecretariaRepository.existsBySiglaIgnoreCase".equals(report.getRepositoryMethod()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("consulta não registrada: " + reports));
+
+        assertNotNull(exists.getCaller());
+        assertTrue(exists.getCaller().startsWith("SecretariaService."), exists.getCaller());
+        assertTrue(exists.getShape().contains(" secretarias "), exists.getShape());
+        assertFalse(exists.getShape().contains("SMED"), exists.getShape());
+    }
+
+    @Test
+    void slowQueriesEndpoint_ListsAndClears() throws Exception {
+        mockMvc.perform(get("/api/secretarias"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/slow-queries").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].command").exists())
+                .andExpect(jsonPath("$[0].durationMillis").exists());
+
+        // Nothing was explained, so nothing is flagged
+        mockMvc.perform(get("/api/admin/slow-queries").param("flagged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(delete("/api/admin/slow-queries"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
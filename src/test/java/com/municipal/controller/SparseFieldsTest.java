@@ -0,0 +1,130 @@
+package com.municipal.controller;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.SecretariaRepository;
+import com.municipal.repository.ServidorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sparse fieldsets ({@code ?fields=}) on the servidor and secretaria read endpoints.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class SparseFieldsTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private MockMvc mockMvc;
+    private Servidor joao;
+    private Secretaria educacao;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        joao = servidorRepository.save(
+                new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), educacao));
+    }
+
+    @Test
+    void listServidores_OnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("fields", "id,nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(joao.getId()))
+                .andExpect(jsonPath("$[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].idade").doesNotExist())
+                .andExpect(jsonPath("$[0].secretaria").doesNotExist());
+    }
+
+    @Test
+    void listServidores_ComputedFieldReadsItsSource() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("fields", "idade"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idade").isNumber())
+                .andExpect(jsonPath("$[0].dataNascimento").doesNotExist())
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+    }
+
+    @Test
+    void getServidor_NestedSecretariaFields() throws Exception {
+        mockMvc.perform(get("/api/servidores/{id}", joao.getId()).param("fields", "email,secretaria.sigla"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("joao@email.com"))
+                .andExpect(jsonPath("$.secretaria.sigla").value("SMED"))
+                .andExpect(jsonPath("$.secretaria.nome").doesNotExist())
+                .andExpect(jsonPath("$.nome").doesNotExist());
+
+        mockMvc.perform(get("/api/servidores/{id}", joao.getId()).param("fields", "nome,secretaria"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secretaria.nome").value("Secretaria de Educação"))
+                .andExpect(jsonPath("$.secretaria.sigla").value("SMED"));
+    }
+
+    @Test
+    void searchServidores_OnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/api/servidores/search").param("q", "joao").param("fields", "email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].email").value("joao@email.com"))
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+    }
+
+    @Test
+    void secretarias_OnlySelectedFields() throws Exception {
+        mockMvc.perform(get("/api/secretarias").param("fields", "sigla"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sigla").value("SMED"))
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+
+        // The same page without a selection is cached apart
+        mockMvc.perform(get("/api/secretarias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nome").value("Secretaria de Educação"));
+
+        mockMvc.perform(get("/api/secretarias/{id}", educacao.getId()).param("fields", "id,nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Secretaria de Educação"))
+                .andExpect(jsonPath("$.sigla").doesNotExist());
+    }
+
+    @Test
+    void unknownField_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/servidores").param("fields", "nome,salario"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/secretarias").param("fields", "secretaria.sigla"))
+                .andExpect(status().isBadRequest());
+    }
+}
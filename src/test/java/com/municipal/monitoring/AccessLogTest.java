@@ -0,0 +1,94 @@
+package com.municipal.monitoring;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.municipal.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sampling of the access log: with a rate of 0 only errors are written.
+ */
+@SpringBootTest(properties = "municipal.access-log.sample-rate=0")
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class AccessLogTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private AccessLogFilter accessLogFilter;
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(AccessLog.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).addFilters(accessLogFilter).build();
+        events.start();
+        accessLogger.addAppender(events);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(events);
+    }
+
+    @Test
+    void successNotSampled_ErrorAlwaysWritten() throws Exception {
+        mockMvc.perform(get("/api/secretarias"))
+                .andExpect(status().isOk());
+        assertEquals(List.of(), events.list);
+
+        mockMvc.perform(get("/api/servidores/{id}", "000000000000000000000000"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, events.list.size());
+        String line = events.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("\"method\":\"GET\""), line);
+        assertTrue(line.contains("\"path\":\"/api/servidores/000000000000000000000000\""), line);
+        assertTrue(line.contains("\"route\":\"/api/servidores/{id}\""), line);
+        assertTrue(line.contains("\"status\":404"), line);
+        assertTrue(line.contains("\"error\":\"" + ResourceNotFoundException.class.getName() + "\""), line);
+        assertTrue(line.contains("\"sampleRate\":1.0"), line);
+    }
+
+    @Test
+    void fullRate_WritesSuccess() {
+        new AccessLog(1.0).record("POST", "/api/servidores", "/api/servidores", 201, 2_500_000, null);
+
+        assertEquals(1, events.list.size());
+        String line = events.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("\"status\":201,\"durationMicros\":2500,\"error\":null,\"sampleRate\":1.0}"), line);
+    }
+
+    @Test
+    void format_EscapesStrings() {
+        String line = AccessLog.format(Instant.parse("2024-01-01T00:00:00Z"), "GET", "/api/\"x\"\\y", null,
+                400, 1_000, null, 1.0);
+
+        assertEquals("{\"ts\":\"2024-01-01T00:00:00Z\",\"method\":\"GET\",\"path\":\"/api/\\\"x\\\"\\\\y\","
+                + "\"route\":null,\"status\":400,\"durationMicros\":1,\"error\":null,\"sampleRate\":1.0}", line);
+    }
+}
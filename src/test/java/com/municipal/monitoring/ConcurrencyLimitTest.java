@@ -0,0 +1,130 @@
+package com.municipal.monitoring;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.municipal.config.CorsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * How the adaptive limit follows latency, and the 503 the servlet filter answers with over it.
+ */
+class ConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void steadyLatencyAtLimit_LimitGrows() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 200);
+
+        saturated(limiter, 10, FAST);
+
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void latencySpike_LimitShrinks() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 200);
+        saturated(limiter, 5, FAST);
+        int before = limiter.getLimit();
+
+        saturated(limiter, 10, SLOW);
+
+        assertTrue(limiter.getLimit() < before * 2 / 3, before + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    void fewRequestsInFlight_LimitStays() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 4, 200);
+
+        for (int i = 0; i < 10 * AdaptiveLimiter.WINDOW_SIZE; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void atLimit_AcquireRefused() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 4, 8);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void filter_OverLimitReadGets503_WritesLimitedApart() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimits limits = new ConcurrencyLimits(meterRegistry, 1, 1, 1, Duration.ofSeconds(2));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limits,
+                JsonMapper.builder().findAndAddModules().build(), new CorsConfig().corsConfigurationSource());
+        MockHttpServletRequest crossOriginRead = new MockHttpServletRequest("GET", "/api/servidores");
+        crossOriginRead.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        MockHttpServletResponse secondRead = new MockHttpServletResponse();
+        MockHttpServletResponse write = new MockHttpServletResponse();
+
+        // While the first read holds the only read slot, a second read is turned away and a write is not
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/servidores"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    filter.doFilter(crossOriginRead, secondRead, new MockFilterChain());
+                    filter.doFilter(new MockHttpServletRequest("POST", "/api/servidores"), write,
+                            new MockFilterChain());
+                });
+
+        assertEquals(503, secondRead.getStatus());
+        assertEquals("2", secondRead.getHeader(HttpHeaders.RETRY_AFTER));
+        // Answered before Spring MVC applies CORS, so the filter adds the headers a browser needs to read it
+        assertEquals("http://localhost:3000", secondRead.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertTrue(secondRead.getHeaders(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS).toString()
+                .contains(HttpHeaders.RETRY_AFTER));
+        String body = secondRead.getContentAsString();
+        assertTrue(body.contains("\"error\":\"Serviço sobrecarregado\""), body);
+        assertEquals(200, write.getStatus());
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimits.REJECTED).tag("class", ConcurrencyLimits.READ)
+                .counter().count());
+        assertEquals(0, limits.limiter(ConcurrencyLimits.READ).getInFlight());
+        assertEquals(0, limits.limiter(ConcurrencyLimits.WRITE).getInFlight());
+    }
+
+    @Test
+    void filter_OutsideApi_NotLimited() throws Exception {
+        ConcurrencyLimits limits = new ConcurrencyLimits(new SimpleMeterRegistry(), 1, 1, 1, Duration.ofSeconds(1));
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limits, JsonMapper.builder().build(),
+                new CorsConfig().corsConfigurationSource());
+        assertTrue(limits.limiter(ConcurrencyLimits.READ).tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    /**
+     * Feed the limiter {@code windows} windows of samples while keeping every slot taken
+     */
+    private static void saturated(AdaptiveLimiter limiter, int windows, long rttNanos) {
+        for (int i = 0; i < windows * AdaptiveLimiter.WINDOW_SIZE; i++) {
+            while (limiter.tryAcquire()) {
+                // take the slots the limit grew by
+            }
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.municipal.monitoring;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryPlanTest {
+
+    private static final double MAX_RATIO = 10;
+
+    @Test
+    void collectionScan_Flagged() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "COLLSCAN", "filter": {"email": {"$eq": "a@b.com"}}},
+                                  "rejectedPlans": []},
+                 "executionStats": {"nReturned": 1, "totalKeysExamined": 0, "totalDocsExamined": 5000}}
+                """);
+
+        QueryPlan plan = QueryPlan.from(explain, MAX_RATIO);
+
+        assertEquals(List.of("COLLSCAN"), plan.getStages());
+        assertEquals(List.of(QueryPlan.COLLSCAN, QueryPlan.HIGH_EXAMINED_RATIO), plan.getFlags());
+        assertEquals(5000L, plan.getDocsExamined());
+        assertEquals(1L, plan.getReturned());
+    }
+
+    @Test
+    void selectiveIndexScan_NotFlagged() {
+        Document explain = Document.parse("""
+                {"queryPlanner": {"winningPlan": {"stage": "FETCH", "inputStage": {"stage": "IXSCAN"}},
+                                  "rejectedPlans": [{"stage": "COLLSCAN"}]},
+                 "executionStats": {"nReturned": 20, "totalKeysExamined": 20, "totalDocsExamined": 20}}
+                """);
+
+        QueryPlan plan = QueryPlan.from(explain, MAX_RATIO);
+
+        assertEquals(List.of("FETCH", "IXSCAN"), plan.getStages());
+        assertFalse(plan.isFlagged());
+    }
+
+    @Test
+    void aggregateWithInMemorySort_PlanFoundInCursorStage() {
+        Document explain = Document.parse("""
+                {"stages": [{"$cursor": {"queryPlanner": {"winningPlan": {"stage": "SORT",
+                                                                          "inputStage": {"stage": "IXSCAN"}}},
+                                         "executionStats": {"nReturned": 30, "totalKeysExamined": 30,
+                                                            "totalDocsExamined": 30}}},
+                            {"$group": {"_id": "$secretaria"}}]}
+                """);
+
+        QueryPlan plan = QueryPlan.from(explain, MAX_RATIO);
+
+        assertEquals(List.of(QueryPlan.IN_MEMORY_SORT), plan.getFlags());
+        assertEquals(30L, plan.getReturned());
+    }
+
+    @Test
+    void unavailable_KeepsError() {
+        QueryPlan plan = QueryPlan.unavailable("no such command: 'explain'");
+
+        assertFalse(plan.isFlagged());
+        assertTrue(plan.getStages().isEmpty());
+        assertEquals("no such command: 'explain'", plan.getError());
+    }
+}
@@ -0,0 +1,89 @@
+package com.municipal.repository;
+
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.monitoring.QueryPlan;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans of filtered listing pages: the filter and the {@code (dataNascimento, _id)} keyset order are served by
+ * one index scan, without a blocking sort.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ServidorFilterPlanTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ServidorRepository servidorRepository;
+
+    @Autowired
+    private SecretariaRepository secretariaRepository;
+
+    private Secretaria educacao;
+
+    @BeforeEach
+    void setUp() {
+        servidorRepository.deleteAll();
+        secretariaRepository.deleteAll();
+
+        LocalDate today = LocalDate.now();
+        educacao = secretariaRepository.save(new Secretaria("Secretaria de Educação", "SMED"));
+        Secretaria saude = secretariaRepository.save(new Secretaria("Secretaria de Saúde", "SMS"));
+        servidorRepository.saveAll(List.of(
+                new Servidor("Ana Lima", "ana@email.com", today.minusYears(61), educacao),
+                new Servidor("Bruno Costa", "bruno@email.com", today.minusYears(35), educacao),
+                new Servidor("Carla Dias", "carla@email.com", today.minusYears(66), saude),
+                new Servidor("Davi Rocha", "davi@email.com", today.minusYears(28), saude)));
+    }
+
+    @Test
+    void ageFilter_IndexScanWithoutSort() {
+        QueryPlan plan = explainFirstPage(ServidorFilter.of(60, null, null, LocalDate.now()));
+
+        assertTrue(plan.getStages().contains("IXSCAN"), plan.getStages().toString());
+        assertFalse(plan.getStages().contains("SORT"), plan.getStages().toString());
+    }
+
+    @Test
+    void secretariaAndAgeFilter_IndexScanWithoutSort() {
+        QueryPlan plan = explainFirstPage(ServidorFilter.of(60, 70, educacao.getId(), LocalDate.now()));
+
+        assertTrue(plan.getStages().contains("IXSCAN"), plan.getStages().toString());
+        assertFalse(plan.getStages().contains("SORT"), plan.getStages().toString());
+    }
+
+    /**
+     * Explain the find a filtered listing's first page issues, mapped as the repository maps it
+     */
+    private QueryPlan explainFirstPage(ServidorFilter filter) {
+        Query query = filter.applyTo(KeysetQueries.pageQuery(filter.pageRequest(null, null, null)));
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Servidor.class);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+
+        Document explain = mongoTemplate.getCollection("servidores")
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .limit(query.getLimit())
+                .explain();
+        return QueryPlan.from(explain, 10);
+    }
+}
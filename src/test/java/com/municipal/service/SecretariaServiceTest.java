@@ -2,9 +2,9 @@ package com.municipal.service;
 
 import com.municipal.exception.BusinessException;
 import com.municipal.exception.ResourceNotFoundException;
+import com.municipal.exception.VersionConflictException;
 import com.municipal.model.Secretaria;
 import com.municipal.repository.SecretariaRepository;
-import com.municipal.repository.ServidorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +19,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,9 +28,6 @@ class SecretariaServiceTest {
     @Mock
     private SecretariaRepository secretariaRepository;
 
-    @Mock
-    private ServidorRepository servidorRepository;
-
     @InjectMocks
     private SecretariaService secretariaService;
 
@@ -117,47 +115,74 @@ class SecretariaServiceTest {
     void update_WhenValid_ShouldReturnUpdatedSecretaria() {
         // Given
         Secretaria updatedSecretaria = new Secretaria("Secretaria de Educação Atualizada", "SEDUC");
+        secretaria.setVersion(3L);
         when(secretariaRepository.findById("1")).thenReturn(Optional.of(secretaria));
         when(secretariaRepository.existsBySiglaIgnoreCaseAndIdNot("SEDUC", "1")).thenReturn(false);
-        when(secretariaRepository.save(any(Secretaria.class))).thenReturn(secretaria);
+        when(secretariaRepository.patchIfVersion(eq("1"), eq(3L), any(Secretaria.class)))
+                .thenAnswer(invocation -> Optional.of(invocation.<Secretaria>getArgument(2)));
 
         // When
         Secretaria result = secretariaService.update("1", updatedSecretaria);
 
         // Then
         assertNotNull(result);
+        assertEquals("Secretaria de Educação Atualizada", result.getNome());
         verify(secretariaRepository).findById("1");
         verify(secretariaRepository).existsBySiglaIgnoreCaseAndIdNot("SEDUC", "1");
-        verify(secretariaRepository).save(any(Secretaria.class));
+        verify(secretariaRepository).patchIfVersion(eq("1"), eq(3L), any(Secretaria.class));
+        verify(secretariaRepository, never()).save(any());
     }
 
     @Test
-    void delete_WhenHasNoServidores_ShouldDeleteSuccessfully() {
+    void update_WhenChangedConcurrently_ShouldThrowVersionConflictException() {
         // Given
+        secretaria.setVersion(3L);
         when(secretariaRepository.findById("1")).thenReturn(Optional.of(secretaria));
-        when(servidorRepository.countBySecretaria(secretaria)).thenReturn(0L);
+        when(secretariaRepository.existsBySiglaIgnoreCaseAndIdNot("SEDUC", "1")).thenReturn(false);
+        when(secretariaRepository.patchIfVersion(eq("1"), eq(3L), any(Secretaria.class))).thenReturn(Optional.empty());
+        when(secretariaRepository.existsById("1")).thenReturn(true);
+
+        // When & Then
+        assertThrows(VersionConflictException.class,
+                () -> secretariaService.update("1", new Secretaria("Secretaria de Educação", "SEDUC")));
+    }
+
+    @Test
+    void delete_WhenHasNoServidores_ShouldDeleteSuccessfully() {
+        // Given
+        when(secretariaRepository.deleteIfNoServidores("1")).thenReturn(Optional.of(secretaria));
 
         // When
         secretariaService.delete("1");
 
         // Then
-        verify(secretariaRepository).findById("1");
-        verify(servidorRepository).countBySecretaria(secretaria);
-        verify(secretariaRepository).deleteById("1");
+        verify(secretariaRepository).deleteIfNoServidores("1");
+        verify(secretariaRepository, never()).findById(anyString());
     }
 
     @Test
     void delete_WhenHasServidores_ShouldThrowBusinessException() {
         // Given
+        secretaria.setServidorCount(5L);
+        when(secretariaRepository.deleteIfNoServidores("1")).thenReturn(Optional.empty());
         when(secretariaRepository.findById("1")).thenReturn(Optional.of(secretaria));
-        when(servidorRepository.countBySecretaria(secretaria)).thenReturn(5L);
 
         // When & Then
-        assertThrows(BusinessException.class, () -> secretariaService.delete("1"));
+        BusinessException exception = assertThrows(BusinessException.class, () -> secretariaService.delete("1"));
+        assertTrue(exception.getMessage().contains("5 servidor(es)"));
         verify(secretariaRepository).findById("1");
-        verify(servidorRepository).countBySecretaria(secretaria);
         verify(secretariaRepository, never()).deleteById(anyString());
     }
 
+    @Test
+    void delete_WhenNotFound_ShouldThrowResourceNotFoundException() {
+        // Given
+        when(secretariaRepository.deleteIfNoServidores("1")).thenReturn(Optional.empty());
+        when(secretariaRepository.findById("1")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> secretariaService.delete("1"));
+    }
+
 
 } 
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.municipal.service;
+
+import com.municipal.exception.VersionConflictException;
+import com.municipal.model.Secretaria;
+import com.municipal.model.Servidor;
+import com.municipal.repository.ServidorRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServidorServiceTest {
+
+    @Mock
+    private ServidorRepository servidorRepository;
+
+    @Mock
+    private SecretariaService secretariaService;
+
+    private ServidorService servidorService;
+
+    private Secretaria secretaria;
+
+    @BeforeEach
+    void setUp() {
+        servidorService = new ServidorService(servidorRepository, secretariaService,
+                Validation.buildDefaultValidatorFactory().getValidator(), Runnable::run);
+        secretaria = new Secretaria("Secretaria de Educação", "SEDUC");
+        secretaria.setId("1");
+    }
+
+    @Test
+    void createBatch_WhenInsertFails_ShouldUncountUninsertedItems() {
+        // Given
+        Servidor joao = new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), secretaria);
+        Servidor maria = new Servidor("Maria Santos", "maria@email.com", LocalDate.of(1985, 3, 20), secretaria);
+        when(secretariaService.findAllById(anyCollection())).thenReturn(Map.of("1", secretaria));
+        when(servidorRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(servidorRepository.insertAllUnordered(any()))
+                .thenThrow(new DataAccessResourceFailureException("conexão perdida"));
+        // Only the first insert reached the database before the connection dropped
+        when(servidorRepository.findSecretariaIds(anyCollection()))
+                .thenAnswer(invocation -> Map.of(joao.getId(), "1"));
+
+        // When & Then
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> servidorService.createBatch(List.of(joao, maria)));
+        verify(secretariaService).adjustServidorCounts(Map.of("1", 2L));
+        verify(secretariaService).adjustServidorCounts(Map.of("1", -1L));
+    }
+
+    @Test
+    void update_WhenExpectedVersionIsStale_ShouldThrowVersionConflictException() {
+        // Given
+        Servidor existing = new Servidor("João Silva", "joao@email.com", LocalDate.of(1990, 5, 15), secretaria);
+        existing.setId("10");
+        existing.setVersion(4L);
+        when(servidorRepository.findById("10")).thenReturn(Optional.of(existing));
+        Servidor changes = new Servidor("João Souza", "joao@email.com", LocalDate.of(1990, 5, 15), secretaria);
+
+        // When & Then
+        assertThrows(VersionConflictException.class, () -> servidorService.update("10", changes, 3L));
+        verify(servidorRepository, never()).save(any());
+    }
+}